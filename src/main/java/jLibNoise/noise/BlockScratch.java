@@ -0,0 +1,105 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+/**
+ * Scratch arrays reused by the block methods of a noise module.
+ * <p/>
+ * Noise modules that need temporary arrays to evaluate a block of input
+ * values keep one BlockScratch per thread (see threadLocal()) instead of
+ * allocating new arrays for every block.  Each array is identified by a
+ * small index chosen by the noise module, and grows when a longer block
+ * is evaluated.
+ * <p/>
+ * A noise module must not share its scratch arrays with other noise
+ * modules: its source modules are evaluated while its own scratch arrays
+ * are in use.
+ */
+public final class BlockScratch {
+
+    private double[][] doubles = new double[0][];
+    private int[][] ints = new int[0][];
+
+    /**
+     * Returns a scratch array of doubles.
+     * <p/>
+     * The contents of the array are left over from its previous use.
+     *
+     * @param index  The index of the array.
+     * @param length The minimum length of the array.
+     * @return The scratch array.
+     */
+    public double[] getDoubles(int index, int length) {
+        if (index >= doubles.length) {
+            double[][] grown = new double[index + 1][];
+            System.arraycopy(doubles, 0, grown, 0, doubles.length);
+            doubles = grown;
+        }
+        double[] array = doubles[index];
+        if (array == null || array.length < length) {
+            array = new double[length];
+            doubles[index] = array;
+        }
+        return array;
+    }
+
+    /**
+     * Returns a scratch array of integers.
+     * <p/>
+     * The contents of the array are left over from its previous use.
+     *
+     * @param index  The index of the array.
+     * @param length The minimum length of the array.
+     * @return The scratch array.
+     */
+    public int[] getInts(int index, int length) {
+        if (index >= ints.length) {
+            int[][] grown = new int[index + 1][];
+            System.arraycopy(ints, 0, grown, 0, ints.length);
+            ints = grown;
+        }
+        int[] array = ints[index];
+        if (array == null || array.length < length) {
+            array = new int[length];
+            ints[index] = array;
+        }
+        return array;
+    }
+
+    /**
+     * Returns a thread-local variable that creates one BlockScratch for
+     * each thread.
+     *
+     * @return The thread-local variable.
+     */
+    public static ThreadLocal<BlockScratch> threadLocal() {
+        return new ThreadLocal<BlockScratch>() {
+            @Override
+            protected BlockScratch initialValue() {
+                return new BlockScratch();
+            }
+        };
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+/**
+ * Gradient-coherent-noise in 16.16 fixed-point arithmetic.
+ * <p/>
+ * These functions generate the same noise as the gradient-coherent-noise
+ * functions in NoiseGen (same lattice hash and gradient vectors) but
+ * only use integer arithmetic, so they return bit-identical results on
+ * every JVM and CPU.  This makes them suitable for noise maps built in
+ * pieces on different machines that must join without seams.
+ * <p/>
+ * Coordinates are passed as 16.16 fixed-point numbers held in a long (so
+ * the integer part may use the full int range) and values are returned
+ * as 16.16 fixed-point numbers held in an int.  The results differ from
+ * the double-precision functions by rounding only (less than 1e-3.)
+ */
+public final class FixedNoiseGen {
+
+    /**
+     * Number of fractional bits of a fixed-point number.
+     */
+    public static final int FIXED_SHIFT = 16;
+    /**
+     * The fixed-point representation of 1.0.
+     */
+    public static final int FIXED_ONE = 1 << FIXED_SHIFT;
+
+    // The gradient-noise scaling factor (2.12) in fixed point.
+    private static final long GRADIENT_SCALE = 138936;
+    // Vectortable.randomVectors in fixed point.
+    private static final int[] randomVectors = new int[Vectortable.randomVectors.length];
+
+    static {
+        for (int i = 0; i < randomVectors.length; i++) {
+            randomVectors[i] = (int) Math.round(Vectortable.randomVectors[i] * FIXED_ONE);
+        }
+    }
+
+    private FixedNoiseGen() {
+    }
+
+    /**
+     * Converts a floating-point number to 16.16 fixed point, rounding to
+     * the nearest representable value.
+     *
+     * @param n A floating-point number.
+     * @return The fixed-point number.
+     */
+    public static long toFixed(double n) {
+        return Math.round(n * FIXED_ONE);
+    }
+
+    /**
+     * Converts a 16.16 fixed-point number to floating point.
+     *
+     * @param n A fixed-point number.
+     * @return The floating-point number.
+     */
+    public static double toDouble(long n) {
+        return (double) n / FIXED_ONE;
+    }
+
+    /**
+     * Generates a fixed-point gradient-coherent-noise value from the
+     * fixed-point coordinates of a three-dimensional input value.
+     * <p/>
+     * The return value ranges from about -FIXED_ONE to +FIXED_ONE.
+     *
+     * @param x            The @a x coordinate of the input value, in 16.16 fixed point.
+     * @param y            The @a y coordinate of the input value, in 16.16 fixed point.
+     * @param z            The @a z coordinate of the input value, in 16.16 fixed point.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value, in 16.16 fixed point.
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, int, NoiseQuality)
+     */
+    public static int gradientCoherentNoise3D(long x, long y, long z, int seed, NoiseQuality noiseQuality) {
+        // The integer part is the lattice cube, the fraction the distance into it.
+        int x0 = (int) (x >> FIXED_SHIFT);
+        int y0 = (int) (y >> FIXED_SHIFT);
+        int z0 = (int) (z >> FIXED_SHIFT);
+        int xf = (int) x & (FIXED_ONE - 1);
+        int yf = (int) y & (FIXED_ONE - 1);
+        int zf = (int) z & (FIXED_ONE - 1);
+
+        int xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = xf;
+                ys = yf;
+                zs = zf;
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3Fixed(xf);
+                ys = Interp.sCurve3Fixed(yf);
+                zs = Interp.sCurve3Fixed(zf);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5Fixed(xf);
+                ys = Interp.sCurve5Fixed(yf);
+                zs = Interp.sCurve5Fixed(zf);
+                break;
+        }
+
+        return gradientLatticeNoise3D(x0, y0, z0, xf, yf, zf, xs, ys, zs, seed);
+    }
+
+    /**
+     * Generates fixed-point gradient-coherent-noise values for a batch of
+     * three-dimensional input values.
+     * <p/>
+     * This is equivalent to calling gradientCoherentNoise3D() once for each
+     * input value, but the noise quality is only resolved once for the
+     * whole batch, leaving a single branch-free loop per quality.
+     *
+     * @param xs           The @a x coordinates of the input values, in 16.16 fixed point.
+     * @param ys           The @a y coordinates of the input values, in 16.16 fixed point.
+     * @param zs           The @a z coordinates of the input values, in 16.16 fixed point.
+     * @param out          The array that receives the generated values, in 16.16 fixed point.
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise3D(long[] xs, long[] ys, long[] zs, int[] out, int offset, int count,
+                                               int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                for (int i = offset; i < end; i++) {
+                    int x0 = (int) (xs[i] >> FIXED_SHIFT);
+                    int y0 = (int) (ys[i] >> FIXED_SHIFT);
+                    int z0 = (int) (zs[i] >> FIXED_SHIFT);
+                    int xf = (int) xs[i] & (FIXED_ONE - 1);
+                    int yf = (int) ys[i] & (FIXED_ONE - 1);
+                    int zf = (int) zs[i] & (FIXED_ONE - 1);
+                    out[i] = gradientLatticeNoise3D(x0, y0, z0, xf, yf, zf, xf, yf, zf, seed);
+                }
+                break;
+            case QUALITY_STD:
+                for (int i = offset; i < end; i++) {
+                    int x0 = (int) (xs[i] >> FIXED_SHIFT);
+                    int y0 = (int) (ys[i] >> FIXED_SHIFT);
+                    int z0 = (int) (zs[i] >> FIXED_SHIFT);
+                    int xf = (int) xs[i] & (FIXED_ONE - 1);
+                    int yf = (int) ys[i] & (FIXED_ONE - 1);
+                    int zf = (int) zs[i] & (FIXED_ONE - 1);
+                    out[i] = gradientLatticeNoise3D(x0, y0, z0, xf, yf, zf,
+                            Interp.sCurve3Fixed(xf), Interp.sCurve3Fixed(yf), Interp.sCurve3Fixed(zf), seed);
+                }
+                break;
+            case QUALITY_BEST:
+                for (int i = offset; i < end; i++) {
+                    int x0 = (int) (xs[i] >> FIXED_SHIFT);
+                    int y0 = (int) (ys[i] >> FIXED_SHIFT);
+                    int z0 = (int) (zs[i] >> FIXED_SHIFT);
+                    int xf = (int) xs[i] & (FIXED_ONE - 1);
+                    int yf = (int) ys[i] & (FIXED_ONE - 1);
+                    int zf = (int) zs[i] & (FIXED_ONE - 1);
+                    out[i] = gradientLatticeNoise3D(x0, y0, z0, xf, yf, zf,
+                            Interp.sCurve5Fixed(xf), Interp.sCurve5Fixed(yf), Interp.sCurve5Fixed(zf), seed);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Generates a fixed-point gradient-noise value for one corner of a
+     * lattice cube.
+     *
+     * @param ix   The integer @a x coordinate of the corner.
+     * @param iy   The integer @a y coordinate of the corner.
+     * @param iz   The integer @a z coordinate of the corner.
+     * @param px   The @a x distance from the corner to the input value, in 16.16 fixed point.
+     * @param py   The @a y distance from the corner to the input value, in 16.16 fixed point.
+     * @param pz   The @a z distance from the corner to the input value, in 16.16 fixed point.
+     * @param seed The random number seed.
+     * @return The generated gradient-noise value, in 16.16 fixed point.
+     * @see NoiseGen#gradientNoise3D(double, double, double, int, int, int, int)
+     */
+    public static int gradientNoise3D(int ix, int iy, int iz, int px, int py, int pz, int seed) {
+        int vectorIndex = (
+                NoiseGen.X_NOISE_GEN * ix
+                        + NoiseGen.Y_NOISE_GEN * iy
+                        + NoiseGen.Z_NOISE_GEN * iz
+                        + NoiseGen.SEED_NOISE_GEN * seed);
+        vectorIndex ^= (vectorIndex >> NoiseGen.SHIFT_NOISE_GEN);
+        vectorIndex &= 0xff;
+
+        long dot = (long) randomVectors[(vectorIndex << 2)] * px
+                + (long) randomVectors[(vectorIndex << 2) + 1] * py
+                + (long) randomVectors[(vectorIndex << 2) + 2] * pz;
+        return (int) (((dot >> FIXED_SHIFT) * GRADIENT_SCALE) >> FIXED_SHIFT);
+    }
+
+    private static int gradientLatticeNoise3D(int x0, int y0, int z0, int xf, int yf, int zf,
+                                              int xs, int ys, int zs, int seed) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+        int xf1 = xf - FIXED_ONE;
+        int yf1 = yf - FIXED_ONE;
+        int zf1 = zf - FIXED_ONE;
+
+        int n0, n1, ix0, ix1, iy0, iy1;
+        n0 = gradientNoise3D(x0, y0, z0, xf, yf, zf, seed);
+        n1 = gradientNoise3D(x1, y0, z0, xf1, yf, zf, seed);
+        ix0 = Interp.linearInterpFixed(n0, n1, xs);
+        n0 = gradientNoise3D(x0, y1, z0, xf, yf1, zf, seed);
+        n1 = gradientNoise3D(x1, y1, z0, xf1, yf1, zf, seed);
+        ix1 = Interp.linearInterpFixed(n0, n1, xs);
+        iy0 = Interp.linearInterpFixed(ix0, ix1, ys);
+        n0 = gradientNoise3D(x0, y0, z1, xf, yf, zf1, seed);
+        n1 = gradientNoise3D(x1, y0, z1, xf1, yf, zf1, seed);
+        ix0 = Interp.linearInterpFixed(n0, n1, xs);
+        n0 = gradientNoise3D(x0, y1, z1, xf, yf1, zf1, seed);
+        n1 = gradientNoise3D(x1, y1, z1, xf1, yf1, zf1, seed);
+        ix1 = Interp.linearInterpFixed(n0, n1, xs);
+        iy1 = Interp.linearInterpFixed(ix0, ix1, ys);
+
+        return Interp.linearInterpFixed(iy0, iy1, zs);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seed-specific permutation table for gradient noise.
+ * <p/>
+ * In LatticeMode.LIBNOISE the gradient vector of a lattice point is chosen
+ * by hashing its coordinates and the seed.  A gradient table instead
+ * shuffles the 256 rows of Vectortable.randomVectors once for its seed,
+ * and picks the gradient vector of a lattice point with three table
+ * lookups (the classic Perlin permutation scheme.)
+ * <p/>
+ * Tables are immutable, so they can be shared between threads.  Use
+ * forSeed() to obtain one: recently used tables are kept in a bounded
+ * cache, so a table is normally only built once per seed.
+ */
+public final class GradientTable {
+
+    /**
+     * Maximum number of tables kept in the cache.
+     */
+    public static final int CACHE_SIZE = 256;
+
+    private static final ConcurrentHashMap<Integer, GradientTable> cache =
+            new ConcurrentHashMap<Integer, GradientTable>();
+
+    // The seed this table was built from.
+    private final int seed;
+    // Permutation of 0..255, repeated twice so that sums of two entries need no masking.
+    private final int[] permutation = new int[512];
+
+    private GradientTable(int seed) {
+        this.seed = seed;
+
+        // Fisher-Yates shuffle.  java.util.Random is fully specified, so the
+        // permutation is identical on every JVM.
+        Random random = new Random(seed);
+        for (int i = 0; i < 256; i++) {
+            permutation[i] = i;
+        }
+        for (int i = 255; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        System.arraycopy(permutation, 0, permutation, 256, 256);
+    }
+
+    /**
+     * Returns the gradient table for the specified seed.
+     *
+     * @param seed The random number seed.
+     * @return The gradient table.
+     */
+    public static GradientTable forSeed(int seed) {
+        Integer key = seed;
+        GradientTable table = cache.get(key);
+        if (table == null) {
+            if (cache.size() >= CACHE_SIZE) {
+                // Evict an arbitrary entry; tables are cheap to rebuild.
+                Iterator<Integer> it = cache.keySet().iterator();
+                if (it.hasNext()) {
+                    cache.remove(it.next());
+                }
+            }
+            GradientTable existing = cache.putIfAbsent(key, table = new GradientTable(seed));
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the seed this table was built from.
+     *
+     * @return The seed value.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the row of Vectortable.randomVectors assigned to a lattice
+     * point.
+     *
+     * @param ix The integer @a x coordinate of the lattice point.
+     * @param iy The integer @a y coordinate of the lattice point.
+     * @param iz The integer @a z coordinate of the lattice point.
+     * @return The row index, from 0 to 255.
+     */
+    public int vectorIndex(int ix, int iy, int iz) {
+        return permutation[permutation[permutation[ix & 0xff] + (iy & 0xff)] + (iz & 0xff)];
+    }
+
+    /**
+     * Generates a gradient-noise value from the coordinates of a
+     * three-dimensional input value and the integer coordinates of a
+     * nearby lattice point.
+     * <p/>
+     * This is the table-driven equivalent of NoiseGen.gradientNoise3D().
+     *
+     * @param fx The floating-point @a x coordinate of the input value.
+     * @param fy The floating-point @a y coordinate of the input value.
+     * @param fz The floating-point @a z coordinate of the input value.
+     * @param ix The integer @a x coordinate of a nearby value.
+     * @param iy The integer @a y coordinate of a nearby value.
+     * @param iz The integer @a z coordinate of a nearby value.
+     * @return The generated gradient-noise value.
+     */
+    public double gradientNoise3D(double fx, double fy, double fz, int ix, int iy, int iz) {
+        int row = vectorIndex(ix, iy, iz) << 2;
+        return ((Vectortable.randomVectors[row] * (fx - (double) ix))
+                + (Vectortable.randomVectors[row + 1] * (fy - (double) iy))
+                + (Vectortable.randomVectors[row + 2] * (fz - (double) iz))) * 2.12;
+    }
+}
@@ -68,6 +68,19 @@ public abstract class Interp {
         return ((1.0 - a) * n0) + (a * n1);
     }
 
+    /**
+     * Performs linear interpolation between two single-precision values.
+     *
+     * @param n0 The first value.
+     * @param n1 The second value.
+     * @param a  The alpha value.
+     * @return The interpolated value.
+     * @see #linearInterp(double, double, double)
+     */
+    public static float linearInterp(float n0, float n1, float a) {
+        return ((1.0f - a) * n0) + (a * n1);
+    }
+
     /**
      * Maps a value onto a cubic S-curve.
      * <p/>
@@ -80,6 +93,27 @@ public abstract class Interp {
         return (a * a * (3.0 - 2.0 * a));
     }
 
+    /**
+     * Returns the derivative of the cubic S-curve at the specified value.
+     *
+     * @param a The value passed to sCurve3(). (should range from 0.0 to 1.0)
+     * @return The slope of the cubic S-curve at @a a.
+     */
+    public static double sCurve3Derivative(double a) {
+        return 6.0 * a * (1.0 - a);
+    }
+
+    /**
+     * Maps a single-precision value onto a cubic S-curve.
+     *
+     * @param a The value to map onto a cubic S-curve. (should range from 0.0 to 1.0)
+     * @return The mapped value.
+     * @see #sCurve3(double)
+     */
+    public static float sCurve3(float a) {
+        return (a * a * (3.0f - 2.0f * a));
+    }
+
     /**
      * Maps a value onto a quintic S-curve.
      * <p/>
@@ -96,4 +130,68 @@ public abstract class Interp {
         double a5 = a4 * a;
         return (6.0 * a5) - (15.0 * a4) + (10.0 * a3);
     }
+
+    /**
+     * Returns the derivative of the quintic S-curve at the specified value.
+     *
+     * @param a The value passed to sCurve5(). (should range from 0.0 to 1.0)
+     * @return The slope of the quintic S-curve at @a a.
+     */
+    public static double sCurve5Derivative(double a) {
+        double b = a * (a - 1.0);
+        return 30.0 * b * b;
+    }
+
+    /**
+     * Maps a single-precision value onto a quintic S-curve.
+     *
+     * @param a The value to map onto a quintic S-curve. (should range from 0.0 to 1.0)
+     * @return The mapped value.
+     * @see #sCurve5(double)
+     */
+    public static float sCurve5(float a) {
+        float a3 = a * a * a;
+        float a4 = a3 * a;
+        float a5 = a4 * a;
+        return (6.0f * a5) - (15.0f * a4) + (10.0f * a3);
+    }
+
+    /**
+     * Performs linear interpolation between two 16.16 fixed-point values.
+     *
+     * @param n0 The first value.
+     * @param n1 The second value.
+     * @param a  The alpha value, from 0 to FixedNoiseGen.FIXED_ONE.
+     * @return The interpolated value.
+     * @see #linearInterp(double, double, double)
+     */
+    public static int linearInterpFixed(int n0, int n1, int a) {
+        return n0 + (int) (((long) (n1 - n0) * a) >> FixedNoiseGen.FIXED_SHIFT);
+    }
+
+    /**
+     * Maps a 16.16 fixed-point value onto a cubic S-curve.
+     *
+     * @param a The value to map, from 0 to FixedNoiseGen.FIXED_ONE.
+     * @return The mapped value.
+     * @see #sCurve3(double)
+     */
+    public static int sCurve3Fixed(int a) {
+        long a2 = ((long) a * a) >> FixedNoiseGen.FIXED_SHIFT;
+        return (int) ((a2 * (3L * FixedNoiseGen.FIXED_ONE - 2L * a)) >> FixedNoiseGen.FIXED_SHIFT);
+    }
+
+    /**
+     * Maps a 16.16 fixed-point value onto a quintic S-curve.
+     *
+     * @param a The value to map, from 0 to FixedNoiseGen.FIXED_ONE.
+     * @return The mapped value.
+     * @see #sCurve5(double)
+     */
+    public static int sCurve5Fixed(int a) {
+        // a^3 * (a * (6a - 15) + 10), evaluated in 16.16.
+        long a3 = ((((long) a * a) >> FixedNoiseGen.FIXED_SHIFT) * a) >> FixedNoiseGen.FIXED_SHIFT;
+        long inner = ((long) a * (6L * a - 15L * FixedNoiseGen.FIXED_ONE)) >> FixedNoiseGen.FIXED_SHIFT;
+        return (int) ((a3 * (inner + 10L * FixedNoiseGen.FIXED_ONE)) >> FixedNoiseGen.FIXED_SHIFT);
+    }
 }
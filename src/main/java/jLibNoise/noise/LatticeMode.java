@@ -0,0 +1,46 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+/**
+ * Enumerates the ways of assigning gradient vectors to lattice points.
+ */
+public enum LatticeMode {
+
+    /**
+     * Hashes the integer coordinates of each lattice point together with
+     * the seed, exactly as libnoise does.  Noise generated in this mode is
+     * identical to the output of the original library.
+     */
+    LIBNOISE,
+
+    /**
+     * Looks up each lattice point in a permutation table built once per
+     * seed (see GradientTable.)  This needs less integer work per lattice
+     * point than LIBNOISE but produces different noise, which repeats
+     * every 256 units along each axis.
+     */
+    PERMUTATION_TABLE
+}
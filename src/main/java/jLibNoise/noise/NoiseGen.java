@@ -33,9 +33,86 @@ public class NoiseGen {
     public static final int X_NOISE_GEN = 1619;
     public static final int Y_NOISE_GEN = 31337;
     public static final int Z_NOISE_GEN = 6971;
+    public static final int W_NOISE_GEN = 26699;
     public static final int SEED_NOISE_GEN = 1013;
     public static final int SHIFT_NOISE_GEN = 8;
 
+    // Skewing and unskewing factors for three-dimensional simplex noise.
+    private static final double SIMPLEX_SKEW_3D = 1.0 / 3.0;
+    private static final double SIMPLEX_UNSKEW_3D = 1.0 / 6.0;
+    // Scales three-dimensional simplex noise to roughly -1.0 to +1.0.
+    private static final double SIMPLEX_SCALE_3D = 40.0;
+
+    /**
+     * Scales four-dimensional gradient noise so that its amplitude matches
+     * the three-dimensional noise (the 4D equivalent of the 2.12 factor.)
+     * <p/>
+     * Unlike GRADIENT_COHERENT_NOISE_BOUND, this factor is measured rather
+     * than derived: it is the ratio of the root mean square of
+     * GradientCoherentNoise3D() to that of the unscaled
+     * GradientCoherentNoise4D(), both with QUALITY_STD (the default
+     * quality of the Perlin noise module), over two million random input
+     * values.  The ratio is 2.37 for QUALITY_STD, 2.54 for QUALITY_FAST and
+     * 2.31 for QUALITY_BEST; the peak values have about the same ratio.
+     * A worst-case bound like GRADIENT_COHERENT_NOISE_BOUND would leave the
+     * four-dimensional noise visibly fainter, since sixteen corners average
+     * out more than eight.
+     */
+    private static final double GRADIENT_4D_SCALE = 2.37;
+
+    /**
+     * Bound on the absolute value returned by the three-dimensional
+     * gradient-coherent-noise functions, for every quality and lattice
+     * mode.
+     * <p/>
+     * Each corner value is 2.12 times the dot product of a gradient vector
+     * with the offset from that corner.  Along each axis, the weighted
+     * mean of the squared offsets, (1 - s) t^2 + s (1 - t)^2 where @a s is
+     * the S-curve value of the distance @a t, never exceeds 1/4, so the
+     * interpolated value is at most 2.12 * sqrt(3/4) times the length of
+     * the longest gradient vector.  The two-dimensional functions stay
+     * within the same bound.
+     */
+    public static final double GRADIENT_COHERENT_NOISE_BOUND = 2.12 * Math.sqrt(0.75) * maxGradientLength();
+
+    /**
+     * Bound on the absolute value returned by SimplexNoise3D().
+     * <p/>
+     * A simplex corner at distance @a r contributes at most
+     * (0.6 - r^2)^4 * r times the length of its gradient vector, which
+     * peaks at r^2 = 0.6 / 9, and at most four corners contribute.  Actual
+     * values rarely leave -1.0 to +1.0; this bound is the guaranteed one.
+     */
+    public static final double SIMPLEX_NOISE_BOUND;
+
+    static {
+        double r2 = 0.6 / 9.0;
+        double t = 0.6 - r2;
+        SIMPLEX_NOISE_BOUND = 4.0 * t * t * t * t * Math.sqrt(r2) * maxGradientLength() * SIMPLEX_SCALE_3D;
+    }
+
+    // Maximum number of lattice cells visited by
+    // gradientCoherentNoiseRange3D() before it falls back to
+    // GRADIENT_COHERENT_NOISE_BOUND.
+    private static final int MAX_RANGE_CELLS = 64;
+    // Margin added to the ranges computed by gradientCoherentNoiseRange3D()
+    // to absorb the rounding of the scalar functions.
+    private static final double RANGE_EPSILON = 1e-12;
+    // Coordinates outside this bound are not split into lattice cells.
+    private static final double MAX_RANGE_COORDINATE = 1073741824.0;
+
+    // Returns the length of the longest gradient vector in
+    // Vectortable.randomVectors.
+    private static double maxGradientLength() {
+        double max = 0.0;
+        double[] vectors = Vectortable.randomVectors;
+        for (int row = 0; row < vectors.length; row += 4) {
+            double x = vectors[row], y = vectors[row + 1], z = vectors[row + 2];
+            max = Math.max(max, Math.sqrt(x * x + y * y + z * z));
+        }
+        return max;
+    }
+
     /**
      * Generates a gradient-coherent-noise value from the coordinates of a
      * three-dimensional input value.
@@ -56,86 +133,1612 @@ public class NoiseGen {
         // Create a unit-length cube aligned along an integer boundary.  This cube
         // surrounds the input point.
         int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        // Map the difference between the coordinates of the input value and the
+        // coordinates of the cube's outer-lower-left vertex onto an S-curve.
+        double xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                ys = (y - (double) y0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                ys = Interp.sCurve3(y - (double) y0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                ys = Interp.sCurve5(y - (double) y0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        return gradientLatticeNoise3D(x, y, z, x0, y0, z0, xs, ys, zs, seed);
+    }
+
+    public static double gradientCoherentNoise3D(double x, double y, double z) {
+        return gradientCoherentNoise3D(x, y, z, 0, NoiseQuality.QUALITY_STD);
+    }
+
+    public static double gradientCoherentNoise3D(double x, double y, double z, int seed) {
+        return gradientCoherentNoise3D(x, y, z, seed, NoiseQuality.QUALITY_STD);
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value from the coordinates of a
+     * three-dimensional input value, using a seed-specific gradient table
+     * instead of the libnoise lattice hash.
+     * <p/>
+     * The return value ranges from -1.0 to +1.0.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param table        The gradient table of the seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     * @see LatticeMode#PERMUTATION_TABLE
+     */
+    public static double gradientCoherentNoise3D(double x, double y, double z, GradientTable table,
+                                                 NoiseQuality noiseQuality) {
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        double xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                ys = (y - (double) y0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                ys = Interp.sCurve3(y - (double) y0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                ys = Interp.sCurve5(y - (double) y0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        return gradientLatticeNoise3D(x, y, z, x0, y0, z0, xs, ys, zs, table);
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value, and its analytic partial
+     * derivatives, from the coordinates of a three-dimensional input value.
+     * <p/>
+     * The returned value is identical to gradientCoherentNoise3D( @a x,
+     * @a y, @a z, @a seed, @a noiseQuality ).  The partial derivatives
+     * d/dx, d/dy and d/dz of the noise at the input value are written to
+     * the first three elements of @a derivative.
+     * <p/>
+     * With QUALITY_FAST the derivative is discontinuous across lattice
+     * boundaries; the value returned there is the one-sided derivative
+     * from inside the cube that contains the input value.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @param derivative   The array that receives the partial derivatives.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static double gradientCoherentNoise3D(double x, double y, double z, int seed, NoiseQuality noiseQuality,
+                                                 double[] derivative) {
+        return gradientCoherentNoise3DDerivative(x, y, z, seed, null, noiseQuality, derivative);
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value, and its analytic partial
+     * derivatives, using a seed-specific gradient table.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param table        The gradient table of the seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @param derivative   The array that receives the partial derivatives.
+     * @return The generated gradient-coherent-noise value.
+     * @see #gradientCoherentNoise3D(double, double, double, int, NoiseQuality, double[])
+     */
+    public static double gradientCoherentNoise3D(double x, double y, double z, GradientTable table,
+                                                 NoiseQuality noiseQuality, double[] derivative) {
+        return gradientCoherentNoise3DDerivative(x, y, z, 0, table, noiseQuality, derivative);
+    }
+
+    /**
+     * Shared implementation of the derivative functions.  The lattice is
+     * hashed with @a seed unless a gradient @a table is given.
+     */
+    private static double gradientCoherentNoise3DDerivative(double x, double y, double z, int seed, GradientTable table,
+                                                            NoiseQuality noiseQuality, double[] derivative) {
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        // Map the distances into the cube onto an S-curve, and keep the slope
+        // of that S-curve for the chain rule.
+        double xf = x - (double) x0;
+        double yf = y - (double) y0;
+        double zf = z - (double) z0;
+        double xs = 0, ys = 0, zs = 0;
+        double dxs = 0, dys = 0, dzs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = xf;
+                ys = yf;
+                zs = zf;
+                dxs = dys = dzs = 1.0;
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(xf);
+                ys = Interp.sCurve3(yf);
+                zs = Interp.sCurve3(zf);
+                dxs = Interp.sCurve3Derivative(xf);
+                dys = Interp.sCurve3Derivative(yf);
+                dzs = Interp.sCurve3Derivative(zf);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(xf);
+                ys = Interp.sCurve5(yf);
+                zs = Interp.sCurve5(zf);
+                dxs = Interp.sCurve5Derivative(xf);
+                dys = Interp.sCurve5Derivative(yf);
+                dzs = Interp.sCurve5Derivative(zf);
+                break;
+        }
+
+        return gradientLatticeNoise3D(x, y, z, x0, y0, z0, xs, ys, zs, dxs, dys, dzs, seed, table, derivative);
+    }
+
+    /**
+     * Interpolates the gradient-noise values at the eight corners of the
+     * unit cube whose outer-lower-left vertex is ( @a x0, @a y0, @a z0 ),
+     * and writes the partial derivatives of the result to @a derivative.
+     * <p/>
+     * @a dxs, @a dys and @a dzs are the slopes of the S-curve at the
+     * distances into the cube.  The lattice is hashed with @a seed unless a
+     * gradient @a table is given.
+     */
+    static double gradientLatticeNoise3D(double x, double y, double z, int x0, int y0, int z0,
+                                         double xs, double ys, double zs, double dxs, double dys, double dzs,
+                                         int seed, GradientTable table, double[] derivative) {
+        // Look up the gradient vector at each vertex of the cube.  Vertex abc
+        // is offset by (a, b, c) from the cube's outer-lower-left vertex.
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+        int g000 = vertexVectorIndex(x0, y0, z0, seed, table) << 2;
+        int g100 = vertexVectorIndex(x1, y0, z0, seed, table) << 2;
+        int g010 = vertexVectorIndex(x0, y1, z0, seed, table) << 2;
+        int g110 = vertexVectorIndex(x1, y1, z0, seed, table) << 2;
+        int g001 = vertexVectorIndex(x0, y0, z1, seed, table) << 2;
+        int g101 = vertexVectorIndex(x1, y0, z1, seed, table) << 2;
+        int g011 = vertexVectorIndex(x0, y1, z1, seed, table) << 2;
+        int g111 = vertexVectorIndex(x1, y1, z1, seed, table) << 2;
+
+        // Calculate the noise value at each vertex of the cube.
+        double xv0 = x - (double) x0, xv1 = x - (double) x1;
+        double yv0 = y - (double) y0, yv1 = y - (double) y1;
+        double zv0 = z - (double) z0, zv1 = z - (double) z1;
+        double n000 = vertexNoise(g000, xv0, yv0, zv0);
+        double n100 = vertexNoise(g100, xv1, yv0, zv0);
+        double n010 = vertexNoise(g010, xv0, yv1, zv0);
+        double n110 = vertexNoise(g110, xv1, yv1, zv0);
+        double n001 = vertexNoise(g001, xv0, yv0, zv1);
+        double n101 = vertexNoise(g101, xv1, yv0, zv1);
+        double n011 = vertexNoise(g011, xv0, yv1, zv1);
+        double n111 = vertexNoise(g111, xv1, yv1, zv1);
+
+        // Interpolate the vertex values exactly as gradientLatticeNoise3D() does.
+        double ix0, ix1, iy0, iy1;
+        ix0 = Interp.linearInterp(n000, n100, xs);
+        ix1 = Interp.linearInterp(n010, n110, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        double dy0 = ix1 - ix0;
+        ix0 = Interp.linearInterp(n001, n101, xs);
+        ix1 = Interp.linearInterp(n011, n111, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+        double dy1 = ix1 - ix0;
+
+        // Each partial derivative has two parts: the change in the S-curve
+        // weights, and the interpolated vertex gradients.
+        double du = Interp.linearInterp(
+                Interp.linearInterp(n100 - n000, n110 - n010, ys),
+                Interp.linearInterp(n101 - n001, n111 - n011, ys), zs);
+        double dv = Interp.linearInterp(dy0, dy1, zs);
+        double dw = iy1 - iy0;
+        derivative[0] = dxs * du + gradientInterp(0, g000, g100, g010, g110, g001, g101, g011, g111, xs, ys, zs);
+        derivative[1] = dys * dv + gradientInterp(1, g000, g100, g010, g110, g001, g101, g011, g111, xs, ys, zs);
+        derivative[2] = dzs * dw + gradientInterp(2, g000, g100, g010, g110, g001, g101, g011, g111, xs, ys, zs);
+
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Returns the index of the gradient vector at a lattice vertex, hashed
+     * with @a seed unless a gradient @a table is given.
+     */
+    private static int vertexVectorIndex(int ix, int iy, int iz, int seed, GradientTable table) {
+        if (table != null) {
+            return table.vectorIndex(ix, iy, iz);
+        }
+        int vectorIndex = (
+                X_NOISE_GEN * ix
+                        + Y_NOISE_GEN * iy
+                        + Z_NOISE_GEN * iz
+                        + SEED_NOISE_GEN * seed);
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        return vectorIndex & 0xff;
+    }
+
+    /**
+     * Returns the gradient-noise value at a lattice vertex, given the offset
+     * @a g of its gradient vector in Vectortable.randomVectors and the
+     * distance vector from the vertex to the input value.
+     */
+    private static double vertexNoise(int g, double xvPoint, double yvPoint, double zvPoint) {
+        return ((Vectortable.randomVectors[g] * xvPoint)
+                + (Vectortable.randomVectors[g + 1] * yvPoint)
+                + (Vectortable.randomVectors[g + 2] * zvPoint)) * 2.12;
+    }
+
+    /**
+     * Trilinearly interpolates one component of the (scaled) gradient
+     * vectors at the eight vertices of a cube, given the offsets of the
+     * vectors in Vectortable.randomVectors.
+     */
+    private static double gradientInterp(int component, int g000, int g100, int g010, int g110,
+                                         int g001, int g101, int g011, int g111, double xs, double ys, double zs) {
+        double[] vectors = Vectortable.randomVectors;
+        double ix0 = Interp.linearInterp(vectors[g000 + component] * 2.12, vectors[g100 + component] * 2.12, xs);
+        double ix1 = Interp.linearInterp(vectors[g010 + component] * 2.12, vectors[g110 + component] * 2.12, xs);
+        double iy0 = Interp.linearInterp(ix0, ix1, ys);
+        ix0 = Interp.linearInterp(vectors[g001 + component] * 2.12, vectors[g101 + component] * 2.12, xs);
+        ix1 = Interp.linearInterp(vectors[g011 + component] * 2.12, vectors[g111 + component] * 2.12, xs);
+        double iy1 = Interp.linearInterp(ix0, ix1, ys);
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Generates gradient-coherent-noise values for a batch of
+     * three-dimensional input values.
+     * <p/>
+     * This is equivalent to calling gradientCoherentNoise3D() once for
+     * each input value, but the noise quality is only resolved once for
+     * the whole batch, leaving a single branch-free loop per quality.
+     * <p/>
+     * The input values are read from, and the output values written to,
+     * the elements @a offset to @a offset + @a count - 1 of each array.
+     *
+     * @param xs           The @a x coordinates of the input values.
+     * @param ys           The @a y coordinates of the input values.
+     * @param zs           The @a z coordinates of the input values.
+     * @param out          The array that receives the generated values.
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise3D(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count,
+                                               int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                            x - (double) x0, y - (double) y0, z - (double) z0, seed);
+                }
+                break;
+            case QUALITY_STD:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                            Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                            Interp.sCurve3(z - (double) z0), seed);
+                }
+                break;
+            case QUALITY_BEST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                            Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                            Interp.sCurve5(z - (double) z0), seed);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Generates gradient-coherent-noise values for a single
+     * three-dimensional input value under several random number seeds.
+     * <p/>
+     * The value written to @a out[i] is identical to
+     * gradientCoherentNoise3D( @a x, @a y, @a z, @a seeds[i], @a noiseQuality ).
+     * The lattice cube, the S-curve values, the distance vectors and the
+     * seed-independent part of each corner hash are computed once; only the
+     * seed term of the hash differs between the seeds.
+     * <p/>
+     * The seeds are read from, and the output values written to, the
+     * elements @a offset to @a offset + @a count - 1 of each array.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param seeds        The random number seeds.
+     * @param out          The array that receives the generated values.
+     * @param offset       The index of the first seed.
+     * @param count        The number of seeds.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise3D(double x, double y, double z, int[] seeds, double[] out, int offset,
+                                               int count, NoiseQuality noiseQuality) {
+        // Create a unit-length cube aligned along an integer boundary.  This cube
+        // surrounds the input point.
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
         int x1 = x0 + 1;
         int y0 = (y > 0.0 ? (int) y : (int) y - 1);
-        int y1 = y0 + 1;
+        int y1 = y0 + 1;
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+        int z1 = z0 + 1;
+
+        // Map the difference between the coordinates of the input value and the
+        // coordinates of the cube's outer-lower-left vertex onto an S-curve.
+        double xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                ys = (y - (double) y0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                ys = Interp.sCurve3(y - (double) y0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                ys = Interp.sCurve5(y - (double) y0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        // The distance vectors to the corners do not depend on the seed.
+        double xv0 = x - (double) x0, xv1 = x - (double) x1;
+        double yv0 = y - (double) y0, yv1 = y - (double) y1;
+        double zv0 = z - (double) z0, zv1 = z - (double) z1;
+
+        // Neither does the lattice part of each corner hash.
+        int h000 = X_NOISE_GEN * x0 + Y_NOISE_GEN * y0 + Z_NOISE_GEN * z0;
+        int h100 = X_NOISE_GEN * x1 + Y_NOISE_GEN * y0 + Z_NOISE_GEN * z0;
+        int h010 = X_NOISE_GEN * x0 + Y_NOISE_GEN * y1 + Z_NOISE_GEN * z0;
+        int h110 = X_NOISE_GEN * x1 + Y_NOISE_GEN * y1 + Z_NOISE_GEN * z0;
+        int h001 = X_NOISE_GEN * x0 + Y_NOISE_GEN * y0 + Z_NOISE_GEN * z1;
+        int h101 = X_NOISE_GEN * x1 + Y_NOISE_GEN * y0 + Z_NOISE_GEN * z1;
+        int h011 = X_NOISE_GEN * x0 + Y_NOISE_GEN * y1 + Z_NOISE_GEN * z1;
+        int h111 = X_NOISE_GEN * x1 + Y_NOISE_GEN * y1 + Z_NOISE_GEN * z1;
+
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            int seedHash = SEED_NOISE_GEN * seeds[i];
+            double n0, n1, ix0, ix1, iy0, iy1;
+            n0 = gradientDot3D(h000 + seedHash, xv0, yv0, zv0);
+            n1 = gradientDot3D(h100 + seedHash, xv1, yv0, zv0);
+            ix0 = Interp.linearInterp(n0, n1, xs);
+            n0 = gradientDot3D(h010 + seedHash, xv0, yv1, zv0);
+            n1 = gradientDot3D(h110 + seedHash, xv1, yv1, zv0);
+            ix1 = Interp.linearInterp(n0, n1, xs);
+            iy0 = Interp.linearInterp(ix0, ix1, ys);
+            n0 = gradientDot3D(h001 + seedHash, xv0, yv0, zv1);
+            n1 = gradientDot3D(h101 + seedHash, xv1, yv0, zv1);
+            ix0 = Interp.linearInterp(n0, n1, xs);
+            n0 = gradientDot3D(h011 + seedHash, xv0, yv1, zv1);
+            n1 = gradientDot3D(h111 + seedHash, xv1, yv1, zv1);
+            ix1 = Interp.linearInterp(n0, n1, xs);
+            iy1 = Interp.linearInterp(ix0, ix1, ys);
+            out[i] = Interp.linearInterp(iy0, iy1, zs);
+        }
+    }
+
+    /**
+     * Finishes the lattice hash of a cube corner and returns the dot product
+     * of its gradient vector with a distance vector, scaled as in
+     * gradientNoise3D().
+     */
+    private static double gradientDot3D(int vectorIndex, double xvPoint, double yvPoint, double zvPoint) {
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        vectorIndex &= 0xff;
+        return ((Vectortable.randomVectors[(vectorIndex << 2)] * xvPoint)
+                + (Vectortable.randomVectors[(vectorIndex << 2) + 1] * yvPoint)
+                + (Vectortable.randomVectors[(vectorIndex << 2) + 2] * zvPoint)) * 2.12;
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value from an input value given
+     * relative to an integer lattice origin.
+     * <p/>
+     * The input value is ( @a cellX + @a x, @a cellY + @a y, @a cellZ + @a z ).
+     * The lattice cell is hashed from the exact integer sum of the origin
+     * and the integer part of the local coordinates, and the distances into
+     * the cell are taken from the local coordinates only, so the precision
+     * does not depend on how far the origin is from ( 0, 0, 0 ).  The
+     * integer sums wrap around like the lattice hash itself, so the lattice
+     * stays continuous across the whole range of the origin.
+     * <p/>
+     * With an origin of ( 0, 0, 0 ) the result is identical to
+     * gradientCoherentNoise3D( @a x, @a y, @a z, @a seed, @a noiseQuality ).
+     *
+     * @param cellX        The @a x coordinate of the lattice origin.
+     * @param cellY        The @a y coordinate of the lattice origin.
+     * @param cellZ        The @a z coordinate of the lattice origin.
+     * @param x            The @a x coordinate of the input value, relative to the origin.
+     * @param y            The @a y coordinate of the input value, relative to the origin.
+     * @param z            The @a z coordinate of the input value, relative to the origin.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static double gradientCoherentNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z,
+                                                 int seed, NoiseQuality noiseQuality) {
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        double xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                ys = (y - (double) y0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                ys = Interp.sCurve3(y - (double) y0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                ys = Interp.sCurve5(y - (double) y0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        return rebasedLatticeNoise3D(cellX, cellY, cellZ, x, y, z, x0, y0, z0, xs, ys, zs, seed);
+    }
+
+    /**
+     * Rebased variant of gradientLatticeNoise3D(): the cube is offset by
+     * the lattice origin ( @a cellX, @a cellY, @a cellZ ).
+     */
+    static double rebasedLatticeNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z,
+                                        int x0, int y0, int z0, double xs, double ys, double zs, int seed) {
+        // The distances come from the local coordinates, the hashes from the
+        // absolute lattice coordinates.
+        double xv0 = x - (double) x0, xv1 = x - (double) (x0 + 1);
+        double yv0 = y - (double) y0, yv1 = y - (double) (y0 + 1);
+        double zv0 = z - (double) z0, zv1 = z - (double) (z0 + 1);
+        int hx0 = X_NOISE_GEN * (cellX + x0), hx1 = hx0 + X_NOISE_GEN;
+        int hy0 = Y_NOISE_GEN * (cellY + y0), hy1 = hy0 + Y_NOISE_GEN;
+        int hz0 = Z_NOISE_GEN * (cellZ + z0) + SEED_NOISE_GEN * seed, hz1 = hz0 + Z_NOISE_GEN;
+
+        double n0, n1, ix0, ix1, iy0, iy1;
+        n0 = gradientDot3D(hx0 + hy0 + hz0, xv0, yv0, zv0);
+        n1 = gradientDot3D(hx1 + hy0 + hz0, xv1, yv0, zv0);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientDot3D(hx0 + hy1 + hz0, xv0, yv1, zv0);
+        n1 = gradientDot3D(hx1 + hy1 + hz0, xv1, yv1, zv0);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        n0 = gradientDot3D(hx0 + hy0 + hz1, xv0, yv0, zv1);
+        n1 = gradientDot3D(hx1 + hy0 + hz1, xv1, yv0, zv1);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientDot3D(hx0 + hy1 + hz1, xv0, yv1, zv1);
+        n1 = gradientDot3D(hx1 + hy1 + hz1, xv1, yv1, zv1);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Interpolates the gradient-noise values at the eight corners of the
+     * unit cube whose outer-lower-left vertex is ( @a x0, @a y0, @a z0 ).
+     *
+     * @param x    The @a x coordinate of the input value.
+     * @param y    The @a y coordinate of the input value.
+     * @param z    The @a z coordinate of the input value.
+     * @param x0   The integer @a x coordinate of the cube.
+     * @param y0   The integer @a y coordinate of the cube.
+     * @param z0   The integer @a z coordinate of the cube.
+     * @param xs   The S-curve mapped @a x distance into the cube.
+     * @param ys   The S-curve mapped @a y distance into the cube.
+     * @param zs   The S-curve mapped @a z distance into the cube.
+     * @param seed The random number seed.
+     * @return The generated gradient-coherent-noise value.
+     */
+    static double gradientLatticeNoise3D(double x, double y, double z, int x0, int y0, int z0,
+                                         double xs, double ys, double zs, int seed) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+
+        // Now calculate the noise values at each vertex of the cube.  To generate
+        // the coherent-noise value at the input point, interpolate these eight
+        // noise values using the S-curve value as the interpolant (trilinear
+        // interpolation.)
+        double n0, n1, ix0, ix1, iy0, iy1;
+        n0 = gradientNoise3D(x, y, z, x0, y0, z0, seed);
+        n1 = gradientNoise3D(x, y, z, x1, y0, z0, seed);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientNoise3D(x, y, z, x0, y1, z0, seed);
+        n1 = gradientNoise3D(x, y, z, x1, y1, z0, seed);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        n0 = gradientNoise3D(x, y, z, x0, y0, z1, seed);
+        n1 = gradientNoise3D(x, y, z, x1, y0, z1, seed);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientNoise3D(x, y, z, x0, y1, z1, seed);
+        n1 = gradientNoise3D(x, y, z, x1, y1, z1, seed);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Table-driven variant of gradientLatticeNoise3D().
+     */
+    static double gradientLatticeNoise3D(double x, double y, double z, int x0, int y0, int z0,
+                                         double xs, double ys, double zs, GradientTable table) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+
+        double n0, n1, ix0, ix1, iy0, iy1;
+        n0 = table.gradientNoise3D(x, y, z, x0, y0, z0);
+        n1 = table.gradientNoise3D(x, y, z, x1, y0, z0);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = table.gradientNoise3D(x, y, z, x0, y1, z0);
+        n1 = table.gradientNoise3D(x, y, z, x1, y1, z0);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        n0 = table.gradientNoise3D(x, y, z, x0, y0, z1);
+        n1 = table.gradientNoise3D(x, y, z, x1, y0, z1);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = table.gradientNoise3D(x, y, z, x0, y1, z1);
+        n1 = table.gradientNoise3D(x, y, z, x1, y1, z1);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Returns bounds on the gradient-coherent-noise values generated for
+     * every input value inside an axis-aligned box.
+     * <p/>
+     * Every value that gradientCoherentNoise3D() returns for an input value
+     * inside the box lies within the returned range.  The box is split
+     * into the lattice cells it overlaps; within each cell the eight
+     * corner values are linear in the input value, so their bounds are
+     * exact, and the trilinear interpolation is bounded by interpolating
+     * those bounds with the extreme S-curve values of the box.  Boxes that
+     * overlap more than a few dozen cells get the global bound,
+     * GRADIENT_COHERENT_NOISE_BOUND.
+     *
+     * @param x0           The lower @a x coordinate of the box.
+     * @param y0           The lower @a y coordinate of the box.
+     * @param z0           The lower @a z coordinate of the box.
+     * @param x1           The upper @a x coordinate of the box.
+     * @param y1           The upper @a y coordinate of the box.
+     * @param z1           The upper @a z coordinate of the box.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The range of the gradient-coherent-noise values.
+     * @pre Each lower coordinate is less than or equal to the matching
+     * upper coordinate.
+     */
+    public static Range gradientCoherentNoiseRange3D(double x0, double y0, double z0, double x1, double y1, double z1,
+                                                     int seed, NoiseQuality noiseQuality) {
+        return gradientCoherentNoiseRange3D(x0, y0, z0, x1, y1, z1, seed, null, noiseQuality);
+    }
+
+    /**
+     * Returns bounds on the gradient-coherent-noise values generated for
+     * every input value inside an axis-aligned box, using a seed-specific
+     * gradient table instead of the libnoise lattice hash.
+     *
+     * @param x0           The lower @a x coordinate of the box.
+     * @param y0           The lower @a y coordinate of the box.
+     * @param z0           The lower @a z coordinate of the box.
+     * @param x1           The upper @a x coordinate of the box.
+     * @param y1           The upper @a y coordinate of the box.
+     * @param z1           The upper @a z coordinate of the box.
+     * @param table        The gradient table of the seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The range of the gradient-coherent-noise values.
+     * @pre Each lower coordinate is less than or equal to the matching
+     * upper coordinate.
+     * @see #gradientCoherentNoiseRange3D(double, double, double, double, double, double, int, NoiseQuality)
+     */
+    public static Range gradientCoherentNoiseRange3D(double x0, double y0, double z0, double x1, double y1, double z1,
+                                                     GradientTable table, NoiseQuality noiseQuality) {
+        return gradientCoherentNoiseRange3D(x0, y0, z0, x1, y1, z1, 0, table, noiseQuality);
+    }
+
+    private static Range gradientCoherentNoiseRange3D(double x0, double y0, double z0, double x1, double y1, double z1,
+                                                      int seed, GradientTable table, NoiseQuality noiseQuality) {
+        double bound = GRADIENT_COHERENT_NOISE_BOUND;
+        if (!isRangeInterval(x0, x1) || !isRangeInterval(y0, y1) || !isRangeInterval(z0, z1)) {
+            return Range.symmetric(bound);
+        }
+
+        // Find the lattice cells overlapped by the box, with the same
+        // rounding as gradientCoherentNoise3D().
+        int xCell0 = (x0 > 0.0 ? (int) x0 : (int) x0 - 1);
+        int yCell0 = (y0 > 0.0 ? (int) y0 : (int) y0 - 1);
+        int zCell0 = (z0 > 0.0 ? (int) z0 : (int) z0 - 1);
+        int xCell1 = (x1 > 0.0 ? (int) x1 : (int) x1 - 1);
+        int yCell1 = (y1 > 0.0 ? (int) y1 : (int) y1 - 1);
+        int zCell1 = (z1 > 0.0 ? (int) z1 : (int) z1 - 1);
+        long cellCount = (long) (xCell1 - xCell0 + 1) * (yCell1 - yCell0 + 1) * (zCell1 - zCell0 + 1);
+        if (cellCount > MAX_RANGE_CELLS) {
+            return Range.symmetric(bound);
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double[] lo = new double[8];
+        double[] hi = new double[8];
+        for (int iz = zCell0; iz <= zCell1; iz++) {
+            double za = Math.max(z0, (double) iz), zb = Math.min(z1, (double) iz + 1.0);
+            for (int iy = yCell0; iy <= yCell1; iy++) {
+                double ya = Math.max(y0, (double) iy), yb = Math.min(y1, (double) iy + 1.0);
+                for (int ix = xCell0; ix <= xCell1; ix++) {
+                    double xa = Math.max(x0, (double) ix), xb = Math.min(x1, (double) ix + 1.0);
+
+                    // Bound the noise value of each corner of the cell; it is
+                    // linear in the input value.
+                    for (int c = 0; c < 8; c++) {
+                        int cx = ix + (c & 1);
+                        int cy = iy + ((c >> 1) & 1);
+                        int cz = iz + ((c >> 2) & 1);
+                        int row = (table != null ? table.vectorIndex(cx, cy, cz)
+                                : gradientVectorIndex3D(cx, cy, cz, seed)) << 2;
+                        double xg = Vectortable.randomVectors[row];
+                        double yg = Vectortable.randomVectors[row + 1];
+                        double zg = Vectortable.randomVectors[row + 2];
+                        double xl = xg * (xa - (double) cx), xu = xg * (xb - (double) cx);
+                        double yl = yg * (ya - (double) cy), yu = yg * (yb - (double) cy);
+                        double zl = zg * (za - (double) cz), zu = zg * (zb - (double) cz);
+                        lo[c] = (Math.min(xl, xu) + Math.min(yl, yu) + Math.min(zl, zu)) * 2.12;
+                        hi[c] = (Math.max(xl, xu) + Math.max(yl, yu) + Math.max(zl, zu)) * 2.12;
+                    }
+
+                    // Interpolate the bounds along x, then y, then z.
+                    interpolateRange(lo, hi, 4, sCurve(xa - (double) ix, noiseQuality),
+                            sCurve(xb - (double) ix, noiseQuality));
+                    interpolateRange(lo, hi, 2, sCurve(ya - (double) iy, noiseQuality),
+                            sCurve(yb - (double) iy, noiseQuality));
+                    interpolateRange(lo, hi, 1, sCurve(za - (double) iz, noiseQuality),
+                            sCurve(zb - (double) iz, noiseQuality));
+                    min = Math.min(min, lo[0]);
+                    max = Math.max(max, hi[0]);
+                }
+            }
+        }
+        return new Range(Math.max(min - RANGE_EPSILON, -bound), Math.min(max + RANGE_EPSILON, bound));
+    }
+
+    // Determines if an interval of coordinates can be split into lattice
+    // cells.
+    private static boolean isRangeInterval(double lower, double upper) {
+        return lower >= -MAX_RANGE_COORDINATE && upper <= MAX_RANGE_COORDINATE && lower <= upper;
+    }
+
+    // Maps a distance within a lattice cell onto the S-curve of a quality.
+    private static double sCurve(double a, NoiseQuality noiseQuality) {
+        switch (noiseQuality) {
+            case QUALITY_STD:
+                return Interp.sCurve3(a);
+            case QUALITY_BEST:
+                return Interp.sCurve5(a);
+            default:
+                return a;
+        }
+    }
+
+    // Linearly interpolates pairs of bounds, (lo[2k], lo[2k + 1]) and
+    // (hi[2k], hi[2k + 1]), into lo[k] and hi[k] for an interpolant ranging
+    // from a0 to a1.  The interpolation is increasing in both values, and
+    // linear in the interpolant, so the extremes lie at a0 or a1.
+    private static void interpolateRange(double[] lo, double[] hi, int count, double a0, double a1) {
+        for (int k = 0; k < count; k++) {
+            double l0 = lo[2 * k], l1 = lo[2 * k + 1];
+            double h0 = hi[2 * k], h1 = hi[2 * k + 1];
+            lo[k] = Math.min(Interp.linearInterp(l0, l1, a0), Interp.linearInterp(l0, l1, a1));
+            hi[k] = Math.max(Interp.linearInterp(h0, h1, a0), Interp.linearInterp(h0, h1, a1));
+        }
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value from the coordinates of an
+     * input value located on the ( @a x, @a z ) plane.
+     * <p/>
+     * The result is identical to gradientCoherentNoise3D() with a @a y
+     * coordinate of 0.0: at that height the input value lies on the upper
+     * face of its lattice cube, so only the four corners of that face
+     * contribute.  This function skips the other four corners and the
+     * interpolation along the @a y axis.
+     * <p/>
+     * The return value ranges from -1.0 to +1.0.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static double gradientCoherentNoise2D(double x, double z, int seed, NoiseQuality noiseQuality) {
+        // Create a unit-length square aligned along an integer boundary.  This
+        // square surrounds the input point.
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        // Map the difference between the coordinates of the input value and the
+        // coordinates of the square's lower-left vertex onto an S-curve.
+        double xs = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        return gradientLatticeNoise2D(x, z, x0, z0, xs, zs, seed);
+    }
+
+    public static double gradientCoherentNoise2D(double x, double z, int seed) {
+        return gradientCoherentNoise2D(x, z, seed, NoiseQuality.QUALITY_STD);
+    }
+
+    /**
+     * Generates a periodic gradient-coherent-noise value from the
+     * coordinates of an input value located on the ( @a x, @a z ) plane.
+     * <p/>
+     * The lattice coordinates are wrapped modulo the periods before they
+     * are hashed, so the noise repeats every @a xPeriod units along the
+     * @a x axis and every @a zPeriod units along the @a z axis.  A noise
+     * map whose extent equals the periods therefore tiles seamlessly.
+     * <p/>
+     * The return value ranges from -1.0 to +1.0.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @param xPeriod      The period along the @a x axis, in lattice units.
+     * @param zPeriod      The period along the @a z axis, in lattice units.
+     * @return The generated gradient-coherent-noise value.
+     * @pre Both periods are positive.
+     */
+    public static double gradientCoherentNoise2D(double x, double z, int seed, NoiseQuality noiseQuality,
+                                                 int xPeriod, int zPeriod) {
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+
+        double xs = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (double) x0);
+                zs = (z - (double) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (double) x0);
+                zs = Interp.sCurve3(z - (double) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (double) x0);
+                zs = Interp.sCurve5(z - (double) z0);
+                break;
+        }
+
+        return periodicLatticeNoise2D(x, z, x0, z0, xs, zs, seed, xPeriod, zPeriod);
+    }
+
+    /**
+     * Periodic variant of gradientLatticeNoise2D(): the lattice coordinates
+     * are wrapped modulo the periods before they are hashed.
+     */
+    static double periodicLatticeNoise2D(double x, double z, int x0, int z0, double xs, double zs, int seed,
+                                         int xPeriod, int zPeriod) {
+        int x1 = x0 + 1;
+        int z1 = z0 + 1;
+
+        // Only the lattice coordinates used for hashing are wrapped; the
+        // distances to the corners are taken from the unwrapped coordinates.
+        int wx0 = wrap(x0, xPeriod);
+        int wx1 = wrap(x1, xPeriod);
+        int wz0 = wrap(z0, zPeriod);
+        int wz1 = wrap(z1, zPeriod);
+
+        double n0, n1, ix0, ix1;
+        n0 = gradientDot2D(x - (double) x0, z - (double) z0, gradientVectorIndex2D(wx0, wz0, seed));
+        n1 = gradientDot2D(x - (double) x1, z - (double) z0, gradientVectorIndex2D(wx1, wz0, seed));
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientDot2D(x - (double) x0, z - (double) z1, gradientVectorIndex2D(wx0, wz1, seed));
+        n1 = gradientDot2D(x - (double) x1, z - (double) z1, gradientVectorIndex2D(wx1, wz1, seed));
+        ix1 = Interp.linearInterp(n0, n1, xs);
+
+        return Interp.linearInterp(ix0, ix1, zs);
+    }
+
+    /**
+     * Returns @a n modulo @a period, in the range 0 to @a period - 1.
+     */
+    private static int wrap(int n, int period) {
+        int m = n % period;
+        return m < 0 ? m + period : m;
+    }
+
+    /**
+     * Returns the dot product of a gradient vector with a distance vector on
+     * the ( @a x, @a z ) plane, scaled as in gradientNoise2D().
+     */
+    private static double gradientDot2D(double xvPoint, double zvPoint, int vectorIndex) {
+        return ((Vectortable.randomVectors[(vectorIndex << 2)] * xvPoint)
+                + (Vectortable.randomVectors[(vectorIndex << 2) + 2] * zvPoint)) * 2.12;
+    }
+
+    /**
+     * Generates gradient-coherent-noise values for a row of input values on
+     * the ( @a x, @a z ) plane that share the same @a z coordinate.
+     * <p/>
+     * This is equivalent to calling gradientCoherentNoise2D() once for each
+     * input value, and returns identical values.  When consecutive input
+     * values fall into the same lattice square, the gradient vectors of the
+     * square's corners are looked up once and reused, so a row sampled at a
+     * low frequency (many values per lattice square) skips nearly all of the
+     * lattice hashing.
+     *
+     * @param xs           The @a x coordinates of the input values.
+     * @param z            The @a z coordinate shared by all input values.
+     * @param out          The array that receives the generated values (must not be @a xs.)
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise2D(double[] xs, double z, double[] out, int offset, int count,
+                                               int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+        int z1 = z0 + 1;
+        double zPoint0 = (z - (double) z0);
+        double zPoint1 = (z - (double) z1);
+
+        // Map the distances into the lattice squares onto an S-curve; the
+        // interpolation pass below reads them back from the output array.
+        double zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                zs = zPoint0;
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    out[i] = (x - (double) x0);
+                }
+                break;
+            case QUALITY_STD:
+                zs = Interp.sCurve3(zPoint0);
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    out[i] = Interp.sCurve3(x - (double) x0);
+                }
+                break;
+            case QUALITY_BEST:
+                zs = Interp.sCurve5(zPoint0);
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    out[i] = Interp.sCurve5(x - (double) x0);
+                }
+                break;
+        }
+
+        // Gradient vectors of the corners of the current lattice square.
+        int cellX0 = 0;
+        boolean haveCell = false;
+        double xg00 = 0, zg00 = 0, xg10 = 0, zg10 = 0, xg01 = 0, zg01 = 0, xg11 = 0, zg11 = 0;
+        for (int i = offset; i < end; i++) {
+            double x = xs[i];
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int x1 = x0 + 1;
+            if (!haveCell || x0 != cellX0) {
+                int row = gradientVectorIndex2D(x0, z0, seed) << 2;
+                xg00 = Vectortable.randomVectors[row];
+                zg00 = Vectortable.randomVectors[row + 2];
+                row = gradientVectorIndex2D(x1, z0, seed) << 2;
+                xg10 = Vectortable.randomVectors[row];
+                zg10 = Vectortable.randomVectors[row + 2];
+                row = gradientVectorIndex2D(x0, z1, seed) << 2;
+                xg01 = Vectortable.randomVectors[row];
+                zg01 = Vectortable.randomVectors[row + 2];
+                row = gradientVectorIndex2D(x1, z1, seed) << 2;
+                xg11 = Vectortable.randomVectors[row];
+                zg11 = Vectortable.randomVectors[row + 2];
+                cellX0 = x0;
+                haveCell = true;
+            }
+
+            double xPoint0 = (x - (double) x0);
+            double xPoint1 = (x - (double) x1);
+            double xs0 = out[i];
+            double ix0 = Interp.linearInterp(((xg00 * xPoint0) + (zg00 * zPoint0)) * 2.12,
+                    ((xg10 * xPoint1) + (zg10 * zPoint0)) * 2.12, xs0);
+            double ix1 = Interp.linearInterp(((xg01 * xPoint0) + (zg01 * zPoint1)) * 2.12,
+                    ((xg11 * xPoint1) + (zg11 * zPoint1)) * 2.12, xs0);
+            out[i] = Interp.linearInterp(ix0, ix1, zs);
+        }
+    }
+
+    /**
+     * Interpolates the gradient-noise values at the four corners of the unit
+     * square whose lower-left vertex is ( @a x0, @a z0 ).
+     *
+     * @param x    The @a x coordinate of the input value.
+     * @param z    The @a z coordinate of the input value.
+     * @param x0   The integer @a x coordinate of the square.
+     * @param z0   The integer @a z coordinate of the square.
+     * @param xs   The S-curve mapped @a x distance into the square.
+     * @param zs   The S-curve mapped @a z distance into the square.
+     * @param seed The random number seed.
+     * @return The generated gradient-coherent-noise value.
+     */
+    static double gradientLatticeNoise2D(double x, double z, int x0, int z0, double xs, double zs, int seed) {
+        int x1 = x0 + 1;
+        int z1 = z0 + 1;
+
+        // Calculate the noise values at each vertex of the square and
+        // interpolate them (bilinear interpolation.)
+        double n0, n1, ix0, ix1;
+        n0 = gradientNoise2D(x, z, x0, z0, seed);
+        n1 = gradientNoise2D(x, z, x1, z0, seed);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientNoise2D(x, z, x0, z1, seed);
+        n1 = gradientNoise2D(x, z, x1, z1, seed);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+
+        return Interp.linearInterp(ix0, ix1, zs);
+    }
+
+    /**
+     * Generates a gradient-noise value from the coordinates of an input
+     * value located on the ( @a x, @a z ) plane and the integer coordinates
+     * of a nearby lattice point on that plane.
+     * <p/>
+     * This is gradientNoise3D() with both @a fy and @a iy set to 0; the
+     * @a y component of the gradient vector does not contribute.
+     *
+     * @param fx   The floating-point @a x coordinate of the input value.
+     * @param fz   The floating-point @a z coordinate of the input value.
+     * @param ix   The integer @a x coordinate of a nearby value.
+     * @param iz   The integer @a z coordinate of a nearby value.
+     * @param seed The random number seed.
+     * @return The generated gradient-noise value.
+     */
+    public static double gradientNoise2D(double fx, double fz, int ix, int iz, int seed) {
+        int vectorIndex = gradientVectorIndex2D(ix, iz, seed);
+
+        double xvGradient = Vectortable.randomVectors[(vectorIndex << 2)];
+        double zvGradient = Vectortable.randomVectors[(vectorIndex << 2) + 2];
+
+        double xvPoint = (fx - (double) ix);
+        double zvPoint = (fz - (double) iz);
+
+        return ((xvGradient * xvPoint)
+                + (zvGradient * zvPoint)) * 2.12;
+    }
+
+    /**
+     * Returns the row of Vectortable.randomVectors assigned to a lattice
+     * point on the ( @a x, @a z ) plane.
+     */
+    private static int gradientVectorIndex2D(int ix, int iz, int seed) {
+        int vectorIndex = (
+                X_NOISE_GEN * ix
+                        + Z_NOISE_GEN * iz
+                        + SEED_NOISE_GEN * seed);
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        return vectorIndex & 0xff;
+    }
+
+    /**
+     * Generates a simplex-noise value from the coordinates of a
+     * three-dimensional input value.
+     * <p/>
+     * Simplex noise divides space into tetrahedra (simplices) instead of
+     * cubes, so each value only depends on the four corners of the
+     * enclosing simplex rather than the eight corners of a cube, and no
+     * interpolation is needed.  The gradient vectors of the corners are
+     * chosen with the same lattice hash and vector table as
+     * gradientNoise3D().
+     * <p/>
+     * The return value ranges from approximately -1.0 to +1.0.
+     *
+     * @param x    The @a x coordinate of the input value.
+     * @param y    The @a y coordinate of the input value.
+     * @param z    The @a z coordinate of the input value.
+     * @param seed The random number seed.
+     * @return The generated simplex-noise value.
+     */
+    public static double simplexNoise3D(double x, double y, double z, int seed) {
+        // Skew the input space to determine which simplex cell we are in.
+        double s = (x + y + z) * SIMPLEX_SKEW_3D;
+        double xs = x + s, ys = y + s, zs = z + s;
+        int i = (xs > 0.0 ? (int) xs : (int) xs - 1);
+        int j = (ys > 0.0 ? (int) ys : (int) ys - 1);
+        int k = (zs > 0.0 ? (int) zs : (int) zs - 1);
+
+        // Unskew the cell origin back to (x, y, z) space, and get the
+        // distances from the cell origin.
+        double t = (double) (i + j + k) * SIMPLEX_UNSKEW_3D;
+        double x0 = x - ((double) i - t);
+        double y0 = y - ((double) j - t);
+        double z0 = z - ((double) k - t);
+
+        // Determine which of the six tetrahedra of the cell we are in: the
+        // offsets of its second (i1, j1, k1) and third (i2, j2, k2) corners.
+        int i1, j1, k1, i2, j2, k2;
+        if (x0 >= y0) {
+            if (y0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            } else if (x0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 0; k2 = 1;
+            } else {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 1; j2 = 0; k2 = 1;
+            }
+        } else {
+            if (y0 < z0) {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 0; j2 = 1; k2 = 1;
+            } else if (x0 < z0) {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 0; j2 = 1; k2 = 1;
+            } else {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            }
+        }
+
+        // Sum the contributions of the four corners.
+        double n = simplexCorner3D(x0, y0, z0, i, j, k, seed);
+        n += simplexCorner3D(x0 - i1 + SIMPLEX_UNSKEW_3D, y0 - j1 + SIMPLEX_UNSKEW_3D, z0 - k1 + SIMPLEX_UNSKEW_3D,
+                i + i1, j + j1, k + k1, seed);
+        n += simplexCorner3D(x0 - i2 + 2.0 * SIMPLEX_UNSKEW_3D, y0 - j2 + 2.0 * SIMPLEX_UNSKEW_3D,
+                z0 - k2 + 2.0 * SIMPLEX_UNSKEW_3D, i + i2, j + j2, k + k2, seed);
+        n += simplexCorner3D(x0 - 1.0 + 3.0 * SIMPLEX_UNSKEW_3D, y0 - 1.0 + 3.0 * SIMPLEX_UNSKEW_3D,
+                z0 - 1.0 + 3.0 * SIMPLEX_UNSKEW_3D, i + 1, j + 1, k + 1, seed);
+        return n * SIMPLEX_SCALE_3D;
+    }
+
+    public static double simplexNoise3D(double x, double y, double z) {
+        return simplexNoise3D(x, y, z, 0);
+    }
+
+    /**
+     * Returns the contribution of one simplex corner: its gradient vector
+     * dotted with the distance vector, attenuated by the radial falloff.
+     */
+    private static double simplexCorner3D(double dx, double dy, double dz, int ix, int iy, int iz, int seed) {
+        double t = 0.6 - dx * dx - dy * dy - dz * dz;
+        if (t <= 0.0) {
+            return 0.0;
+        }
+        int row = gradientVectorIndex3D(ix, iy, iz, seed) << 2;
+        t *= t;
+        return t * t * ((Vectortable.randomVectors[row] * dx)
+                + (Vectortable.randomVectors[row + 1] * dy)
+                + (Vectortable.randomVectors[row + 2] * dz));
+    }
+
+    /**
+     * Returns the row of Vectortable.randomVectors assigned to a
+     * three-dimensional lattice point.
+     */
+    private static int gradientVectorIndex3D(int ix, int iy, int iz, int seed) {
+        int vectorIndex = (
+                X_NOISE_GEN * ix
+                        + Y_NOISE_GEN * iy
+                        + Z_NOISE_GEN * iz
+                        + SEED_NOISE_GEN * seed);
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        return vectorIndex & 0xff;
+    }
+
+    /**
+     * Generates a gradient-noise value from the coordinates of a
+     * three-dimensional input value and the integer coordinates of a
+     * nearby three-dimensional value.
+     * <p/>
+     * A <i>gradient</i>-noise function generates better-quality noise than a
+     * <i>value</i>-noise function.  Most noise modules use gradient noise for
+     * this reason, although it takes much longer to calculate.
+     * <p/>
+     * The return value ranges from -1.0 to +1.0.
+     * <p/>
+     * This function generates a gradient-noise value by performing the
+     * following steps:
+     * - It first calculates a random normalized vector based on the
+     * nearby integer value passed to this function.
+     * - It then calculates a new value by adding this vector to the
+     * nearby integer value passed to this function.
+     * - It then calculates the dot product of the above-generated value
+     * and the floating-point input value passed to this function.
+     * <p/>
+     * A noise function differs from a random-number generator because it
+     * always returns the same output value if the same input value is passed to it.
+     *
+     * @param fx   The floating-point @a x coordinate of the input value.
+     * @param fy   The floating-point @a y coordinate of the input value.
+     * @param fz   The floating-point @a z coordinate of the input value.
+     * @param ix   The integer @a x coordinate of a nearby value.
+     * @param iy   The integer @a y coordinate of a nearby value.
+     * @param iz   The integer @a z coordinate of a nearby value.
+     * @param seed The random number seed.
+     * @return The generated gradient-noise value.
+     * @pre The difference between @a fx and @a ix must be less than or equal to one.
+     * @pre The difference between @a fy and @a iy must be less than or equal to one.
+     * @pre The difference between @a fz and @a iz must be less than or equal to one.
+     */
+    public static double gradientNoise3D(double fx, double fy, double fz, int ix, int iy, int iz, int seed) {
+        // Randomly generate a gradient vector given the integer coordinates of the
+        // input value.  This implementation generates a random number and uses it
+        // as an index into a normalized-vector lookup table.
+        int vectorIndex = (
+                X_NOISE_GEN * ix
+                        + Y_NOISE_GEN * iy
+                        + Z_NOISE_GEN * iz
+                        + SEED_NOISE_GEN * seed)
+                & 0xffffffff;
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        vectorIndex &= 0xff;
+
+        double xvGradient = Vectortable.randomVectors[(vectorIndex << 2)];
+        double yvGradient = Vectortable.randomVectors[(vectorIndex << 2) + 1];
+        double zvGradient = Vectortable.randomVectors[(vectorIndex << 2) + 2];
+
+        // Set up us another vector equal to the distance between the two vectors
+        // passed to this function.
+        double xvPoint = (fx - (double) ix);
+        double yvPoint = (fy - (double) iy);
+        double zvPoint = (fz - (double) iz);
+
+        // Now compute the dot product of the gradient vector with the distance
+        // vector.  The resulting value is gradient noise.  Apply a scaling value
+        // so that this noise value ranges from -1.0 to 1.0.
+        return ((xvGradient * xvPoint)
+                + (yvGradient * yvPoint)
+                + (zvGradient * zvPoint)) * 2.12;
+    }
+
+    public static double gradientNoise3D(double fx, double fy, double fz, int ix, int iy, int iz) {
+        return gradientNoise3D(fx, fy, fz, ix, iy, iz, 0);
+    }
+
+    /**
+     * Generates a gradient-coherent-noise value from the coordinates of a
+     * four-dimensional input value.
+     * <p/>
+     * The return value ranges from approximately -1.0 to +1.0.
+     * <p/>
+     * A common use of the fourth dimension is time: mapping time onto a
+     * circle in two of the dimensions generates an animation that loops
+     * seamlessly.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param w            The @a w coordinate of the input value.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static double gradientCoherentNoise4D(double x, double y, double z, double w, int seed,
+                                                 NoiseQuality noiseQuality) {
+        // Create a unit-length tesseract aligned along an integer boundary.
+        // This tesseract surrounds the input point.
+        int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0 ? (int) y : (int) y - 1);
         int z0 = (z > 0.0 ? (int) z : (int) z - 1);
-        int z1 = z0 + 1;
+        int w0 = (w > 0.0 ? (int) w : (int) w - 1);
 
-        // Map the difference between the coordinates of the input value and the
-        // coordinates of the cube's outer-lower-left vertex onto an S-curve.
-        double xs = 0, ys = 0, zs = 0;
+        double xs = 0, ys = 0, zs = 0, ws = 0;
         switch (noiseQuality) {
             case QUALITY_FAST:
                 xs = (x - (double) x0);
                 ys = (y - (double) y0);
                 zs = (z - (double) z0);
+                ws = (w - (double) w0);
                 break;
             case QUALITY_STD:
                 xs = Interp.sCurve3(x - (double) x0);
                 ys = Interp.sCurve3(y - (double) y0);
                 zs = Interp.sCurve3(z - (double) z0);
+                ws = Interp.sCurve3(w - (double) w0);
                 break;
             case QUALITY_BEST:
                 xs = Interp.sCurve5(x - (double) x0);
                 ys = Interp.sCurve5(y - (double) y0);
                 zs = Interp.sCurve5(z - (double) z0);
+                ws = Interp.sCurve5(w - (double) w0);
                 break;
         }
 
-        // Now calculate the noise values at each vertex of the cube.  To generate
-        // the coherent-noise value at the input point, interpolate these eight
-        // noise values using the S-curve value as the interpolant (trilinear
-        // interpolation.)
+        return gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0, xs, ys, zs, ws, seed);
+    }
+
+    /**
+     * Generates gradient-coherent-noise values for a batch of
+     * four-dimensional input values.
+     * <p/>
+     * This is equivalent to calling gradientCoherentNoise4D() once for each
+     * input value, but the noise quality is only resolved once for the
+     * whole batch.
+     *
+     * @param xs           The @a x coordinates of the input values.
+     * @param ys           The @a y coordinates of the input values.
+     * @param zs           The @a z coordinates of the input values.
+     * @param ws           The @a w coordinates of the input values.
+     * @param out          The array that receives the generated values.
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise4D(double[] xs, double[] ys, double[] zs, double[] ws, double[] out,
+                                               int offset, int count, int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i], w = ws[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+                    out[i] = gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                            x - (double) x0, y - (double) y0, z - (double) z0, w - (double) w0, seed);
+                }
+                break;
+            case QUALITY_STD:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i], w = ws[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+                    out[i] = gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                            Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                            Interp.sCurve3(z - (double) z0), Interp.sCurve3(w - (double) w0), seed);
+                }
+                break;
+            case QUALITY_BEST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i], w = ws[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+                    out[i] = gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                            Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                            Interp.sCurve5(z - (double) z0), Interp.sCurve5(w - (double) w0), seed);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Interpolates the gradient-noise values at the sixteen corners of the
+     * unit tesseract whose lowest vertex is ( @a x0, @a y0, @a z0, @a w0 ).
+     */
+    static double gradientLatticeNoise4D(double x, double y, double z, double w, int x0, int y0, int z0, int w0,
+                                         double xs, double ys, double zs, double ws, int seed) {
+        double iw0 = gradientCubeNoise4D(x, y, z, w, x0, y0, z0, w0, xs, ys, zs, seed);
+        double iw1 = gradientCubeNoise4D(x, y, z, w, x0, y0, z0, w0 + 1, xs, ys, zs, seed);
+        return Interp.linearInterp(iw0, iw1, ws);
+    }
+
+    /**
+     * Trilinearly interpolates the gradient-noise values at the eight
+     * corners of one cubic cell ( @a w = @a iw ) of a tesseract.
+     */
+    private static double gradientCubeNoise4D(double x, double y, double z, double w, int x0, int y0, int z0, int iw,
+                                              double xs, double ys, double zs, int seed) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+
         double n0, n1, ix0, ix1, iy0, iy1;
-        n0 = gradientNoise3D(x, y, z, x0, y0, z0, seed);
-        n1 = gradientNoise3D(x, y, z, x1, y0, z0, seed);
+        n0 = gradientNoise4D(x, y, z, w, x0, y0, z0, iw, seed);
+        n1 = gradientNoise4D(x, y, z, w, x1, y0, z0, iw, seed);
         ix0 = Interp.linearInterp(n0, n1, xs);
-        n0 = gradientNoise3D(x, y, z, x0, y1, z0, seed);
-        n1 = gradientNoise3D(x, y, z, x1, y1, z0, seed);
+        n0 = gradientNoise4D(x, y, z, w, x0, y1, z0, iw, seed);
+        n1 = gradientNoise4D(x, y, z, w, x1, y1, z0, iw, seed);
         ix1 = Interp.linearInterp(n0, n1, xs);
         iy0 = Interp.linearInterp(ix0, ix1, ys);
-        n0 = gradientNoise3D(x, y, z, x0, y0, z1, seed);
-        n1 = gradientNoise3D(x, y, z, x1, y0, z1, seed);
+        n0 = gradientNoise4D(x, y, z, w, x0, y0, z1, iw, seed);
+        n1 = gradientNoise4D(x, y, z, w, x1, y0, z1, iw, seed);
         ix0 = Interp.linearInterp(n0, n1, xs);
-        n0 = gradientNoise3D(x, y, z, x0, y1, z1, seed);
-        n1 = gradientNoise3D(x, y, z, x1, y1, z1, seed);
+        n0 = gradientNoise4D(x, y, z, w, x0, y1, z1, iw, seed);
+        n1 = gradientNoise4D(x, y, z, w, x1, y1, z1, iw, seed);
         ix1 = Interp.linearInterp(n0, n1, xs);
         iy1 = Interp.linearInterp(ix0, ix1, ys);
 
         return Interp.linearInterp(iy0, iy1, zs);
     }
 
-    public static double gradientCoherentNoise3D(double x, double y, double z) {
-        return gradientCoherentNoise3D(x, y, z, 0, NoiseQuality.QUALITY_STD);
-    }
+    /**
+     * Generates a gradient-noise value from the coordinates of a
+     * four-dimensional input value and the integer coordinates of a
+     * nearby four-dimensional value.
+     * <p/>
+     * This works like gradientNoise3D(), using the gradient vectors in
+     * Vectortable.randomVectors4D.
+     *
+     * @param fx   The floating-point @a x coordinate of the input value.
+     * @param fy   The floating-point @a y coordinate of the input value.
+     * @param fz   The floating-point @a z coordinate of the input value.
+     * @param fw   The floating-point @a w coordinate of the input value.
+     * @param ix   The integer @a x coordinate of a nearby value.
+     * @param iy   The integer @a y coordinate of a nearby value.
+     * @param iz   The integer @a z coordinate of a nearby value.
+     * @param iw   The integer @a w coordinate of a nearby value.
+     * @param seed The random number seed.
+     * @return The generated gradient-noise value.
+     */
+    public static double gradientNoise4D(double fx, double fy, double fz, double fw, int ix, int iy, int iz, int iw,
+                                         int seed) {
+        int vectorIndex = (
+                X_NOISE_GEN * ix
+                        + Y_NOISE_GEN * iy
+                        + Z_NOISE_GEN * iz
+                        + W_NOISE_GEN * iw
+                        + SEED_NOISE_GEN * seed);
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        vectorIndex &= 0x1f;
 
-    public static double gradientCoherentNoise3D(double x, double y, double z, int seed) {
-        return gradientCoherentNoise3D(x, y, z, seed, NoiseQuality.QUALITY_STD);
+        double xvGradient = Vectortable.randomVectors4D[(vectorIndex << 2)];
+        double yvGradient = Vectortable.randomVectors4D[(vectorIndex << 2) + 1];
+        double zvGradient = Vectortable.randomVectors4D[(vectorIndex << 2) + 2];
+        double wvGradient = Vectortable.randomVectors4D[(vectorIndex << 2) + 3];
+
+        double xvPoint = (fx - (double) ix);
+        double yvPoint = (fy - (double) iy);
+        double zvPoint = (fz - (double) iz);
+        double wvPoint = (fw - (double) iw);
+
+        return ((xvGradient * xvPoint)
+                + (yvGradient * yvPoint)
+                + (zvGradient * zvPoint)
+                + (wvGradient * wvPoint)) * GRADIENT_4D_SCALE;
     }
 
     /**
-     * Generates a gradient-noise value from the coordinates of a
-     * three-dimensional input value and the integer coordinates of a
-     * nearby three-dimensional value.
-     * <p/>
-     * A <i>gradient</i>-noise function generates better-quality noise than a
-     * <i>value</i>-noise function.  Most noise modules use gradient noise for
-     * this reason, although it takes much longer to calculate.
+     * Generates a single-precision gradient-coherent-noise value from the
+     * coordinates of a three-dimensional input value.
      * <p/>
-     * The return value ranges from -1.0 to +1.0.
+     * This is the float variant of gradientCoherentNoise3D().  It uses the
+     * same lattice and gradient vectors, so its output only differs from the
+     * double-precision version by float rounding: less than 1e-5 for
+     * coordinates of magnitude up to 100, growing with the magnitude of the
+     * coordinates.  Because a float only has a 24-bit mantissa, coordinates
+     * should be kept well below 2^24.
+     *
+     * @param x            The @a x coordinate of the input value.
+     * @param y            The @a y coordinate of the input value.
+     * @param z            The @a z coordinate of the input value.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static float gradientCoherentNoise3DF(float x, float y, float z, int seed, NoiseQuality noiseQuality) {
+        int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+
+        float xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (float) x0);
+                ys = (y - (float) y0);
+                zs = (z - (float) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (float) x0);
+                ys = Interp.sCurve3(y - (float) y0);
+                zs = Interp.sCurve3(z - (float) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (float) x0);
+                ys = Interp.sCurve5(y - (float) y0);
+                zs = Interp.sCurve5(z - (float) z0);
+                break;
+        }
+
+        return gradientLatticeNoise3DF(x, y, z, x0, y0, z0, xs, ys, zs, seed);
+    }
+
+    /**
+     * Generates single-precision gradient-coherent-noise values for a batch
+     * of three-dimensional input values.
      * <p/>
-     * This function generates a gradient-noise value by performing the
-     * following steps:
-     * - It first calculates a random normalized vector based on the
-     * nearby integer value passed to this function.
-     * - It then calculates a new value by adding this vector to the
-     * nearby integer value passed to this function.
-     * - It then calculates the dot product of the above-generated value
-     * and the floating-point input value passed to this function.
+     * This is equivalent to calling gradientCoherentNoise3DF() once for each
+     * input value.  The output array may be the storage of a NoiseMap.
+     *
+     * @param xs           The @a x coordinates of the input values.
+     * @param ys           The @a y coordinates of the input values.
+     * @param zs           The @a z coordinates of the input values.
+     * @param out          The array that receives the generated values.
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void gradientCoherentNoise3DF(float[] xs, float[] ys, float[] zs, float[] out, int offset, int count,
+                                                int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                for (int i = offset; i < end; i++) {
+                    float x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                            x - (float) x0, y - (float) y0, z - (float) z0, seed);
+                }
+                break;
+            case QUALITY_STD:
+                for (int i = offset; i < end; i++) {
+                    float x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                            Interp.sCurve3(x - (float) x0), Interp.sCurve3(y - (float) y0),
+                            Interp.sCurve3(z - (float) z0), seed);
+                }
+                break;
+            case QUALITY_BEST:
+                for (int i = offset; i < end; i++) {
+                    float x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+                    out[i] = gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                            Interp.sCurve5(x - (float) x0), Interp.sCurve5(y - (float) y0),
+                            Interp.sCurve5(z - (float) z0), seed);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Single-precision variant of
+     * gradientCoherentNoise3D(int, int, int, double, double, double, int, NoiseQuality).
      * <p/>
-     * A noise function differs from a random-number generator because it
-     * always returns the same output value if the same input value is passed to it.
+     * As the local coordinates stay small, the error relative to the
+     * double-precision kernel stays below 1e-5 however far the origin is
+     * from ( 0, 0, 0 ).
+     *
+     * @param cellX        The @a x coordinate of the lattice origin.
+     * @param cellY        The @a y coordinate of the lattice origin.
+     * @param cellZ        The @a z coordinate of the lattice origin.
+     * @param x            The @a x coordinate of the input value, relative to the origin.
+     * @param y            The @a y coordinate of the input value, relative to the origin.
+     * @param z            The @a z coordinate of the input value, relative to the origin.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The generated gradient-coherent-noise value.
+     */
+    public static float gradientCoherentNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z,
+                                                 int seed, NoiseQuality noiseQuality) {
+        int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+        int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+        int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+
+        float xs = 0, ys = 0, zs = 0;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                xs = (x - (float) x0);
+                ys = (y - (float) y0);
+                zs = (z - (float) z0);
+                break;
+            case QUALITY_STD:
+                xs = Interp.sCurve3(x - (float) x0);
+                ys = Interp.sCurve3(y - (float) y0);
+                zs = Interp.sCurve3(z - (float) z0);
+                break;
+            case QUALITY_BEST:
+                xs = Interp.sCurve5(x - (float) x0);
+                ys = Interp.sCurve5(y - (float) y0);
+                zs = Interp.sCurve5(z - (float) z0);
+                break;
+        }
+
+        return rebasedLatticeNoise3DF(cellX, cellY, cellZ, x, y, z, x0, y0, z0, xs, ys, zs, seed);
+    }
+
+    /**
+     * Single-precision variant of rebasedLatticeNoise3D().
+     */
+    static float rebasedLatticeNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z,
+                                        int x0, int y0, int z0, float xs, float ys, float zs, int seed) {
+        float xv0 = x - (float) x0, xv1 = x - (float) (x0 + 1);
+        float yv0 = y - (float) y0, yv1 = y - (float) (y0 + 1);
+        float zv0 = z - (float) z0, zv1 = z - (float) (z0 + 1);
+        int hx0 = X_NOISE_GEN * (cellX + x0), hx1 = hx0 + X_NOISE_GEN;
+        int hy0 = Y_NOISE_GEN * (cellY + y0), hy1 = hy0 + Y_NOISE_GEN;
+        int hz0 = Z_NOISE_GEN * (cellZ + z0) + SEED_NOISE_GEN * seed, hz1 = hz0 + Z_NOISE_GEN;
+
+        float n0, n1, ix0, ix1, iy0, iy1;
+        n0 = gradientDot3DF(hx0 + hy0 + hz0, xv0, yv0, zv0);
+        n1 = gradientDot3DF(hx1 + hy0 + hz0, xv1, yv0, zv0);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientDot3DF(hx0 + hy1 + hz0, xv0, yv1, zv0);
+        n1 = gradientDot3DF(hx1 + hy1 + hz0, xv1, yv1, zv0);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        n0 = gradientDot3DF(hx0 + hy0 + hz1, xv0, yv0, zv1);
+        n1 = gradientDot3DF(hx1 + hy0 + hz1, xv1, yv0, zv1);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientDot3DF(hx0 + hy1 + hz1, xv0, yv1, zv1);
+        n1 = gradientDot3DF(hx1 + hy1 + hz1, xv1, yv1, zv1);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+
+        return Interp.linearInterp(iy0, iy1, zs);
+    }
+
+    /**
+     * Single-precision variant of gradientDot3D().
+     */
+    private static float gradientDot3DF(int vectorIndex, float xvPoint, float yvPoint, float zvPoint) {
+        vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
+        vectorIndex &= 0xff;
+        return ((Vectortable.randomVectorsF[(vectorIndex << 2)] * xvPoint)
+                + (Vectortable.randomVectorsF[(vectorIndex << 2) + 1] * yvPoint)
+                + (Vectortable.randomVectorsF[(vectorIndex << 2) + 2] * zvPoint)) * 2.12f;
+    }
+
+    /**
+     * Single-precision variant of gradientNoise3D().
      *
      * @param fx   The floating-point @a x coordinate of the input value.
      * @param fy   The floating-point @a y coordinate of the input value.
@@ -145,43 +1748,55 @@ public class NoiseGen {
      * @param iz   The integer @a z coordinate of a nearby value.
      * @param seed The random number seed.
      * @return The generated gradient-noise value.
-     * @pre The difference between @a fx and @a ix must be less than or equal to one.
-     * @pre The difference between @a fy and @a iy must be less than or equal to one.
-     * @pre The difference between @a fz and @a iz must be less than or equal to one.
      */
-    public static double gradientNoise3D(double fx, double fy, double fz, int ix, int iy, int iz, int seed) {
-        // Randomly generate a gradient vector given the integer coordinates of the
-        // input value.  This implementation generates a random number and uses it
-        // as an index into a normalized-vector lookup table.
+    public static float gradientNoise3DF(float fx, float fy, float fz, int ix, int iy, int iz, int seed) {
         int vectorIndex = (
                 X_NOISE_GEN * ix
                         + Y_NOISE_GEN * iy
                         + Z_NOISE_GEN * iz
-                        + SEED_NOISE_GEN * seed)
-                & 0xffffffff;
+                        + SEED_NOISE_GEN * seed);
         vectorIndex ^= (vectorIndex >> SHIFT_NOISE_GEN);
         vectorIndex &= 0xff;
 
-        double xvGradient = Vectortable.randomVectors[(vectorIndex << 2)];
-        double yvGradient = Vectortable.randomVectors[(vectorIndex << 2) + 1];
-        double zvGradient = Vectortable.randomVectors[(vectorIndex << 2) + 2];
+        float xvGradient = Vectortable.randomVectorsF[(vectorIndex << 2)];
+        float yvGradient = Vectortable.randomVectorsF[(vectorIndex << 2) + 1];
+        float zvGradient = Vectortable.randomVectorsF[(vectorIndex << 2) + 2];
 
-        // Set up us another vector equal to the distance between the two vectors
-        // passed to this function.
-        double xvPoint = (fx - (double) ix);
-        double yvPoint = (fy - (double) iy);
-        double zvPoint = (fz - (double) iz);
+        float xvPoint = (fx - (float) ix);
+        float yvPoint = (fy - (float) iy);
+        float zvPoint = (fz - (float) iz);
 
-        // Now compute the dot product of the gradient vector with the distance
-        // vector.  The resulting value is gradient noise.  Apply a scaling value
-        // so that this noise value ranges from -1.0 to 1.0.
         return ((xvGradient * xvPoint)
                 + (yvGradient * yvPoint)
-                + (zvGradient * zvPoint)) * 2.12;
+                + (zvGradient * zvPoint)) * 2.12f;
     }
 
-    public static double gradientNoise3D(double fx, double fy, double fz, int ix, int iy, int iz) {
-        return gradientNoise3D(fx, fy, fz, ix, iy, iz, 0);
+    /**
+     * Single-precision variant of gradientLatticeNoise3D().
+     */
+    static float gradientLatticeNoise3DF(float x, float y, float z, int x0, int y0, int z0,
+                                         float xs, float ys, float zs, int seed) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+
+        float n0, n1, ix0, ix1, iy0, iy1;
+        n0 = gradientNoise3DF(x, y, z, x0, y0, z0, seed);
+        n1 = gradientNoise3DF(x, y, z, x1, y0, z0, seed);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientNoise3DF(x, y, z, x0, y1, z0, seed);
+        n1 = gradientNoise3DF(x, y, z, x1, y1, z0, seed);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy0 = Interp.linearInterp(ix0, ix1, ys);
+        n0 = gradientNoise3DF(x, y, z, x0, y0, z1, seed);
+        n1 = gradientNoise3DF(x, y, z, x1, y0, z1, seed);
+        ix0 = Interp.linearInterp(n0, n1, xs);
+        n0 = gradientNoise3DF(x, y, z, x0, y1, z1, seed);
+        n1 = gradientNoise3DF(x, y, z, x1, y1, z1, seed);
+        ix1 = Interp.linearInterp(n0, n1, xs);
+        iy1 = Interp.linearInterp(ix0, ix1, ys);
+
+        return Interp.linearInterp(iy0, iy1, zs);
     }
 
     /**
@@ -217,6 +1832,37 @@ public class NoiseGen {
         return intValueNoise3D(x, y, z, 0);
     }
 
+    /**
+     * Generates integer-noise values for a batch of three-dimensional
+     * input values.
+     * <p/>
+     * This is equivalent to calling intValueNoise3D() once for each input
+     * value.  The input values are read from, and the output values
+     * written to, the elements @a offset to @a offset + @a count - 1 of
+     * each array.
+     *
+     * @param xs     The integer @a x coordinates of the input values.
+     * @param ys     The integer @a y coordinates of the input values.
+     * @param zs     The integer @a z coordinates of the input values.
+     * @param out    The array that receives the generated values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     * @param seed   A random number seed.
+     */
+    public static void intValueNoise3D(int[] xs, int[] ys, int[] zs, int[] out, int offset, int count, int seed) {
+        int seedTerm = SEED_NOISE_GEN * seed;
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            int n = (X_NOISE_GEN * xs[i]
+                    + Y_NOISE_GEN * ys[i]
+                    + Z_NOISE_GEN * zs[i]
+                    + seedTerm)
+                    & 0x7fffffff;
+            n = (n >> 13) ^ n;
+            out[i] = (n * (n * n * 60493 + 19990303) + 1376312589) & 0x7fffffff;
+        }
+    }
+
     /**
      * Modifies a floating-point value so that it can be stored in a
      * noise::int32 variable.
@@ -265,11 +1911,8 @@ public class NoiseGen {
         // Create a unit-length cube aligned along an integer boundary.  This cube
         // surrounds the input point.
         int x0 = (x > 0.0 ? (int) x : (int) x - 1);
-        int x1 = x0 + 1;
         int y0 = (y > 0.0 ? (int) y : (int) y - 1);
-        int y1 = y0 + 1;
         int z0 = (z > 0.0 ? (int) z : (int) z - 1);
-        int z1 = z0 + 1;
 
         // Map the difference between the coordinates of the input value and the
         // coordinates of the cube's outer-lower-left vertex onto an S-curve.
@@ -292,6 +1935,94 @@ public class NoiseGen {
                 break;
         }
 
+        return valueLatticeNoise3D(x0, y0, z0, xs, ys, zs, seed);
+    }
+
+    public static double valueCoherentNoise3D(double x, double y, double z, int seed) {
+        return valueCoherentNoise3D(x, y, z, seed, NoiseQuality.QUALITY_STD);
+    }
+
+    public static double valueCoherentNoise3D(double x, double y, double z) {
+        return valueCoherentNoise3D(x, y, z, 0, NoiseQuality.QUALITY_STD);
+    }
+
+    /**
+     * Generates value-coherent-noise values for a batch of
+     * three-dimensional input values.
+     * <p/>
+     * This is equivalent to calling valueCoherentNoise3D() once for each
+     * input value, but the noise quality is only resolved once for the
+     * whole batch.
+     * <p/>
+     * The input values are read from, and the output values written to,
+     * the elements @a offset to @a offset + @a count - 1 of each array.
+     *
+     * @param xs           The @a x coordinates of the input values.
+     * @param ys           The @a y coordinates of the input values.
+     * @param zs           The @a z coordinates of the input values.
+     * @param out          The array that receives the generated values.
+     * @param offset       The index of the first input value.
+     * @param count        The number of input values.
+     * @param seed         The random number seed.
+     * @param noiseQuality The quality of the coherent-noise.
+     */
+    public static void valueCoherentNoise3D(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count,
+                                            int seed, NoiseQuality noiseQuality) {
+        int end = offset + count;
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = valueLatticeNoise3D(x0, y0, z0,
+                            x - (double) x0, y - (double) y0, z - (double) z0, seed);
+                }
+                break;
+            case QUALITY_STD:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = valueLatticeNoise3D(x0, y0, z0,
+                            Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                            Interp.sCurve3(z - (double) z0), seed);
+                }
+                break;
+            case QUALITY_BEST:
+                for (int i = offset; i < end; i++) {
+                    double x = xs[i], y = ys[i], z = zs[i];
+                    int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+                    int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+                    int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+                    out[i] = valueLatticeNoise3D(x0, y0, z0,
+                            Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                            Interp.sCurve5(z - (double) z0), seed);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Interpolates the value-noise values at the eight corners of the unit
+     * cube whose outer-lower-left vertex is ( @a x0, @a y0, @a z0 ).
+     *
+     * @param x0   The integer @a x coordinate of the cube.
+     * @param y0   The integer @a y coordinate of the cube.
+     * @param z0   The integer @a z coordinate of the cube.
+     * @param xs   The S-curve mapped @a x distance into the cube.
+     * @param ys   The S-curve mapped @a y distance into the cube.
+     * @param zs   The S-curve mapped @a z distance into the cube.
+     * @param seed The random number seed.
+     * @return The generated value-coherent-noise value.
+     */
+    static double valueLatticeNoise3D(int x0, int y0, int z0, double xs, double ys, double zs, int seed) {
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        int z1 = z0 + 1;
+
         // Now calculate the noise values at each vertex of the cube.  To generate
         // the coherent-noise value at the input point, interpolate these eight
         // noise values using the S-curve value as the interpolant (trilinear
@@ -314,14 +2045,6 @@ public class NoiseGen {
         return Interp.linearInterp(iy0, iy1, zs);
     }
 
-    public static double valueCoherentNoise3D(double x, double y, double z, int seed) {
-        return valueCoherentNoise3D(x, y, z, seed, NoiseQuality.QUALITY_STD);
-    }
-
-    public static double valueCoherentNoise3D(double x, double y, double z) {
-        return valueCoherentNoise3D(x, y, z, 0, NoiseQuality.QUALITY_STD);
-    }
-
     /**
      * Generates a value-noise value from the coordinates of a three-dimensional input value.
      * <p/>
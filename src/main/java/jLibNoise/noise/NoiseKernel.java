@@ -0,0 +1,536 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+/**
+ * Coherent-noise kernel specialised for one noise quality.
+ * <p/>
+ * The coherent-noise functions in NoiseGen take the noise quality as a
+ * parameter and switch on it for every value they generate.  A noise
+ * module that evaluates many values with the same quality can instead
+ * look up the kernel for that quality once, via forQuality(), and call
+ * it directly.  Each kernel applies its S-curve without branching.
+ * <p/>
+ * Every kernel returns exactly the same values as the corresponding
+ * NoiseGen function called with the same quality.
+ */
+public abstract class NoiseKernel {
+
+    private static final NoiseKernel FAST = new Fast();
+    private static final NoiseKernel STD = new Std();
+    private static final NoiseKernel BEST = new Best();
+
+    NoiseKernel() {
+    }
+
+    /**
+     * Returns the kernel for the specified noise quality.
+     *
+     * @param noiseQuality The quality of the coherent-noise.
+     * @return The shared kernel for that quality.
+     */
+    public static NoiseKernel forQuality(NoiseQuality noiseQuality) {
+        switch (noiseQuality) {
+            case QUALITY_FAST:
+                return FAST;
+            case QUALITY_BEST:
+                return BEST;
+            default:
+                return STD;
+        }
+    }
+
+    /**
+     * Returns the quality of the coherent-noise generated by this kernel.
+     *
+     * @return The quality of the coherent-noise.
+     */
+    public abstract NoiseQuality getNoiseQuality();
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, int, NoiseQuality)
+     */
+    public abstract double gradientCoherentNoise3D(double x, double y, double z, int seed);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, GradientTable, NoiseQuality)
+     */
+    public abstract double gradientCoherentNoise3D(double x, double y, double z, GradientTable table);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, int, NoiseQuality, double[])
+     */
+    public abstract double gradientCoherentNoise3D(double x, double y, double z, int seed, double[] derivative);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, GradientTable, NoiseQuality, double[])
+     */
+    public abstract double gradientCoherentNoise3D(double x, double y, double z, GradientTable table,
+                                                   double[] derivative);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise2D(double, double, int, NoiseQuality)
+     */
+    public abstract double gradientCoherentNoise2D(double x, double z, int seed);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double[], double[], double[], double[], int, int, int, NoiseQuality)
+     */
+    public void gradientCoherentNoise3D(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count,
+                                        int seed) {
+        NoiseGen.gradientCoherentNoise3D(xs, ys, zs, out, offset, count, seed, getNoiseQuality());
+    }
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(double, double, double, int[], double[], int, int, NoiseQuality)
+     */
+    public void gradientCoherentNoise3D(double x, double y, double z, int[] seeds, double[] out, int offset, int count) {
+        NoiseGen.gradientCoherentNoise3D(x, y, z, seeds, out, offset, count, getNoiseQuality());
+    }
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3D(int, int, int, double, double, double, int, NoiseQuality)
+     */
+    public abstract double gradientCoherentNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z,
+                                                   int seed);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3DF(int, int, int, float, float, float, int, NoiseQuality)
+     */
+    public abstract float gradientCoherentNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z,
+                                                   int seed);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoiseRange3D(double, double, double, double, double, double, int, NoiseQuality)
+     */
+    public Range gradientCoherentNoiseRange3D(double x0, double y0, double z0, double x1, double y1, double z1, int seed) {
+        return NoiseGen.gradientCoherentNoiseRange3D(x0, y0, z0, x1, y1, z1, seed, getNoiseQuality());
+    }
+
+    /**
+     * @see NoiseGen#gradientCoherentNoiseRange3D(double, double, double, double, double, double, GradientTable, NoiseQuality)
+     */
+    public Range gradientCoherentNoiseRange3D(double x0, double y0, double z0, double x1, double y1, double z1,
+                                              GradientTable table) {
+        return NoiseGen.gradientCoherentNoiseRange3D(x0, y0, z0, x1, y1, z1, table, getNoiseQuality());
+    }
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise2D(double, double, int, NoiseQuality, int, int)
+     */
+    public abstract double gradientCoherentNoise2D(double x, double z, int seed, int xPeriod, int zPeriod);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise2D(double[], double, double[], int, int, int, NoiseQuality)
+     */
+    public void gradientCoherentNoise2D(double[] xs, double z, double[] out, int offset, int count, int seed) {
+        NoiseGen.gradientCoherentNoise2D(xs, z, out, offset, count, seed, getNoiseQuality());
+    }
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise4D(double, double, double, double, int, NoiseQuality)
+     */
+    public abstract double gradientCoherentNoise4D(double x, double y, double z, double w, int seed);
+
+    /**
+     * @see NoiseGen#gradientCoherentNoise3DF(float, float, float, int, NoiseQuality)
+     */
+    public abstract float gradientCoherentNoise3DF(float x, float y, float z, int seed);
+
+    /**
+     * @see NoiseGen#valueCoherentNoise3D(double, double, double, int, NoiseQuality)
+     */
+    public abstract double valueCoherentNoise3D(double x, double y, double z, int seed);
+
+    /**
+     * Kernel for NoiseQuality.QUALITY_FAST (linear interpolation.)
+     */
+    private static final class Fast extends NoiseKernel {
+
+        @Override
+        public NoiseQuality getNoiseQuality() {
+            return NoiseQuality.QUALITY_FAST;
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    x - (double) x0, y - (double) y0, z - (double) z0, seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    x - (double) x0, y - (double) y0, z - (double) z0, table);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, xf, yf, zf,
+                    1.0, 1.0, 1.0, seed, null, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, xf, yf, zf,
+                    1.0, 1.0, 1.0, 0, table, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3D(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    x - (double) x0, y - (double) y0, z - (double) z0, seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3DF(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    x - (float) x0, y - (float) y0, z - (float) z0, seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed, int xPeriod, int zPeriod) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.periodicLatticeNoise2D(x, z, x0, z0,
+                    x - (double) x0, z - (double) z0, seed, xPeriod, zPeriod);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise2D(x, z, x0, z0, x - (double) x0, z - (double) z0, seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise4D(double x, double y, double z, double w, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+            return NoiseGen.gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                    x - (double) x0, y - (double) y0, z - (double) z0, w - (double) w0, seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                    x - (float) x0, y - (float) y0, z - (float) z0, seed);
+        }
+
+        @Override
+        public double valueCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.valueLatticeNoise3D(x0, y0, z0,
+                    x - (double) x0, y - (double) y0, z - (double) z0, seed);
+        }
+    }
+
+    /**
+     * Kernel for NoiseQuality.QUALITY_STD (cubic S-curve.)
+     */
+    private static final class Std extends NoiseKernel {
+
+        @Override
+        public NoiseQuality getNoiseQuality() {
+            return NoiseQuality.QUALITY_STD;
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                    Interp.sCurve3(z - (double) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                    Interp.sCurve3(z - (double) z0), table);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            double dxs = Interp.sCurve3Derivative(xf);
+            double dys = Interp.sCurve3Derivative(yf);
+            double dzs = Interp.sCurve3Derivative(zf);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, Interp.sCurve3(xf), Interp.sCurve3(yf), Interp.sCurve3(zf),
+                    dxs, dys, dzs, seed, null, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            double dxs = Interp.sCurve3Derivative(xf);
+            double dys = Interp.sCurve3Derivative(yf);
+            double dzs = Interp.sCurve3Derivative(zf);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, Interp.sCurve3(xf), Interp.sCurve3(yf), Interp.sCurve3(zf),
+                    dxs, dys, dzs, 0, table, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3D(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                    Interp.sCurve3(z - (double) z0), seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3DF(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    Interp.sCurve3(x - (float) x0), Interp.sCurve3(y - (float) y0),
+                    Interp.sCurve3(z - (float) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed, int xPeriod, int zPeriod) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.periodicLatticeNoise2D(x, z, x0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(z - (double) z0), seed, xPeriod, zPeriod);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise2D(x, z, x0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(z - (double) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise4D(double x, double y, double z, double w, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+            return NoiseGen.gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                    Interp.sCurve3(z - (double) z0), Interp.sCurve3(w - (double) w0), seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                    Interp.sCurve3(x - (float) x0), Interp.sCurve3(y - (float) y0),
+                    Interp.sCurve3(z - (float) z0), seed);
+        }
+
+        @Override
+        public double valueCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.valueLatticeNoise3D(x0, y0, z0,
+                    Interp.sCurve3(x - (double) x0), Interp.sCurve3(y - (double) y0),
+                    Interp.sCurve3(z - (double) z0), seed);
+        }
+    }
+
+    /**
+     * Kernel for NoiseQuality.QUALITY_BEST (quintic S-curve.)
+     */
+    private static final class Best extends NoiseKernel {
+
+        @Override
+        public NoiseQuality getNoiseQuality() {
+            return NoiseQuality.QUALITY_BEST;
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                    Interp.sCurve5(z - (double) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                    Interp.sCurve5(z - (double) z0), table);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, int seed, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            double dxs = Interp.sCurve5Derivative(xf);
+            double dys = Interp.sCurve5Derivative(yf);
+            double dzs = Interp.sCurve5Derivative(zf);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, Interp.sCurve5(xf), Interp.sCurve5(yf), Interp.sCurve5(zf),
+                    dxs, dys, dzs, seed, null, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(double x, double y, double z, GradientTable table, double[] derivative) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            double xf = x - (double) x0;
+            double yf = y - (double) y0;
+            double zf = z - (double) z0;
+            double dxs = Interp.sCurve5Derivative(xf);
+            double dys = Interp.sCurve5Derivative(yf);
+            double dzs = Interp.sCurve5Derivative(zf);
+            return NoiseGen.gradientLatticeNoise3D(x, y, z, x0, y0, z0, Interp.sCurve5(xf), Interp.sCurve5(yf), Interp.sCurve5(zf),
+                    dxs, dys, dzs, 0, table, derivative);
+        }
+
+        @Override
+        public double gradientCoherentNoise3D(int cellX, int cellY, int cellZ, double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3D(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                    Interp.sCurve5(z - (double) z0), seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(int cellX, int cellY, int cellZ, float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.rebasedLatticeNoise3DF(cellX, cellY, cellZ, x, y, z, x0, y0, z0,
+                    Interp.sCurve5(x - (float) x0), Interp.sCurve5(y - (float) y0),
+                    Interp.sCurve5(z - (float) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed, int xPeriod, int zPeriod) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.periodicLatticeNoise2D(x, z, x0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(z - (double) z0), seed, xPeriod, zPeriod);
+        }
+
+        @Override
+        public double gradientCoherentNoise2D(double x, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise2D(x, z, x0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(z - (double) z0), seed);
+        }
+
+        @Override
+        public double gradientCoherentNoise4D(double x, double y, double z, double w, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            int w0 = (w > 0.0 ? (int) w : (int) w - 1);
+            return NoiseGen.gradientLatticeNoise4D(x, y, z, w, x0, y0, z0, w0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                    Interp.sCurve5(z - (double) z0), Interp.sCurve5(w - (double) w0), seed);
+        }
+
+        @Override
+        public float gradientCoherentNoise3DF(float x, float y, float z, int seed) {
+            int x0 = (x > 0.0f ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0f ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0f ? (int) z : (int) z - 1);
+            return NoiseGen.gradientLatticeNoise3DF(x, y, z, x0, y0, z0,
+                    Interp.sCurve5(x - (float) x0), Interp.sCurve5(y - (float) y0),
+                    Interp.sCurve5(z - (float) z0), seed);
+        }
+
+        @Override
+        public double valueCoherentNoise3D(double x, double y, double z, int seed) {
+            int x0 = (x > 0.0 ? (int) x : (int) x - 1);
+            int y0 = (y > 0.0 ? (int) y : (int) y - 1);
+            int z0 = (z > 0.0 ? (int) z : (int) z - 1);
+            return NoiseGen.valueLatticeNoise3D(x0, y0, z0,
+                    Interp.sCurve5(x - (double) x0), Interp.sCurve5(y - (double) y0),
+                    Interp.sCurve5(z - (double) z0), seed);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise;
+
+/**
+ * An interval of output values, from a minimum to a maximum value.
+ * <p/>
+ * A noise module reports the range of its output values with
+ * Module.GetOutputRange().  The range is conservative: every output value
+ * lies within it, but it may be wider than the values actually generated.
+ * An unbounded end is represented by an infinite value.
+ * <p/>
+ * Range objects are immutable.
+ */
+public final class Range {
+
+    /**
+     * The range of all values, from negative to positive infinity.
+     */
+    public static final Range UNBOUNDED = new Range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private final double min;
+    private final double max;
+
+    /**
+     * Creates a range.
+     *
+     * @param min The minimum value.
+     * @param max The maximum value.
+     * @throws ExceptionInvalidParam See the preconditions.
+     * @pre @a min is less than or equal to @a max.
+     * @pre Neither value is NaN.
+     */
+    public Range(double min, double max) {
+        if (!(min <= max)) {
+            throw new ExceptionInvalidParam("Range minimum must not exceed its maximum");
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Returns the range from -@a bound to +@a bound.
+     *
+     * @param bound The bound on the absolute value.
+     * @return The symmetric range.
+     */
+    public static Range symmetric(double bound) {
+        return new Range(-bound, bound);
+    }
+
+    /**
+     * Returns the minimum value of this range.
+     *
+     * @return The minimum value.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum value of this range.
+     *
+     * @return The maximum value.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the difference between the maximum and the minimum value.
+     *
+     * @return The width of this range.
+     */
+    public double getWidth() {
+        return max - min;
+    }
+
+    /**
+     * Determines if both ends of this range are finite.
+     *
+     * @return true if this range is bounded.
+     */
+    public boolean isBounded() {
+        return !Double.isInfinite(min) && !Double.isInfinite(max);
+    }
+
+    /**
+     * Determines if a value lies within this range.
+     *
+     * @param value The value.
+     * @return true if @a value lies within this range, ends included.
+     */
+    public boolean contains(double value) {
+        return value >= min && value <= max;
+    }
+
+    /**
+     * Returns the range of the sum of a value from this range and a value
+     * from another range.
+     *
+     * @param other The other range.
+     * @return The range of the sum.
+     */
+    public Range add(Range other) {
+        return new Range(sum(min, other.min, Double.NEGATIVE_INFINITY), sum(max, other.max, Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * Returns the range of a value from this range multiplied with a
+     * scaling factor, with a bias added to it.
+     *
+     * @param scale The scaling factor.
+     * @param bias  The bias.
+     * @return The range of the scaled and biased value.
+     */
+    public Range scaleBias(double scale, double bias) {
+        if (scale == 0.0) {
+            return new Range(bias, bias);
+        }
+        double a = min * scale + bias;
+        double b = max * scale + bias;
+        return scale > 0.0 ? new Range(a, b) : new Range(b, a);
+    }
+
+    /**
+     * Returns the smallest range that contains both this range and another
+     * range.
+     *
+     * @param other The other range.
+     * @return The union of both ranges.
+     */
+    public Range union(Range other) {
+        return new Range(Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    /**
+     * Returns the range of a value linearly interpolated between a value
+     * from this range and a value from another range, as
+     * Interp.linearInterp() does, for an interpolant ranging from @a a0 to
+     * @a a1.
+     * <p/>
+     * The range is widened by a few units in the last place to absorb the
+     * rounding of the interpolation.
+     *
+     * @param other The range of the value weighted by the interpolant.
+     * @param a0    The minimum interpolant.
+     * @param a1    The maximum interpolant.
+     * @return The range of the interpolated value.
+     * @pre @a a0 is less than or equal to @a a1.
+     */
+    public Range interpolate(Range other, double a0, double a1) {
+        Range range;
+        if (a0 >= 0.0 && a1 <= 1.0) {
+            // A convex combination of the two values.
+            range = union(other);
+        } else if (isBounded() && other.isBounded() && a0 <= a1 && !Double.isInfinite(a1 - a0)) {
+            // (1 - a) * n0 + a * n1
+            range = product(new Range(1.0 - a1, 1.0 - a0), this).add(product(new Range(a0, a1), other));
+        } else {
+            return UNBOUNDED;
+        }
+        double magnitude = Math.max(Math.max(Math.abs(min), Math.abs(max)),
+                Math.max(Math.abs(other.min), Math.abs(other.max)));
+        double margin = 4.0 * Math.ulp(magnitude * (2.0 + Math.abs(a0) + Math.abs(a1)));
+        return new Range(range.min - margin, range.max + margin);
+    }
+
+    // Returns the range of the product of a value from each of two bounded
+    // ranges.
+    private static Range product(Range a, Range b) {
+        double p0 = a.min * b.min, p1 = a.min * b.max, p2 = a.max * b.min, p3 = a.max * b.max;
+        return new Range(Math.min(Math.min(p0, p1), Math.min(p2, p3)), Math.max(Math.max(p0, p1), Math.max(p2, p3)));
+    }
+
+    // Adds two range ends; infinite ends of opposite signs sum to the
+    // unbounded end instead of NaN.
+    private static double sum(double a, double b, double unbounded) {
+        double s = a + b;
+        return Double.isNaN(s) ? unbounded : s;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Range)) {
+            return false;
+        }
+        Range range = (Range) o;
+        return Double.compare(min, range.min) == 0 && Double.compare(max, range.max) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(min) * 31 + Double.doubleToLongBits(max);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + "]";
+    }
+}
@@ -295,4 +295,44 @@ public class Vectortable {
             0.991353, 0.112814, 0.0670273, 0.0,
             0.0337884, -0.979891, -0.196654, 0.0
     };
+
+    /**
+     * The 32 gradient vectors used by the four-dimensional noise functions.
+     * Each row is an (x, y, z, w) vector pointing from the center of a
+     * tesseract to the midpoint of one of its cubic cells' edges (one
+     * component is 0, the others are +/-1), scaled to unit length.  As with
+     * the three-dimensional gradients, every direction is equally likely.
+     */
+    public static final double[] randomVectors4D = new double[32 * 4];
+
+    static {
+        double unit = 1.0 / MathConst.SQRT_3;
+        int row = 0;
+        for (int zeroAxis = 0; zeroAxis < 4; zeroAxis++) {
+            for (int signs = 0; signs < 8; signs++) {
+                int bit = 0;
+                for (int axis = 0; axis < 4; axis++) {
+                    if (axis == zeroAxis) {
+                        randomVectors4D[row * 4 + axis] = 0.0;
+                    } else {
+                        randomVectors4D[row * 4 + axis] = ((signs >> bit) & 1) == 0 ? unit : -unit;
+                        bit++;
+                    }
+                }
+                row++;
+            }
+        }
+    }
+
+    /**
+     * Single-precision copy of randomVectors, used by the float noise
+     * kernels.  It has the same (x, y, z, 0) layout.
+     */
+    public static final float[] randomVectorsF = new float[randomVectors.length];
+
+    static {
+        for (int i = 0; i < randomVectors.length; i++) {
+            randomVectorsF[i] = (float) randomVectors[i];
+        }
+    }
 }
@@ -85,7 +85,41 @@ public class Plane {
      */
     public double getValue(double x, double z) {
         assert (module != null);
-        return module.getValue(x, 0, z);
+        return module.getValue2D(x, z);
+    }
+
+    /**
+     * Returns the output value from the noise module given the
+     * ( @a x, @a z ) coordinates of the specified input value relative to
+     * an integer origin on the surface of the plane.
+     *
+     * @param originX The @a x coordinate of the origin.
+     * @param originZ The @a z coordinate of the origin.
+     * @param x       The @a x coordinate of the input value, relative to the origin.
+     * @param z       The @a z coordinate of the input value, relative to the origin.
+     * @return The output value from the noise module.
+     * @pre A noise module was passed to the SetModule() method.
+     */
+    public double getValue(long originX, long originZ, double x, double z) {
+        assert (module != null);
+        return module.getRebasedValue(originX, 0, originZ, x, 0.0, z);
+    }
+
+    /**
+     * Returns the output values from the noise module for a row of input
+     * values located on the surface of the plane that share the same
+     * @a z coordinate.
+     *
+     * @param xs     The @a x coordinates of the input values.
+     * @param z      The @a z coordinate shared by all input values.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     * @pre A noise module was passed to the SetModule() method.
+     */
+    public void getValues(double[] xs, double z, double[] out, int offset, int count) {
+        assert (module != null);
+        module.getValues2D(xs, z, out, offset, count);
     }
 
     /**
@@ -23,7 +23,9 @@
  */
 package jLibNoise.noise.model;
 
+import jLibNoise.noise.BlockScratch;
 import jLibNoise.noise.LatLon;
+import jLibNoise.noise.MathConst;
 import jLibNoise.noise.module.Module;
 
 /**
@@ -49,6 +51,8 @@ public class Sphere {
 
     // A pointer to the noise module used to generate the output values.
     private Module module;
+    // Coordinate arrays of each thread used by GetValues().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
 
     public Sphere() {
     }
@@ -110,4 +114,39 @@ public class Sphere {
         double[] xyz = LatLon.latLonToXYZ(lat, lon);
         return module.getValue(xyz[0], xyz[1], xyz[2]);
     }
+
+    /**
+     * Returns the output values from the noise module for a row of input
+     * values located on the surface of the sphere that share the same
+     * latitude.
+     * <p/>
+     * The input values are converted to ( @a x, @a y, @a z ) coordinates
+     * and passed to the noise module as a single block.
+     *
+     * @param lat    The latitude shared by all input values, in degrees.
+     * @param lons   The longitudes of the input values, in degrees.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     * @pre A noise module was passed to the SetModule() method.
+     */
+    public void getValues(double lat, double[] lons, double[] out, int offset, int count) {
+        assert (module != null);
+
+        BlockScratch scratch = this.scratch.get();
+        double[] xs = scratch.getDoubles(0, offset + count);
+        double[] ys = scratch.getDoubles(1, offset + count);
+        double[] zs = scratch.getDoubles(2, offset + count);
+
+        // The row shares its latitude, so only the longitude terms of
+        // LatLon.latLonToXYZ() change from one input value to the next.
+        double r = Math.cos(MathConst.DEG_TO_RAD * lat);
+        double y = Math.sin(MathConst.DEG_TO_RAD * lat);
+        for (int i = offset; i < offset + count; i++) {
+            xs[i] = r * Math.cos(MathConst.DEG_TO_RAD * lons[i]);
+            ys[i] = y;
+            zs[i] = r * Math.sin(MathConst.DEG_TO_RAD * lons[i]);
+        }
+        module.getValues(xs, ys, zs, out, offset, count);
+    }
 }
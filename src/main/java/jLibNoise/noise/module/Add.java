@@ -0,0 +1,167 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.Range;
+
+import java.util.Collections;
+
+/**
+ * Noise module that outputs the sum of the two output values from two
+ * source modules.
+ * <p/>
+ * This noise module requires two source modules.
+ *
+ * @source 'module/add.h/cpp'
+ */
+public class Add extends Module {
+
+    // Scratch arrays of each thread used by GetValues() and GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public Add() {
+        super(2);
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getOutputRange().add(sourceModule[1].getOutputRange());
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1)
+                .add(sourceModule[1].getValueRange(x0, y0, z0, x1, y1, z1));
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 2;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getValue(x, y, z) + sourceModule[1].getValue(x, y, z);
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        double[] values = scratch.get().getDoubles(0, offset + count);
+        sourceModule[0].getValues(xs, ys, zs, out, offset, count);
+        sourceModule[1].getValues(xs, ys, zs, values, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] += values[i];
+        }
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getValue2D(x, z) + sourceModule[1].getValue2D(x, z);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        double[] values = scratch.get().getDoubles(0, offset + count);
+        sourceModule[0].getValues2D(xs, z, out, offset, count);
+        sourceModule[1].getValues2D(xs, z, values, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] += values[i];
+        }
+    }
+
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z)
+                + sourceModule[1].getRebasedValue(originX, originY, originZ, x, y, z);
+    }
+
+    @Override
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getRebasedValueF(originX, originY, originZ, x, y, z)
+                + sourceModule[1].getRebasedValueF(originX, originY, originZ, x, y, z);
+    }
+
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].canTile(xPeriod, zPeriod) && sourceModule[1].canTile(xPeriod, zPeriod);
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+
+        return sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod)
+                + sourceModule[1].getTiledValue2D(x, z, xPeriod, zPeriod);
+    }
+
+    @Override
+    protected boolean combinesSourceValues() {
+        return true;
+    }
+
+    @Override
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        double[] values0 = sourceValues[0];
+        double[] values1 = sourceValues[1];
+        for (int i = 0; i < count; i++) {
+            out[i] = values0[i] + values1[i];
+        }
+    }
+}
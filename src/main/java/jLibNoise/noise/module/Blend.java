@@ -0,0 +1,265 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.Interp;
+import jLibNoise.noise.Range;
+
+import java.util.Collections;
+
+/**
+ * Noise module that outputs a weighted blend of the output values from
+ * two source modules given the output value supplied by a control module.
+ * <p/>
+ * Unlike most other noise modules, the index value assigned to a source
+ * module determines its role in the blending operation:
+ * - Source module 0 outputs one of the values to blend.
+ * - Source module 1 outputs one of the values to blend.
+ * - Source module 2 is known as the <i>control module</i>.  The control
+ * module determines the weight of the blending operation.  Negative
+ * values weigh the blend towards the output value from the source module
+ * with an index value of 0.  Positive values weigh the blend towards the
+ * output value from the source module with an index value of 1.
+ * <p/>
+ * An application can pass the control module to the SetControlModule()
+ * method instead of the SetSourceModule() method.  This may make the
+ * application code easier to read.
+ * <p/>
+ * This noise module uses linear interpolation to perform the blending
+ * operation.
+ * <p/>
+ * This noise module requires three source modules.
+ *
+ * @source 'module/blend.h/cpp'
+ */
+public class Blend extends Module {
+
+    // Scratch arrays of each thread used by GetValues() and GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public Blend() {
+        super(3);
+    }
+
+    /**
+     * Returns the control module.
+     * <p/>
+     * The control module determines the weight of the blending operation.
+     * Negative values weigh the blend towards the output value from the
+     * source module with an index value of 0.  Positive values weigh the
+     * blend towards the output value from the source module with an index
+     * value of 1.
+     *
+     * @return A reference to the control module.
+     * @throws jLibNoise.noise.ExceptionNoModule See the preconditions for
+     *                                           more information.
+     * @pre A control module has been added to this noise module via a call
+     * to SetSourceModule() or SetControlModule().
+     */
+    public Module getControlModule() {
+        return getSourceModule(2);
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        Range weights = weightRange(sourceModule[2].getOutputRange());
+        if (weights.getMin() == 0.0 && weights.getMax() == 0.0) {
+            return sourceModule[0].getOutputRange();
+        } else if (weights.getMin() == 1.0 && weights.getMax() == 1.0) {
+            return sourceModule[1].getOutputRange();
+        }
+        return sourceModule[0].getOutputRange().interpolate(sourceModule[1].getOutputRange(),
+                weights.getMin(), weights.getMax());
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        Range weights = weightRange(sourceModule[2].getValueRange(x0, y0, z0, x1, y1, z1));
+        if (weights.getMin() == 0.0 && weights.getMax() == 0.0) {
+            return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1);
+        } else if (weights.getMin() == 1.0 && weights.getMax() == 1.0) {
+            return sourceModule[1].getValueRange(x0, y0, z0, x1, y1, z1);
+        }
+        return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1).interpolate(
+                sourceModule[1].getValueRange(x0, y0, z0, x1, y1, z1), weights.getMin(), weights.getMax());
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 3;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double v0 = sourceModule[0].getValue(x, y, z);
+        double v1 = sourceModule[1].getValue(x, y, z);
+        double alpha = (sourceModule[2].getValue(x, y, z) + 1.0) / 2.0;
+        return Interp.linearInterp(v0, v1, alpha);
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        int end = offset + count;
+        BlockScratch scratch = this.scratch.get();
+        double[] values1 = scratch.getDoubles(0, end);
+        double[] alphas = scratch.getDoubles(1, end);
+        sourceModule[0].getValues(xs, ys, zs, out, offset, count);
+        sourceModule[1].getValues(xs, ys, zs, values1, offset, count);
+        sourceModule[2].getValues(xs, ys, zs, alphas, offset, count);
+        for (int i = offset; i < end; i++) {
+            out[i] = Interp.linearInterp(out[i], values1[i], (alphas[i] + 1.0) / 2.0);
+        }
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double v0 = sourceModule[0].getValue2D(x, z);
+        double v1 = sourceModule[1].getValue2D(x, z);
+        double alpha = (sourceModule[2].getValue2D(x, z) + 1.0) / 2.0;
+        return Interp.linearInterp(v0, v1, alpha);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        int end = offset + count;
+        BlockScratch scratch = this.scratch.get();
+        double[] values1 = scratch.getDoubles(0, end);
+        double[] alphas = scratch.getDoubles(1, end);
+        sourceModule[0].getValues2D(xs, z, out, offset, count);
+        sourceModule[1].getValues2D(xs, z, values1, offset, count);
+        sourceModule[2].getValues2D(xs, z, alphas, offset, count);
+        for (int i = offset; i < end; i++) {
+            out[i] = Interp.linearInterp(out[i], values1[i], (alphas[i] + 1.0) / 2.0);
+        }
+    }
+
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double v0 = sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z);
+        double v1 = sourceModule[1].getRebasedValue(originX, originY, originZ, x, y, z);
+        double alpha = (sourceModule[2].getRebasedValue(originX, originY, originZ, x, y, z) + 1.0) / 2.0;
+        return Interp.linearInterp(v0, v1, alpha);
+    }
+
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        return sourceModule[0].canTile(xPeriod, zPeriod) && sourceModule[1].canTile(xPeriod, zPeriod)
+                && sourceModule[2].canTile(xPeriod, zPeriod);
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double v0 = sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod);
+        double v1 = sourceModule[1].getTiledValue2D(x, z, xPeriod, zPeriod);
+        double alpha = (sourceModule[2].getTiledValue2D(x, z, xPeriod, zPeriod) + 1.0) / 2.0;
+        return Interp.linearInterp(v0, v1, alpha);
+    }
+
+    @Override
+    protected boolean combinesSourceValues() {
+        return true;
+    }
+
+    @Override
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        double[] values0 = sourceValues[0];
+        double[] values1 = sourceValues[1];
+        double[] controlValues = sourceValues[2];
+        for (int i = 0; i < count; i++) {
+            out[i] = Interp.linearInterp(values0[i], values1[i], (controlValues[i] + 1.0) / 2.0);
+        }
+    }
+
+    /**
+     * Sets the control module.
+     * <p/>
+     * The control module determines the weight of the blending operation.
+     * Negative values weigh the blend towards the output value from the
+     * source module with an index value of 0.  Positive values weigh the
+     * blend towards the output value from the source module with an index
+     * value of 1.
+     * <p/>
+     * This method assigns the control module an index value of 2.
+     * Passing the control module to this method produces the same results
+     * as passing the control module to the SetSourceModule() method while
+     * assigning that noise module an index value of 2.
+     *
+     * @param controlModule The control module.
+     */
+    public void setControlModule(Module controlModule) {
+        setSourceModule(2, controlModule);
+    }
+
+    /**
+     * Returns the range of the weights of source module 1 for the control
+     * values inside a range.
+     */
+    static Range weightRange(Range controlRange) {
+        return new Range((controlRange.getMin() + 1.0) / 2.0, (controlRange.getMax() + 1.0) / 2.0);
+    }
+}
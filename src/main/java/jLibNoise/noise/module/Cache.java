@@ -0,0 +1,365 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.Range;
+
+import java.util.Collections;
+
+/**
+ * Noise module that caches the last output value generated by a source
+ * module.
+ * <p/>
+ * If an application passes an input value to the GetValue() method that
+ * differs from the previously passed-in input value, this noise module
+ * instructs the source module to calculate the output value.  This
+ * value, as well as the ( @a x, @a y, @a z ) coordinates of the input
+ * value, are stored (cached) in this noise module.
+ * <p/>
+ * If the application passes an input value to the GetValue() method
+ * that is equal to the previously passed-in input value, this noise
+ * module returns the cached output value without having the source
+ * module recalculate the output value.
+ * <p/>
+ * If an application passes a new source module to the SetSourceModule()
+ * method, the cache is invalidated.
+ * <p/>
+ * Caching a noise module is useful if it is used as a source module for
+ * multiple noise modules.  If a source module is not cached, the source
+ * module will redundantly calculate the same output value once for each
+ * noise module in which it is included.
+ * <p/>
+ * The GetValues() and GetValues2D() methods likewise cache the last block
+ * of output values: if the same block of input values is passed again,
+ * the cached output values are copied instead of being recalculated.
+ * This is what noise map builders use, so a cached noise module that
+ * feeds several Select or Blend noise modules is evaluated once per
+ * block.
+ * <p/>
+ * Unlike libnoise, the cache is kept per thread, so several threads can
+ * evaluate the same noise module graph without locking and without
+ * evicting each other's cached value.
+ * <p/>
+ * This noise module cannot detect changes made to the parameters of the
+ * source module; call SetSourceModule() again after changing them.
+ * <p/>
+ * This noise module requires one source module.
+ *
+ * @source 'module/cache.h/cpp'
+ */
+public class Cache extends Module {
+
+    // Number of times the source module was replaced; a cached value is only
+    // valid for the source module it was calculated with.
+    private volatile int generation;
+    // The cached output value and input value of each thread.
+    private final ThreadLocal<Entry> entries = new ThreadLocal<Entry>() {
+        @Override
+        protected Entry initialValue() {
+            return new Entry();
+        }
+    };
+    // The cached block of output values and input values of each thread.
+    private final ThreadLocal<Block> blocks = new ThreadLocal<Block>() {
+        @Override
+        protected Block initialValue() {
+            return new Block();
+        }
+    };
+
+    public Cache() {
+        super(1);
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        Entry entry = entries.get();
+        int generation = this.generation;
+        if (!entry.holds(x, y, z, generation)) {
+            entry.store(x, y, z, generation, sourceModule[0].getValue(x, y, z));
+        }
+        return entry.cachedValue;
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        Block block = blocks.get();
+        int generation = this.generation;
+        if (!block.holds(xs, ys, zs, offset, count, generation)) {
+            sourceModule[0].getValues(xs, ys, zs, out, offset, count);
+            block.store(xs, ys, zs, out, offset, count, generation);
+        } else {
+            System.arraycopy(block.values, 0, out, offset, count);
+        }
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        Entry entry = entries.get();
+        int generation = this.generation;
+        if (!entry.holds(x, 0.0, z, generation)) {
+            entry.store(x, 0.0, z, generation, sourceModule[0].getValue2D(x, z));
+        }
+        return entry.cachedValue;
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        Block block = blocks.get();
+        int generation = this.generation;
+        if (!block.holdsRow(xs, z, offset, count, generation)) {
+            sourceModule[0].getValues2D(xs, z, out, offset, count);
+            block.storeRow(xs, z, out, offset, count, generation);
+        } else {
+            System.arraycopy(block.values, 0, out, offset, count);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Rebased output values are not cached.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z);
+    }
+
+    @Override
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getRebasedValueF(originX, originY, originZ, x, y, z);
+    }
+
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].canTile(xPeriod, zPeriod);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Tiled output values are not cached.
+     */
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A compiled program already evaluates a shared source module once per
+     * block, so the cache only copies the output values of its source module.
+     */
+    @Override
+    protected boolean combinesSourceValues() {
+        return true;
+    }
+
+    @Override
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        System.arraycopy(sourceValues[0], 0, out, 0, count);
+    }
+
+    @Override
+    public void setSourceModule(int index, Module sourceModule) {
+        super.setSourceModule(index, sourceModule);
+        generation++;
+    }
+
+    /**
+     * The cached value of a thread.
+     */
+    private static final class Entry {
+
+        // The cached output value at the cached input value.
+        double cachedValue;
+        // Number of times the source module was replaced when the value was cached.
+        int generation;
+        // Determines if a cached output value is stored in this entry.
+        boolean isCached;
+        // @a x coordinate of the cached input value.
+        double xCache;
+        // @a y coordinate of the cached input value.
+        double yCache;
+        // @a z coordinate of the cached input value.
+        double zCache;
+
+        /**
+         * Determines if this entry holds the output value at an input value.
+         */
+        boolean holds(double x, double y, double z, int generation) {
+            return isCached && this.generation == generation && x == xCache && y == yCache && z == zCache;
+        }
+
+        /**
+         * Stores the output value at an input value in this entry.
+         */
+        void store(double x, double y, double z, int generation, double value) {
+            cachedValue = value;
+            xCache = x;
+            yCache = y;
+            zCache = z;
+            this.generation = generation;
+            isCached = true;
+        }
+    }
+
+    /**
+     * The cached block of a thread.
+     */
+    private static final class Block {
+
+        // The cached output values at the cached input values.
+        double[] values = new double[0];
+        // Number of times the source module was replaced when the block was
+        // cached.
+        int generation;
+        // Determines if a cached block is stored in this entry.
+        boolean isCached;
+        // Determines if the cached block is a row of GetValues2D().
+        boolean isRow;
+        // Number of input values in the cached block.
+        int count;
+        // @a x coordinates of the cached input values.
+        double[] xCache = new double[0];
+        // @a y coordinates of the cached input values; unused for a row.
+        double[] yCache = new double[0];
+        // @a z coordinates of the cached input values; only the first one
+        // is used for a row.
+        double[] zCache = new double[0];
+
+        /**
+         * Determines if this entry holds the output values of a block of
+         * input values.
+         */
+        boolean holds(double[] xs, double[] ys, double[] zs, int offset, int count, int generation) {
+            if (!isCached || isRow || this.generation != generation || this.count != count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (xs[offset + i] != xCache[i] || ys[offset + i] != yCache[i] || zs[offset + i] != zCache[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Determines if this entry holds the output values of a row of
+         * input values on the plane @a y = 0.
+         */
+        boolean holdsRow(double[] xs, double z, int offset, int count, int generation) {
+            if (!isCached || !isRow || this.generation != generation || this.count != count || z != zCache[0]) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (xs[offset + i] != xCache[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Stores the output values of a block of input values in this entry.
+         */
+        void store(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count, int generation) {
+            reserve(count);
+            System.arraycopy(xs, offset, xCache, 0, count);
+            System.arraycopy(ys, offset, yCache, 0, count);
+            System.arraycopy(zs, offset, zCache, 0, count);
+            System.arraycopy(out, offset, values, 0, count);
+            this.count = count;
+            this.generation = generation;
+            isRow = false;
+            isCached = true;
+        }
+
+        /**
+         * Stores the output values of a row of input values in this entry.
+         */
+        void storeRow(double[] xs, double z, double[] out, int offset, int count, int generation) {
+            reserve(Math.max(count, 1));
+            System.arraycopy(xs, offset, xCache, 0, count);
+            zCache[0] = z;
+            System.arraycopy(out, offset, values, 0, count);
+            this.count = count;
+            this.generation = generation;
+            isRow = true;
+            isCached = true;
+        }
+
+        private void reserve(int count) {
+            if (values.length < count) {
+                values = new double[count];
+                xCache = new double[count];
+                yCache = new double[count];
+                zCache = new double[count];
+            }
+        }
+    }
+}
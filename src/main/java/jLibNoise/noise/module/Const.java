@@ -0,0 +1,114 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that outputs a constant value.
+ * <p/>
+ * To specify the constant value, call the SetConstValue() method.
+ * <p/>
+ * This noise module is not useful by itself, but it is often used as a
+ * source module for other noise modules.
+ * <p/>
+ * This noise module does not require any source modules.
+ *
+ * @source 'module/const.h/cpp'
+ */
+public class Const extends Module {
+
+    // Default constant value for the Const noise module.
+    public static final double DEFAULT_CONST_VALUE = 0.0;
+
+    // Constant value.
+    protected double constValue;
+
+    public Const() {
+        super(0);
+
+        constValue = DEFAULT_CONST_VALUE;
+    }
+
+    /**
+     * Returns the constant output value for this noise module.
+     *
+     * @return The constant output value for this noise module.
+     */
+    public double getConstValue() {
+        return constValue;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        return new Range(constValue, constValue);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(constValue);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 0;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        return constValue;
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        Arrays.fill(out, offset, offset + count, constValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A constant output value repeats with any period.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        return true;
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        return constValue;
+    }
+
+    /**
+     * Sets the constant output value for this noise module.
+     *
+     * @param constValue The constant output value for this noise module.
+     */
+    public void setConstValue(double constValue) {
+        this.constValue = constValue;
+    }
+}
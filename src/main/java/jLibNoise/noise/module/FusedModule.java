@@ -0,0 +1,1089 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.GradientTable;
+import jLibNoise.noise.Interp;
+import jLibNoise.noise.NoiseGen;
+import jLibNoise.noise.NoiseKernel;
+import jLibNoise.noise.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Noise module that evaluates a specialised copy of a noise module graph.
+ * <p/>
+ * Fuse() copies the graph below a noise module into a graph of small final
+ * node classes, one per kind of noise module, whose parameters are final
+ * fields.  For the Perlin and Simplex noise modules, the seed and the
+ * amplitude of every octave are calculated once and stored in final
+ * arrays.  As every call inside a node is either to a final class or to
+ * a quality-specific NoiseKernel, the JIT can inline the tree much more
+ * deeply than the original graph, whose modules re-read mutable fields
+ * and dispatch through Module.getValue() at every level.
+ * <p/>
+ * The output values are identical to those of the original graph at the
+ * time Fuse() was called.  A noise module that is shared by several
+ * noise modules of the graph becomes a single node, so a shared Cache
+ * noise module still evaluates its source once per input value.
+ * <p/>
+ * The Perlin, Simplex, Const, ScaleBias, Add, Select, Blend, Cache,
+ * TranslatePoint, ScalePoint, RotatePoint and TransformPoint noise modules
+ * have specialised nodes; a Cache node keeps its cached value per
+ * thread, and Select nodes only evaluate the source nodes that
+ * contribute to an output value.  Other noise modules, including
+ * subclasses of the noise modules above, cannot be copied and are
+ * evaluated through their own GetValue() method.
+ * <p/>
+ * When every noise module of the graph has a specialised node, the fused
+ * module is an immutable snapshot: changing the parameters or the source
+ * modules of the original graph afterwards does not affect it, and any
+ * number of threads can evaluate it at the same time without locking.
+ * Every node is reachable only through final fields, so the snapshot is
+ * safely published to any thread that obtains a reference to it, even
+ * without synchronization.  Snapshot() and Module.freeze() only return
+ * such fused modules; Fuse() also accepts graphs with other noise
+ * modules, which then remain live and must be safe to share between
+ * threads themselves.
+ */
+public class FusedModule extends Module {
+
+    // Root of the fused tree.
+    private final Node root;
+    // Output range of the noise module graph when it was fused.
+    private final Range outputRange;
+    // First noise module of the graph that is evaluated live, or null if
+    // this noise module is a snapshot.
+    private final Module liveModule;
+
+    private FusedModule(Node root, Range outputRange, Module liveModule) {
+        super(0);
+        this.root = root;
+        this.outputRange = outputRange;
+        this.liveModule = liveModule;
+    }
+
+    /**
+     * Fuses the noise module graph below a noise module.
+     * <p/>
+     * Noise modules without a specialised node are evaluated live.
+     *
+     * @param module The noise module at the root of the graph.
+     * @return The fused noise module.
+     * @throws jLibNoise.noise.ExceptionNoModule A noise module in the graph
+     *                                           is missing a source module.
+     */
+    public static FusedModule fuse(Module module) {
+        List<Module> liveModules = new ArrayList<Module>();
+        Node root = createNode(module, new IdentityHashMap<Module, Node>(), liveModules);
+        return new FusedModule(root, module.getOutputRange(), liveModules.isEmpty() ? null : liveModules.get(0));
+    }
+
+    /**
+     * Fuses the noise module graph below a noise module into an immutable
+     * snapshot.
+     *
+     * @param module The noise module at the root of the graph.
+     * @return The fused noise module.
+     * @throws ExceptionInvalidParam A noise module in the graph has no
+     *                               specialised node.
+     * @throws jLibNoise.noise.ExceptionNoModule A noise module in the graph
+     *                                           is missing a source module.
+     */
+    public static FusedModule snapshot(Module module) {
+        return fuse(module).checkSnapshot();
+    }
+
+    /**
+     * Returns this noise module if it is an immutable snapshot.
+     *
+     * @return This noise module.
+     * @throws ExceptionInvalidParam A noise module of the fused graph is
+     *                               evaluated live.
+     */
+    @Override
+    public Module freeze() {
+        return checkSnapshot();
+    }
+
+    /**
+     * Determines if this noise module is an immutable snapshot, that is if
+     * no noise module of the fused graph is evaluated live.
+     *
+     * @return true if this noise module is a snapshot.
+     */
+    public boolean isSnapshot() {
+        return liveModule == null;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        return outputRange;
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 0;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        return root.getValue(x, y, z);
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        root.getValues(xs, ys, zs, out, offset, count);
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        return root.getValue2D(x, z);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        root.getValues2D(xs, z, out, offset, count);
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        return root.getValueRange(x0, y0, z0, x1, y1, z1);
+    }
+
+    private FusedModule checkSnapshot() {
+        if (liveModule != null) {
+            throw new ExceptionInvalidParam("Cannot copy a " + liveModule.getClass().getName()
+                    + " noise module into a snapshot");
+        }
+        return this;
+    }
+
+    /**
+     * Creates the specialised node of a noise module.
+     * <p/>
+     * Only the exact classes are specialised; a subclass may have changed
+     * how its output values are generated.  A noise module shared by
+     * several noise modules of the graph gets a single node, so a shared
+     * Cache noise module remains one cache.
+     *
+     * @param nodes       The node already created for each noise module.
+     * @param liveModules Receives the noise modules that are evaluated
+     *                    live.
+     */
+    private static Node createNode(Module module, Map<Module, Node> nodes, List<Module> liveModules) {
+        Node node = nodes.get(module);
+        if (node == null) {
+            node = createUniqueNode(module, nodes, liveModules);
+            nodes.put(module, node);
+        }
+        return node;
+    }
+
+    private static Node createUniqueNode(Module module, Map<Module, Node> nodes, List<Module> liveModules) {
+        Class<?> type = module.getClass();
+        if (type == Perlin.class) {
+            return new PerlinNode((Perlin) module);
+        } else if (type == Simplex.class) {
+            return new SimplexNode((Simplex) module);
+        } else if (type == ScaleBias.class) {
+            ScaleBias scaleBias = (ScaleBias) module;
+            return new ScaleBiasNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    scaleBias.getScale(), scaleBias.getBias());
+        } else if (type == Add.class) {
+            return new AddNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    createNode(module.getSourceModule(1), nodes, liveModules));
+        } else if (type == Select.class) {
+            Select select = (Select) module;
+            return new SelectNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    createNode(module.getSourceModule(1), nodes, liveModules),
+                    createNode(module.getSourceModule(2), nodes, liveModules),
+                    select.getLowerBound(), select.getUpperBound(), select.getEdgeFalloff());
+        } else if (type == Blend.class) {
+            return new BlendNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    createNode(module.getSourceModule(1), nodes, liveModules),
+                    createNode(module.getSourceModule(2), nodes, liveModules));
+        } else if (type == Const.class) {
+            return new ConstNode(((Const) module).getConstValue());
+        } else if (type == TranslatePoint.class) {
+            TranslatePoint translatePoint = (TranslatePoint) module;
+            return new TranslateNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    translatePoint.getXTranslation(), translatePoint.getYTranslation(),
+                    translatePoint.getZTranslation());
+        } else if (type == ScalePoint.class) {
+            ScalePoint scalePoint = (ScalePoint) module;
+            return new ScaleNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    scalePoint.getXScale(), scalePoint.getYScale(), scalePoint.getZScale());
+        } else if (type == RotatePoint.class) {
+            return new TransformNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    ((RotatePoint) module).getMatrix());
+        } else if (type == TransformPoint.class) {
+            return new TransformNode(createNode(module.getSourceModule(0), nodes, liveModules),
+                    ((TransformPoint) module).getMatrix());
+        } else if (type == Cache.class) {
+            return new CacheNode(createNode(module.getSourceModule(0), nodes, liveModules));
+        } else if (type == FusedModule.class) {
+            FusedModule fused = (FusedModule) module;
+            if (fused.liveModule != null) {
+                liveModules.add(fused.liveModule);
+            }
+            return fused.root;
+        }
+        liveModules.add(module);
+        return new ModuleNode(module);
+    }
+
+    /**
+     * Returns the seed of every octave.
+     */
+    private static int[] octaveSeeds(int seed, int octaveCount) {
+        int[] seeds = new int[octaveCount];
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            seeds[curOctave] = (seed + curOctave) & 0xffffffff;
+        }
+        return seeds;
+    }
+
+    /**
+     * Returns the amplitude of every octave.
+     */
+    private static double[] octaveAmplitudes(double persistence, int octaveCount) {
+        double[] amplitudes = new double[octaveCount];
+        double curPersistence = 1.0;
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            amplitudes[curOctave] = curPersistence;
+            curPersistence *= persistence;
+        }
+        return amplitudes;
+    }
+
+    /**
+     * A node of the fused tree.
+     */
+    private abstract static class Node {
+
+        abstract double getValue(double x, double y, double z);
+
+        /**
+         * Generates output values for a block of input values, as
+         * Module.getValues() does.
+         */
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = getValue(xs[i], ys[i], zs[i]);
+            }
+        }
+
+        /**
+         * Generates an output value on the plane @a y = 0, as
+         * Module.getValue2D() does.
+         */
+        double getValue2D(double x, double z) {
+            return getValue(x, 0.0, z);
+        }
+
+        /**
+         * Generates output values for a row of input values on the plane
+         * @a y = 0, as Module.getValues2D() does.
+         */
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = getValue2D(xs[i], z);
+            }
+        }
+
+        abstract Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1);
+    }
+
+    private static final class PerlinNode extends Node {
+
+        private final NoiseKernel kernel;
+        private final double frequency;
+        private final double lacunarity;
+        private final double persistence;
+        private final int[] seeds;
+        private final double[] amplitudes;
+        // The permutation table of every octave, or null in the libnoise lattice mode.
+        private final GradientTable[] tables;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        PerlinNode(Perlin perlin) {
+            kernel = NoiseKernel.forQuality(perlin.getNoiseQuality());
+            frequency = perlin.getFrequency();
+            lacunarity = perlin.getLacunarity();
+            persistence = perlin.getPersistence();
+            seeds = octaveSeeds(perlin.getSeed(), perlin.getOctaveCount());
+            amplitudes = octaveAmplitudes(perlin.getPersistence(), perlin.getOctaveCount());
+            GradientTable[] octaveTables = perlin.getOctaveTables();
+            tables = octaveTables == null ? null : octaveTables.clone();
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            double value = 0.0;
+
+            x *= frequency;
+            y *= frequency;
+            z *= frequency;
+
+            for (int curOctave = 0; curOctave < seeds.length; curOctave++) {
+                double signal;
+                if (tables != null) {
+                    signal = kernel.gradientCoherentNoise3D(x, y, z, tables[curOctave]);
+                } else {
+                    signal = kernel.gradientCoherentNoise3D(x, y, z, seeds[curOctave]);
+                }
+                value += signal * amplitudes[curOctave];
+
+                // Prepare the next octave.
+                x *= lacunarity;
+                y *= lacunarity;
+                z *= lacunarity;
+            }
+
+            return value;
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            if (tables != null) {
+                super.getValues(xs, ys, zs, out, offset, count);
+                return;
+            }
+
+            BlockScratch scratch = this.scratch.get();
+            double[] nx = scratch.getDoubles(0, count);
+            double[] ny = scratch.getDoubles(1, count);
+            double[] nz = scratch.getDoubles(2, count);
+            double[] signal = scratch.getDoubles(3, count);
+            for (int i = 0; i < count; i++) {
+                nx[i] = xs[offset + i] * frequency;
+                ny[i] = ys[offset + i] * frequency;
+                nz[i] = zs[offset + i] * frequency;
+                out[offset + i] = 0.0;
+            }
+
+            for (int curOctave = 0; curOctave < seeds.length; curOctave++) {
+                kernel.gradientCoherentNoise3D(nx, ny, nz, signal, 0, count, seeds[curOctave]);
+                double amplitude = amplitudes[curOctave];
+                for (int i = 0; i < count; i++) {
+                    out[offset + i] += signal[i] * amplitude;
+
+                    // Prepare the next octave.
+                    nx[i] *= lacunarity;
+                    ny[i] *= lacunarity;
+                    nz[i] *= lacunarity;
+                }
+            }
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            if (tables != null) {
+                return getValue(x, 0.0, z);
+            }
+
+            double value = 0.0;
+
+            x *= frequency;
+            z *= frequency;
+
+            for (int curOctave = 0; curOctave < seeds.length; curOctave++) {
+                value += kernel.gradientCoherentNoise2D(x, z, seeds[curOctave]) * amplitudes[curOctave];
+
+                // Prepare the next octave.
+                x *= lacunarity;
+                z *= lacunarity;
+            }
+
+            return value;
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            if (tables != null) {
+                super.getValues2D(xs, z, out, offset, count);
+                return;
+            }
+
+            BlockScratch scratch = this.scratch.get();
+            double[] octaveXs = scratch.getDoubles(0, count);
+            double[] signal = scratch.getDoubles(3, count);
+            for (int i = 0; i < count; i++) {
+                octaveXs[i] = xs[offset + i] * frequency;
+                out[offset + i] = 0.0;
+            }
+            z *= frequency;
+
+            for (int curOctave = 0; curOctave < seeds.length; curOctave++) {
+                kernel.gradientCoherentNoise2D(octaveXs, z, signal, 0, count, seeds[curOctave]);
+                double amplitude = amplitudes[curOctave];
+                for (int i = 0; i < count; i++) {
+                    out[offset + i] += signal[i] * amplitude;
+
+                    // Prepare the next octave.
+                    octaveXs[i] *= lacunarity;
+                }
+                z *= lacunarity;
+            }
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return Perlin.getValueRange(kernel, tables, seeds[0], frequency, lacunarity, persistence, seeds.length,
+                    x0, y0, z0, x1, y1, z1);
+        }
+    }
+
+    private static final class SimplexNode extends Node {
+
+        private final double frequency;
+        private final double lacunarity;
+        private final int[] seeds;
+        private final double[] amplitudes;
+
+        SimplexNode(Simplex simplex) {
+            frequency = simplex.getFrequency();
+            lacunarity = simplex.getLacunarity();
+            seeds = octaveSeeds(simplex.getSeed(), simplex.getOctaveCount());
+            amplitudes = octaveAmplitudes(simplex.getPersistence(), simplex.getOctaveCount());
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            double value = 0.0;
+
+            x *= frequency;
+            y *= frequency;
+            z *= frequency;
+
+            for (int curOctave = 0; curOctave < seeds.length; curOctave++) {
+                value += NoiseGen.simplexNoise3D(x, y, z, seeds[curOctave]) * amplitudes[curOctave];
+
+                // Prepare the next octave.
+                x *= lacunarity;
+                y *= lacunarity;
+                z *= lacunarity;
+            }
+
+            return value;
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            double amplitude = 0.0;
+            for (double curAmplitude : amplitudes) {
+                amplitude += Math.abs(curAmplitude);
+            }
+            return Range.symmetric(amplitude * NoiseGen.SIMPLEX_NOISE_BOUND);
+        }
+    }
+
+    private static final class ScaleBiasNode extends Node {
+
+        private final Node source;
+        private final double scale;
+        private final double bias;
+
+        ScaleBiasNode(Node source, double scale, double bias) {
+            this.source = source;
+            this.scale = scale;
+            this.bias = bias;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return source.getValue(x, y, z) * scale + bias;
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            source.getValues(xs, ys, zs, out, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = out[i] * scale + bias;
+            }
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            return source.getValue2D(x, z) * scale + bias;
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            source.getValues2D(xs, z, out, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = out[i] * scale + bias;
+            }
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return source.getValueRange(x0, y0, z0, x1, y1, z1).scaleBias(scale, bias);
+        }
+    }
+
+    private static final class AddNode extends Node {
+
+        private final Node source0;
+        private final Node source1;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        AddNode(Node source0, Node source1) {
+            this.source0 = source0;
+            this.source1 = source1;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return source0.getValue(x, y, z) + source1.getValue(x, y, z);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            double[] values = scratch.get().getDoubles(0, offset + count);
+            source0.getValues(xs, ys, zs, out, offset, count);
+            source1.getValues(xs, ys, zs, values, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] += values[i];
+            }
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            return source0.getValue2D(x, z) + source1.getValue2D(x, z);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            double[] values = scratch.get().getDoubles(0, offset + count);
+            source0.getValues2D(xs, z, out, offset, count);
+            source1.getValues2D(xs, z, values, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] += values[i];
+            }
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return source0.getValueRange(x0, y0, z0, x1, y1, z1).add(source1.getValueRange(x0, y0, z0, x1, y1, z1));
+        }
+    }
+
+    private static final class SelectNode extends Node {
+
+        private final Node source0;
+        private final Node source1;
+        private final Node control;
+        private final double lowerBound;
+        private final double upperBound;
+        private final double edgeFalloff;
+
+        SelectNode(Node source0, Node source1, Node control, double lowerBound, double upperBound,
+                   double edgeFalloff) {
+            this.source0 = source0;
+            this.source1 = source1;
+            this.control = control;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+            this.edgeFalloff = edgeFalloff;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            double controlValue = control.getValue(x, y, z);
+            switch (Select.selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+                case Select.SELECT_SOURCE_0:
+                    return source0.getValue(x, y, z);
+                case Select.SELECT_SOURCE_1:
+                    return source1.getValue(x, y, z);
+                case Select.SELECT_LOWER_EDGE:
+                    return Interp.linearInterp(source0.getValue(x, y, z), source1.getValue(x, y, z),
+                            Select.edgeAlpha(controlValue, lowerBound, edgeFalloff));
+                default:
+                    return Interp.linearInterp(source1.getValue(x, y, z), source0.getValue(x, y, z),
+                            Select.edgeAlpha(controlValue, upperBound, edgeFalloff));
+            }
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            double controlValue = control.getValue2D(x, z);
+            switch (Select.selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+                case Select.SELECT_SOURCE_0:
+                    return source0.getValue2D(x, z);
+                case Select.SELECT_SOURCE_1:
+                    return source1.getValue2D(x, z);
+                case Select.SELECT_LOWER_EDGE:
+                    return Interp.linearInterp(source0.getValue2D(x, z), source1.getValue2D(x, z),
+                            Select.edgeAlpha(controlValue, lowerBound, edgeFalloff));
+                default:
+                    return Interp.linearInterp(source1.getValue2D(x, z), source0.getValue2D(x, z),
+                            Select.edgeAlpha(controlValue, upperBound, edgeFalloff));
+            }
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            Range controlRange = control.getValueRange(x0, y0, z0, x1, y1, z1);
+            switch (Select.selectedSource(controlRange, lowerBound, upperBound, edgeFalloff)) {
+                case Select.SELECT_SOURCE_0:
+                    return source0.getValueRange(x0, y0, z0, x1, y1, z1);
+                case Select.SELECT_SOURCE_1:
+                    return source1.getValueRange(x0, y0, z0, x1, y1, z1);
+                default:
+                    return Select.selectRange(source0.getValueRange(x0, y0, z0, x1, y1, z1),
+                            source1.getValueRange(x0, y0, z0, x1, y1, z1), edgeFalloff);
+            }
+        }
+    }
+
+    private static final class BlendNode extends Node {
+
+        private final Node source0;
+        private final Node source1;
+        private final Node control;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        BlendNode(Node source0, Node source1, Node control) {
+            this.source0 = source0;
+            this.source1 = source1;
+            this.control = control;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            double v0 = source0.getValue(x, y, z);
+            double v1 = source1.getValue(x, y, z);
+            double alpha = (control.getValue(x, y, z) + 1.0) / 2.0;
+            return Interp.linearInterp(v0, v1, alpha);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            BlockScratch scratch = this.scratch.get();
+            double[] values1 = scratch.getDoubles(0, offset + count);
+            double[] alphas = scratch.getDoubles(1, offset + count);
+            source0.getValues(xs, ys, zs, out, offset, count);
+            source1.getValues(xs, ys, zs, values1, offset, count);
+            control.getValues(xs, ys, zs, alphas, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = Interp.linearInterp(out[i], values1[i], (alphas[i] + 1.0) / 2.0);
+            }
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            double v0 = source0.getValue2D(x, z);
+            double v1 = source1.getValue2D(x, z);
+            double alpha = (control.getValue2D(x, z) + 1.0) / 2.0;
+            return Interp.linearInterp(v0, v1, alpha);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            BlockScratch scratch = this.scratch.get();
+            double[] values1 = scratch.getDoubles(0, offset + count);
+            double[] alphas = scratch.getDoubles(1, offset + count);
+            source0.getValues2D(xs, z, out, offset, count);
+            source1.getValues2D(xs, z, values1, offset, count);
+            control.getValues2D(xs, z, alphas, offset, count);
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = Interp.linearInterp(out[i], values1[i], (alphas[i] + 1.0) / 2.0);
+            }
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            Range weights = Blend.weightRange(control.getValueRange(x0, y0, z0, x1, y1, z1));
+            if (weights.getMin() == 0.0 && weights.getMax() == 0.0) {
+                return source0.getValueRange(x0, y0, z0, x1, y1, z1);
+            } else if (weights.getMin() == 1.0 && weights.getMax() == 1.0) {
+                return source1.getValueRange(x0, y0, z0, x1, y1, z1);
+            }
+            return source0.getValueRange(x0, y0, z0, x1, y1, z1).interpolate(
+                    source1.getValueRange(x0, y0, z0, x1, y1, z1), weights.getMin(), weights.getMax());
+        }
+    }
+
+    private static final class CacheNode extends Node {
+
+        private final Node source;
+        // The cached output value and input value of each thread.
+        private final ThreadLocal<double[]> entries = new ThreadLocal<double[]>();
+
+        CacheNode(Node source) {
+            this.source = source;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            // The entry holds the x, y and z coordinates and the output value.
+            double[] entry = entries.get();
+            if (entry == null) {
+                entry = new double[4];
+                entries.set(entry);
+            } else if (x == entry[0] && y == entry[1] && z == entry[2]) {
+                return entry[3];
+            }
+            entry[3] = source.getValue(x, y, z);
+            entry[0] = x;
+            entry[1] = y;
+            entry[2] = z;
+            return entry[3];
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            source.getValues(xs, ys, zs, out, offset, count);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            double[] entry = entries.get();
+            if (entry == null) {
+                entry = new double[4];
+                entries.set(entry);
+            } else if (x == entry[0] && 0.0 == entry[1] && z == entry[2]) {
+                return entry[3];
+            }
+            entry[3] = source.getValue2D(x, z);
+            entry[0] = x;
+            entry[1] = 0.0;
+            entry[2] = z;
+            return entry[3];
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            source.getValues2D(xs, z, out, offset, count);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return source.getValueRange(x0, y0, z0, x1, y1, z1);
+        }
+    }
+
+    private static final class ConstNode extends Node {
+
+        private final double constValue;
+
+        ConstNode(double constValue) {
+            this.constValue = constValue;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return constValue;
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            Arrays.fill(out, offset, offset + count, constValue);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            return constValue;
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            Arrays.fill(out, offset, offset + count, constValue);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return new Range(constValue, constValue);
+        }
+    }
+
+    private static final class TranslateNode extends Node {
+
+        private final Node source;
+        private final double xTranslation;
+        private final double yTranslation;
+        private final double zTranslation;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        TranslateNode(Node source, double xTranslation, double yTranslation, double zTranslation) {
+            this.source = source;
+            this.xTranslation = xTranslation;
+            this.yTranslation = yTranslation;
+            this.zTranslation = zTranslation;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return source.getValue(x + xTranslation, y + yTranslation, z + zTranslation);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            BlockScratch scratch = this.scratch.get();
+            double[] nxs = scratch.getDoubles(0, offset + count);
+            double[] nys = scratch.getDoubles(1, offset + count);
+            double[] nzs = scratch.getDoubles(2, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                nxs[i] = xs[i] + xTranslation;
+                nys[i] = ys[i] + yTranslation;
+                nzs[i] = zs[i] + zTranslation;
+            }
+            source.getValues(nxs, nys, nzs, out, offset, count);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            if (yTranslation != 0.0) {
+                return getValue(x, 0.0, z);
+            }
+            return source.getValue2D(x + xTranslation, z + zTranslation);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            if (yTranslation != 0.0) {
+                super.getValues2D(xs, z, out, offset, count);
+                return;
+            }
+            double[] nxs = scratch.get().getDoubles(0, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                nxs[i] = xs[i] + xTranslation;
+            }
+            source.getValues2D(nxs, z + zTranslation, out, offset, count);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return source.getValueRange(x0 + xTranslation, y0 + yTranslation, z0 + zTranslation,
+                    x1 + xTranslation, y1 + yTranslation, z1 + zTranslation);
+        }
+    }
+
+    private static final class ScaleNode extends Node {
+
+        private final Node source;
+        private final double xScale;
+        private final double yScale;
+        private final double zScale;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        ScaleNode(Node source, double xScale, double yScale, double zScale) {
+            this.source = source;
+            this.xScale = xScale;
+            this.yScale = yScale;
+            this.zScale = zScale;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return source.getValue(x * xScale, y * yScale, z * zScale);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            BlockScratch scratch = this.scratch.get();
+            double[] nxs = scratch.getDoubles(0, offset + count);
+            double[] nys = scratch.getDoubles(1, offset + count);
+            double[] nzs = scratch.getDoubles(2, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                nxs[i] = xs[i] * xScale;
+                nys[i] = ys[i] * yScale;
+                nzs[i] = zs[i] * zScale;
+            }
+            source.getValues(nxs, nys, nzs, out, offset, count);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            // See ScalePoint.IsPlanar().
+            if (0.0 * yScale != 0.0) {
+                return getValue(x, 0.0, z);
+            }
+            return source.getValue2D(x * xScale, z * zScale);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            if (0.0 * yScale != 0.0) {
+                super.getValues2D(xs, z, out, offset, count);
+                return;
+            }
+            double[] nxs = scratch.get().getDoubles(0, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                nxs[i] = xs[i] * xScale;
+            }
+            source.getValues2D(nxs, z * zScale, out, offset, count);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            double xa = x0 * xScale, xb = x1 * xScale;
+            double ya = y0 * yScale, yb = y1 * yScale;
+            double za = z0 * zScale, zb = z1 * zScale;
+            return source.getValueRange(Math.min(xa, xb), Math.min(ya, yb), Math.min(za, zb),
+                    Math.max(xa, xb), Math.max(ya, yb), Math.max(za, zb));
+        }
+    }
+
+    /**
+     * Moves the input value by an affine transformation, laid out as in
+     * TransformPoint.SetMatrix().  RotatePoint noise modules use it too.
+     */
+    private static final class TransformNode extends Node {
+
+        private final Node source;
+        private final double m0, m1, m2, m3;
+        private final double m4, m5, m6, m7;
+        private final double m8, m9, m10, m11;
+        // Scratch arrays of each thread used by the block methods.
+        private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+        TransformNode(Node source, double[] m) {
+            this.source = source;
+            m0 = m[0];
+            m1 = m[1];
+            m2 = m[2];
+            m3 = m[3];
+            m4 = m[4];
+            m5 = m[5];
+            m6 = m[6];
+            m7 = m[7];
+            m8 = m[8];
+            m9 = m[9];
+            m10 = m[10];
+            m11 = m[11];
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return source.getValue(
+                    m0 * x + m1 * y + m2 * z + m3,
+                    m4 * x + m5 * y + m6 * z + m7,
+                    m8 * x + m9 * y + m10 * z + m11);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            BlockScratch scratch = this.scratch.get();
+            double[] nxs = scratch.getDoubles(0, offset + count);
+            double[] nys = scratch.getDoubles(1, offset + count);
+            double[] nzs = scratch.getDoubles(2, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                double x = xs[i], y = ys[i], z = zs[i];
+                nxs[i] = m0 * x + m1 * y + m2 * z + m3;
+                nys[i] = m4 * x + m5 * y + m6 * z + m7;
+                nzs[i] = m8 * x + m9 * y + m10 * z + m11;
+            }
+            source.getValues(nxs, nys, nzs, out, offset, count);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            if (!isPlanar()) {
+                return getValue(x, 0.0, z);
+            }
+            return source.getValue2D(m0 * x + m2 * z + m3, m8 * x + m10 * z + m11);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            if (!isPlanar() || m8 != 0.0) {
+                super.getValues2D(xs, z, out, offset, count);
+                return;
+            }
+            double[] nxs = scratch.get().getDoubles(0, offset + count);
+            for (int i = offset; i < offset + count; i++) {
+                nxs[i] = m0 * xs[i] + m2 * z + m3;
+            }
+            source.getValues2D(nxs, m10 * z + m11, out, offset, count);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            double[] box = TransformPoint.transformBox(new double[]{m0, m1, m2, m3, m4, m5, m6, m7, m8, m9, m10, m11},
+                    x0, y0, z0, x1, y1, z1);
+            return source.getValueRange(box[0], box[1], box[2], box[3], box[4], box[5]);
+        }
+
+        /**
+         * Determines if the transformation maps the plane @a y = 0 onto
+         * itself.
+         */
+        private boolean isPlanar() {
+            return m4 == 0.0 && m6 == 0.0 && m7 == 0.0;
+        }
+    }
+
+    /**
+     * Falls back to the noise module itself.
+     */
+    private static final class ModuleNode extends Node {
+
+        private final Module module;
+
+        ModuleNode(Module module) {
+            this.module = module;
+        }
+
+        @Override
+        double getValue(double x, double y, double z) {
+            return module.getValue(x, y, z);
+        }
+
+        @Override
+        void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            module.getValues(xs, ys, zs, out, offset, count);
+        }
+
+        @Override
+        double getValue2D(double x, double z) {
+            return module.getValue2D(x, z);
+        }
+
+        @Override
+        void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            module.getValues2D(xs, z, out, offset, count);
+        }
+
+        @Override
+        Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+            return module.getValueRange(x0, y0, z0, x1, y1, z1);
+        }
+    }
+}
@@ -23,10 +23,14 @@
  */
 package jLibNoise.noise.module;
 
+import jLibNoise.noise.BlockScratch;
 import jLibNoise.noise.ExceptionInvalidParam;
 import jLibNoise.noise.ExceptionNoModule;
+import jLibNoise.noise.Range;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
+import java.util.Arrays;
+
 /**
  * Abstract base class for noise modules.
  *
@@ -36,6 +40,11 @@ public abstract class Module {
 
     // An array containing the pointers to each source module required by this noise module.
     protected Module[] sourceModule;
+    // 2^27 + 1, splits a double into two halves for exact multiplication.
+    private static final double SPLITTER = 134217729.0;
+
+    // Coordinate arrays of each thread used by the default GetValues2D().
+    private final ThreadLocal<BlockScratch> planeScratch = BlockScratch.threadLocal();
 
     public Module(int sourceModuleCount) {
         // Create an array of pointers to all source modules required by this
@@ -45,6 +54,28 @@ public abstract class Module {
         }
     }
 
+    /**
+     * Returns an immutable snapshot of the noise module graph below this
+     * noise module.
+     * <p/>
+     * The snapshot generates the same output values as this noise module
+     * does now, but later calls to the setters of the noise modules in the
+     * graph do not affect it.  Its parameters are final and the per-octave
+     * constants are calculated once, so any number of threads can evaluate
+     * it at the same time, and it is safely published through its final
+     * fields.  See FusedModule for the noise modules that can be copied
+     * into the snapshot.
+     *
+     * @return The immutable snapshot.
+     * @throws ExceptionInvalidParam A noise module in the graph cannot be
+     *                               copied into the snapshot.
+     * @throws ExceptionNoModule     A noise module in the graph is missing a
+     *                               source module.
+     */
+    public Module freeze() {
+        return FusedModule.snapshot(this);
+    }
+
     /**
      * Returns a reference to a source module connected to this noise module.
      * <p/>
@@ -104,6 +135,364 @@ public abstract class Module {
      */
     public abstract double getValue(double x, double y, double z);
 
+    /**
+     * Generates an output value given the ( @a x, @a z ) coordinates of an
+     * input value located on the plane @a y = 0.
+     * <p/>
+     * This returns the same value as GetValue( @a x, 0.0, @a z ).  The
+     * default implementation simply calls GetValue(); noise modules with a
+     * dedicated two-dimensional kernel override this method so that planar
+     * noise maps skip the three-dimensional lattice work.
+     *
+     * @param x The @a x coordinate of the input value.
+     * @param z The @a z coordinate of the input value.
+     * @return The output value.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public double getValue2D(double x, double z) {
+        return getValue(x, 0.0, z);
+    }
+
+    /**
+     * Generates output values for a block of input values.
+     * <p/>
+     * This returns the same values as calling GetValue() once for each
+     * input value, which is what the default implementation does.  Noise
+     * modules override this method when they can evaluate a block faster
+     * than one value at a time, for example by hoisting their parameters
+     * out of the loop or by evaluating their source modules block by
+     * block.
+     * <p/>
+     * The input values are read from, and the output values written to,
+     * the elements @a offset to @a offset + @a count - 1 of each array.
+     * The noise map builders call this method with blocks of a few hundred
+     * input values.
+     *
+     * @param xs     The @a x coordinates of the input values.
+     * @param ys     The @a y coordinates of the input values.
+     * @param zs     The @a z coordinates of the input values.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            out[i] = getValue(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * Returns a value that identifies the parameters of this noise module,
+     * not including its source modules.
+     * <p/>
+     * Two noise modules of the same class with equal structural keys and
+     * the same source modules generate the same output values, so
+     * ModuleOptimizer merges them into one.  Subclasses that add
+     * parameters must override this method.  The default implementation
+     * returns null, so the noise module is never merged.
+     *
+     * @return The structural key, or null.
+     */
+    protected Object getStructuralKey() {
+        return null;
+    }
+
+    /**
+     * Returns a conservative range of the output values of this noise
+     * module.
+     * <p/>
+     * Every value returned by GetValue() lies within this range, which is
+     * computed from the parameters of this noise module and the ranges of
+     * its source modules, without generating any values.  Renderers may
+     * use it to size lookup tables, and combining noise modules to skip a
+     * source module whose contribution is known in advance.  The default
+     * implementation returns Range.UNBOUNDED.
+     *
+     * @return The range of the output values.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public Range getOutputRange() {
+        return Range.UNBOUNDED;
+    }
+
+    /**
+     * Returns bounds on the output values of this noise module for every
+     * input value inside an axis-aligned box.
+     * <p/>
+     * Every value returned by GetValue() for an input value inside the
+     * box lies within this range, so a caller may skip a whole region
+     * whose range lies entirely on one side of a threshold.  The bounds
+     * are conservative, and tighten as the box shrinks.  The default
+     * implementation ignores the box and returns GetOutputRange().
+     *
+     * @param x0 The lower @a x coordinate of the box.
+     * @param y0 The lower @a y coordinate of the box.
+     * @param z0 The lower @a z coordinate of the box.
+     * @param x1 The upper @a x coordinate of the box.
+     * @param y1 The upper @a y coordinate of the box.
+     * @param z1 The upper @a z coordinate of the box.
+     * @return The range of the output values inside the box.
+     * @throws ExceptionInvalidParam See the preconditions.
+     * @pre Each lower coordinate is less than or equal to the matching
+     * upper coordinate.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        return getOutputRange();
+    }
+
+    /**
+     * Checks that the lower coordinates of a box do not exceed its upper
+     * coordinates.
+     *
+     * @throws ExceptionInvalidParam The box is empty or has a NaN coordinate.
+     */
+    protected static void checkBox(double x0, double y0, double z0, double x1, double y1, double z1) {
+        if (!(x0 <= x1 && y0 <= y1 && z0 <= z1)) {
+            throw new ExceptionInvalidParam("Box lower coordinates must not exceed its upper coordinates");
+        }
+    }
+
+    /**
+     * Determines if this noise module only combines the output values of
+     * its source modules, evaluated at the same input value.
+     * <p/>
+     * ModuleProgram evaluates the source modules of such a noise module
+     * itself, block by block, and then calls CombineSourceValues().  Noise
+     * modules that neither combine source values nor transform input values
+     * (see TransformsInputValues()) are evaluated with GetValues().  The
+     * default implementation returns false.
+     *
+     * @return true if this noise module implements CombineSourceValues().
+     */
+    protected boolean combinesSourceValues() {
+        return false;
+    }
+
+    /**
+     * Combines a block of output values from each source module into a
+     * block of output values of this noise module.
+     * <p/>
+     * @a sourceValues[i] holds the output values of the source module with
+     * the index value @a i, for the same input values.
+     *
+     * @param sourceValues The output values from the source modules.
+     * @param out          The array that receives the output values.
+     * @param count        The number of values in the block.
+     * @pre CombinesSourceValues() returns true.
+     */
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Determines if this noise module only evaluates its source module at
+     * a transformed input value.
+     * <p/>
+     * ModuleProgram transforms the input values of a block itself by
+     * calling TransformInputValues(), and then evaluates the source module
+     * at the transformed input values.  The default implementation returns
+     * false.
+     *
+     * @return true if this noise module implements TransformInputValues().
+     */
+    protected boolean transformsInputValues() {
+        return false;
+    }
+
+    /**
+     * Transforms a block of input values into the input values at which
+     * this noise module evaluates its source module.
+     *
+     * @param xs    The @a x coordinates of the input values.
+     * @param ys    The @a y coordinates of the input values.
+     * @param zs    The @a z coordinates of the input values.
+     * @param nxs   The array that receives the transformed @a x coordinates.
+     * @param nys   The array that receives the transformed @a y coordinates.
+     * @param nzs   The array that receives the transformed @a z coordinates.
+     * @param count The number of input values in the block.
+     * @pre TransformsInputValues() returns true.
+     */
+    protected void transformInputValues(double[] xs, double[] ys, double[] zs,
+                                        double[] nxs, double[] nys, double[] nzs, int count) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Generates output values for a row of input values located on the
+     * plane @a y = 0 that share the same @a z coordinate.
+     * <p/>
+     * This returns the same values as calling GetValue2D() once for each
+     * input value.  The default implementation passes the row to
+     * GetValues(), so noise modules that override GetValue2D() should
+     * override this method too.  Noise modules also override this method
+     * when they can share work between the input values of a row.
+     *
+     * @param xs     The @a x coordinates of the input values.
+     * @param z      The @a z coordinate shared by all input values.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        BlockScratch scratch = planeScratch.get();
+        double[] ys = scratch.getDoubles(0, offset + count);
+        double[] zs = scratch.getDoubles(1, offset + count);
+        Arrays.fill(ys, offset, offset + count, 0.0);
+        Arrays.fill(zs, offset, offset + count, z);
+        getValues(xs, ys, zs, out, offset, count);
+    }
+
+    /**
+     * Generates an output value given the coordinates of an input value
+     * relative to an integer origin.
+     * <p/>
+     * The input value is ( @a originX + @a x, @a originY + @a y,
+     * @a originZ + @a z ).  Noise modules that can keep the origin exact
+     * override this method so that their precision does not degrade far
+     * from ( 0, 0, 0 ); the default implementation adds the origin to the
+     * coordinates and calls GetValue().
+     *
+     * @param originX The @a x coordinate of the origin.
+     * @param originY The @a y coordinate of the origin.
+     * @param originZ The @a z coordinate of the origin.
+     * @param x       The @a x coordinate of the input value, relative to the origin.
+     * @param y       The @a y coordinate of the input value, relative to the origin.
+     * @param z       The @a z coordinate of the input value, relative to the origin.
+     * @return The output value.
+     */
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        return getValue((double) originX + x, (double) originY + y, (double) originZ + z);
+    }
+
+    /**
+     * Single-precision variant of GetRebasedValue().
+     * <p/>
+     * The default implementation narrows the result of GetRebasedValue().
+     *
+     * @param originX The @a x coordinate of the origin.
+     * @param originY The @a y coordinate of the origin.
+     * @param originZ The @a z coordinate of the origin.
+     * @param x       The @a x coordinate of the input value, relative to the origin.
+     * @param y       The @a y coordinate of the input value, relative to the origin.
+     * @param z       The @a z coordinate of the input value, relative to the origin.
+     * @return The output value.
+     */
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        return (float) getRebasedValue(originX, originY, originZ, x, y, z);
+    }
+
+    /**
+     * Returns the integer part of an origin multiplied by a factor.
+     * <p/>
+     * Noise modules that scale or transform their input values use this
+     * method, together with OriginFraction(), to pass a rebased input
+     * value to their source modules: the origin multiplied by the factor is
+     * OriginCell() + OriginFraction().  The whole part of the factor is
+     * applied with integer arithmetic, so the result is exact modulo 2^64.
+     *
+     * @param origin The origin.
+     * @param factor The factor.
+     * @return The integer part of the origin multiplied by the factor.
+     */
+    protected static long originCell(long origin, double factor) {
+        long whole = (long) factor;
+        return origin * whole + (long) Math.floor(origin * (factor - whole));
+    }
+
+    /**
+     * Returns the fraction, from 0.0 to 1.0, that completes OriginCell()
+     * to an origin multiplied by a factor.
+     * <p/>
+     * The rounding error of the multiplication is recovered (see
+     * T. J. Dekker, "A floating-point technique for extending the available
+     * precision", 1971), so the fraction stays accurate to about 1e-16
+     * however far the origin is from 0, provided it is less than 2^53 in
+     * magnitude.
+     *
+     * @param origin The origin.
+     * @param factor The factor.
+     * @return The fraction.
+     */
+    protected static double originFraction(long origin, double factor) {
+        double a = origin;
+        double b = factor - (long) factor;
+        double product = a * b;
+
+        // Split both operands into halves whose products are exact.
+        double t = SPLITTER * a;
+        double aHigh = t - (t - a);
+        double aLow = a - aHigh;
+        t = SPLITTER * b;
+        double bHigh = t - (t - b);
+        double bLow = b - bHigh;
+        double error = ((aHigh * bHigh - product) + aHigh * bLow + aLow * bHigh) + aLow * bLow;
+
+        return (product - Math.floor(product)) + error;
+    }
+
+    /**
+     * Determines if this noise module can generate output values on the
+     * plane @a y = 0 that repeat with the specified periods.
+     * <p/>
+     * The default implementation returns false.
+     *
+     * @param xPeriod The period along the @a x axis.
+     * @param zPeriod The period along the @a z axis.
+     * @return true if GetTiledValue2D() accepts these periods.
+     */
+    public boolean canTile(double xPeriod, double zPeriod) {
+        return false;
+    }
+
+    /**
+     * Generates an output value on the plane @a y = 0 that repeats every
+     * @a xPeriod units along the @a x axis and every @a zPeriod units
+     * along the @a z axis.
+     * <p/>
+     * A noise map built from these values with an extent equal to the
+     * periods tiles seamlessly, with a single evaluation per point.
+     *
+     * @param x       The @a x coordinate of the input value.
+     * @param z       The @a z coordinate of the input value.
+     * @param xPeriod The period along the @a x axis.
+     * @param zPeriod The period along the @a z axis.
+     * @return The output value.
+     * @throws ExceptionInvalidParam See the preconditions.
+     * @pre CanTile( @a xPeriod, @a zPeriod ) returns true.
+     */
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        throw new ExceptionInvalidParam("Module cannot tile with these periods");
+    }
+
+    /**
+     * Generates a single-precision output value given the coordinates of
+     * the specified input value.
+     * <p/>
+     * The default implementation narrows the result of GetValue().  Noise
+     * modules that have a native single-precision kernel override this
+     * method to avoid the double-precision work.
+     *
+     * @param x The @a x coordinate of the input value.
+     * @param y The @a y coordinate of the input value.
+     * @param z The @a z coordinate of the input value.
+     * @return The output value.
+     * @pre All source modules required by this noise module have been
+     * passed to the SetSourceModule() method.
+     */
+    public float getValueF(float x, float y, float z) {
+        return (float) getValue(x, y, z);
+    }
+
     /**
      * Connects a source module to this noise module.
      *
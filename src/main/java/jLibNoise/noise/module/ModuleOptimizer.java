@@ -0,0 +1,374 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.Range;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Simplifies noise module graphs.
+ * <p/>
+ * Optimize() returns a new graph that generates the same output values
+ * as the original one, up to floating-point rounding, with fewer noise
+ * modules on the path of every input value:
+ * - noise modules that only combine constant values (see
+ * Module.combinesSourceValues()) are folded into a Const noise module,
+ * - point transformations of a constant value are removed,
+ * - Add noise modules with a constant source module become ScaleBias
+ * noise modules,
+ * - consecutive ScaleBias noise modules are merged into one, and removed
+ * if they have no effect,
+ * - Select and Blend noise modules whose control module provably always
+ * picks the same source module (see Module.getOutputRange()) are replaced
+ * by that source module,
+ * - chains of TranslatePoint, ScalePoint, RotatePoint and TransformPoint
+ * noise modules are merged into one TransformPoint noise module, and
+ * removed if they have no effect,
+ * - structurally equal subgraphs, such as Perlin noise modules with the
+ * same parameters, are merged into one shared subgraph (see
+ * Module.getStructuralKey()), which ModuleProgram then evaluates once
+ * per block.
+ * <p/>
+ * The original graph is not modified.  Noise modules that are not
+ * simplified are shared with the original graph; a noise module of
+ * another class keeps its original source modules, as it cannot be
+ * copied.  A noise module shared by several noise modules remains shared
+ * in the optimized graph.
+ */
+public final class ModuleOptimizer {
+
+    // Optimized noise module of each noise module already visited.
+    private final Map<Module, Module> optimized = new IdentityHashMap<Module, Module>();
+    // Canonical noise module of each structure already created.
+    private final Map<Structure, Module> canonical = new HashMap<Structure, Module>();
+
+    private ModuleOptimizer() {
+    }
+
+    /**
+     * Simplifies the noise module graph below a noise module.
+     *
+     * @param module The noise module at the root of the graph.
+     * @return The noise module at the root of the optimized graph.
+     * @throws jLibNoise.noise.ExceptionNoModule A noise module in the graph
+     *                                           is missing a source module.
+     */
+    public static Module optimize(Module module) {
+        return new ModuleOptimizer().visit(module);
+    }
+
+    private Module visit(Module module) {
+        Module result = optimized.get(module);
+        if (result == null) {
+            result = merge(rewrite(module));
+            optimized.put(module, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first noise module seen with the same structure as a
+     * noise module of the optimized graph.
+     */
+    private Module merge(Module module) {
+        Object key = module.getStructuralKey();
+        if (key == null) {
+            return module;
+        }
+        Module[] sources = new Module[module.getSourceModuleCount()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = module.getSourceModule(i);
+        }
+        Structure structure = new Structure(module.getClass(), key, sources);
+        Module existing = canonical.get(structure);
+        if (existing != null) {
+            return existing;
+        }
+        canonical.put(structure, module);
+        return module;
+    }
+
+    private Module rewrite(Module module) {
+        if (module.getSourceModuleCount() == 0) {
+            return module;
+        }
+
+        Class<?> type = module.getClass();
+        if (type == ScaleBias.class) {
+            ScaleBias scaleBias = (ScaleBias) module;
+            return scaleBias(visit(module.getSourceModule(0)), scaleBias.getScale(), scaleBias.getBias());
+        } else if (type == Add.class) {
+            return add(visit(module.getSourceModule(0)), visit(module.getSourceModule(1)));
+        } else if (type == Select.class) {
+            return select((Select) module);
+        } else if (type == Blend.class) {
+            return blend((Blend) module);
+        } else if (type == Cache.class) {
+            Module source = visit(module.getSourceModule(0));
+            if (isConst(source)) {
+                return source;
+            } else if (source == module.getSourceModule(0)) {
+                return module;
+            }
+            Cache cache = new Cache();
+            cache.setSourceModule(0, source);
+            return merge(cache);
+        }
+
+        double[] matrix = transformMatrix(module);
+        if (matrix != null) {
+            return transform(matrix, visit(module.getSourceModule(0)));
+        }
+
+        // Any other noise module that only combines constant values.
+        if (module.combinesSourceValues()) {
+            double[][] sourceValues = new double[module.getSourceModuleCount()][];
+            for (int i = 0; i < sourceValues.length; i++) {
+                Module source = visit(module.getSourceModule(i));
+                if (!isConst(source)) {
+                    return module;
+                }
+                sourceValues[i] = new double[]{((Const) source).getConstValue()};
+            }
+            double[] value = new double[1];
+            module.combineSourceValues(sourceValues, value, 1);
+            return constant(value[0]);
+        }
+        return module;
+    }
+
+    private Module scaleBias(Module source, double scale, double bias) {
+        if (isConst(source)) {
+            return constant(((Const) source).getConstValue() * scale + bias);
+        }
+        if (scale == 1.0 && bias == 0.0) {
+            return source;
+        }
+        if (source.getClass() == ScaleBias.class) {
+            // ((v * s1) + b1) * s2 + b2 = v * (s1 * s2) + (b1 * s2 + b2)
+            ScaleBias inner = (ScaleBias) source;
+            return scaleBias(inner.getSourceModule(0), inner.getScale() * scale, inner.getBias() * scale + bias);
+        }
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, source);
+        scaleBias.setScale(scale);
+        scaleBias.setBias(bias);
+        return merge(scaleBias);
+    }
+
+    private Module add(Module source0, Module source1) {
+        if (isConst(source0) && isConst(source1)) {
+            return constant(((Const) source0).getConstValue() + ((Const) source1).getConstValue());
+        } else if (isConst(source0)) {
+            return scaleBias(source1, 1.0, ((Const) source0).getConstValue());
+        } else if (isConst(source1)) {
+            return scaleBias(source0, 1.0, ((Const) source1).getConstValue());
+        }
+        Add add = new Add();
+        add.setSourceModule(0, source0);
+        add.setSourceModule(1, source1);
+        return merge(add);
+    }
+
+    private Module select(Select select) {
+        Module control = visit(select.getSourceModule(2));
+        switch (Select.selectedSource(control.getOutputRange(), select.getLowerBound(), select.getUpperBound(),
+                select.getEdgeFalloff())) {
+            case Select.SELECT_SOURCE_0:
+                return visit(select.getSourceModule(0));
+            case Select.SELECT_SOURCE_1:
+                return visit(select.getSourceModule(1));
+        }
+        Module source0 = visit(select.getSourceModule(0));
+        Module source1 = visit(select.getSourceModule(1));
+        if (source0 == select.getSourceModule(0) && source1 == select.getSourceModule(1)
+                && control == select.getSourceModule(2)) {
+            return select;
+        }
+        Select result = new Select();
+        result.setBounds(select.getLowerBound(), select.getUpperBound());
+        result.setEdgeFalloff(select.getEdgeFalloff());
+        result.setSourceModule(0, source0);
+        result.setSourceModule(1, source1);
+        result.setControlModule(control);
+        return merge(result);
+    }
+
+    private Module blend(Blend blend) {
+        Module control = visit(blend.getSourceModule(2));
+        Range weights = Blend.weightRange(control.getOutputRange());
+        if (weights.getMin() == 0.0 && weights.getMax() == 0.0) {
+            return visit(blend.getSourceModule(0));
+        } else if (weights.getMin() == 1.0 && weights.getMax() == 1.0) {
+            return visit(blend.getSourceModule(1));
+        }
+        Module source0 = visit(blend.getSourceModule(0));
+        Module source1 = visit(blend.getSourceModule(1));
+        if (source0 == blend.getSourceModule(0) && source1 == blend.getSourceModule(1)
+                && control == blend.getSourceModule(2)) {
+            return blend;
+        }
+        Blend result = new Blend();
+        result.setSourceModule(0, source0);
+        result.setSourceModule(1, source1);
+        result.setControlModule(control);
+        return merge(result);
+    }
+
+    private Module transform(double[] matrix, Module source) {
+        if (isConst(source)) {
+            return source;
+        }
+        double[] inner = transformMatrix(source);
+        if (inner != null) {
+            // The outer transformation is applied first.
+            return transform(compose(inner, matrix), source.getSourceModule(0));
+        }
+        if (isIdentity(matrix)) {
+            return source;
+        }
+        TransformPoint transformPoint = new TransformPoint();
+        transformPoint.setSourceModule(0, source);
+        transformPoint.setMatrix(matrix);
+        return merge(transformPoint);
+    }
+
+    private Module constant(double value) {
+        Const constant = new Const();
+        constant.setConstValue(value);
+        return merge(constant);
+    }
+
+    private static boolean isConst(Module module) {
+        return module.getClass() == Const.class;
+    }
+
+    /**
+     * Returns the 3x4 matrix of a point transformation noise module, or
+     * null if the noise module is not one.
+     */
+    private static double[] transformMatrix(Module module) {
+        Class<?> type = module.getClass();
+        if (type == TransformPoint.class) {
+            return ((TransformPoint) module).getMatrix();
+        } else if (type == TranslatePoint.class) {
+            TranslatePoint t = (TranslatePoint) module;
+            return new double[]{
+                    1.0, 0.0, 0.0, t.getXTranslation(),
+                    0.0, 1.0, 0.0, t.getYTranslation(),
+                    0.0, 0.0, 1.0, t.getZTranslation()
+            };
+        } else if (type == ScalePoint.class) {
+            ScalePoint s = (ScalePoint) module;
+            return new double[]{
+                    s.getXScale(), 0.0, 0.0, 0.0,
+                    0.0, s.getYScale(), 0.0, 0.0,
+                    0.0, 0.0, s.getZScale(), 0.0
+            };
+        } else if (type == RotatePoint.class) {
+            RotatePoint r = (RotatePoint) module;
+            return new double[]{
+                    r.x1Matrix, r.y1Matrix, r.z1Matrix, 0.0,
+                    r.x2Matrix, r.y2Matrix, r.z2Matrix, 0.0,
+                    r.x3Matrix, r.y3Matrix, r.z3Matrix, 0.0
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Returns the matrix that applies @a first, then @a second.
+     */
+    private static double[] compose(double[] second, double[] first) {
+        double[] result = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                double sum = col == 3 ? second[row * 4 + 3] : 0.0;
+                for (int k = 0; k < 3; k++) {
+                    sum += second[row * 4 + k] * first[k * 4 + col];
+                }
+                result[row * 4 + col] = sum;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isIdentity(double[] matrix) {
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                if (matrix[row * 4 + col] != (row == col ? 1.0 : 0.0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The class, parameters and source modules of a noise module.
+     */
+    private static final class Structure {
+
+        private final Class<?> type;
+        private final Object key;
+        // Compared by identity; they are canonical already.
+        private final Module[] sources;
+
+        Structure(Class<?> type, Object key, Module[] sources) {
+            this.type = type;
+            this.key = key;
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Structure)) {
+                return false;
+            }
+            Structure other = (Structure) o;
+            if (type != other.type || !key.equals(other.key) || sources.length != other.sources.length) {
+                return false;
+            }
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i] != other.sources[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type.hashCode() * 31 + key.hashCode();
+            for (Module source : sources) {
+                hash = hash * 31 + System.identityHashCode(source);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.Range;
+import jLibNoise.noise.utils.NoiseMapBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Noise module that evaluates a compiled noise module graph.
+ * <p/>
+ * Compile() flattens the graph below a noise module into a list of
+ * instructions over an array of registers.  Each register holds one
+ * coordinate of a block of NoiseMapBuilder.BLOCK_SIZE input values, or the
+ * output values of one noise module for that block, and each instruction
+ * fills its registers:
+ * - a noise module that combines the output values of its source modules
+ * (see Module.combinesSourceValues()), such as Add or Select, reads the
+ * registers of its source modules,
+ * - a noise module that evaluates its source module at transformed input
+ * values (see Module.transformsInputValues()), such as TranslatePoint,
+ * fills three coordinate registers, and the graph below it is compiled
+ * against those registers,
+ * - any other noise module is evaluated with Module.getValues() at the
+ * input values held by its coordinate registers.
+ * <p/>
+ * GetValues() then runs the instructions once per block of input values
+ * instead of walking the graph once per input value, and a source module
+ * shared by several noise modules is only evaluated once per block at the
+ * same input values.  Registers are reused as soon as their values are no
+ * longer needed, so the scratch data of a block stays small enough to
+ * remain in the processor cache.
+ * <p/>
+ * The program keeps references to the compiled noise modules and reads
+ * their parameters each time it runs, but the graph structure is fixed
+ * when the program is compiled: compile the graph again after connecting
+ * other source modules.
+ * <p/>
+ * A program owns its registers, so it must not be evaluated by several
+ * threads at the same time.
+ */
+public class ModuleProgram extends Module {
+
+    // The instruction evaluates its noise module with GetValues().
+    private static final int EVALUATE = 0;
+    // The instruction calls CombineSourceValues() of its noise module.
+    private static final int COMBINE = 1;
+    // The instruction calls TransformInputValues() of its noise module.
+    private static final int TRANSFORM = 2;
+
+    // Noise module at the root of the compiled graph.
+    private final Module root;
+    // Operation of each instruction.
+    private final int[] opcodes;
+    // Noise module of each instruction.
+    private final Module[] modules;
+    // Registers read by each instruction: the coordinate registers of its
+    // input values, or the output registers of its source modules.
+    private final double[][][] operands;
+    // Registers written by each instruction.
+    private final double[][][] targets;
+    // Register holding the output values of the program.
+    private final double[] result;
+    // Number of registers used by the program, besides the input values.
+    private final int registerCount;
+    // Coordinates of the input values of the current block.
+    private final double[] blockXs;
+    private final double[] blockYs;
+    private final double[] blockZs;
+
+    private ModuleProgram(Module root, int[] opcodes, Module[] modules, double[][][] operands, double[][][] targets,
+                          double[][] registers, int resultValue, int registerCount) {
+        super(0);
+        this.root = root;
+        this.opcodes = opcodes;
+        this.modules = modules;
+        this.operands = operands;
+        this.targets = targets;
+        this.result = registers[resultValue];
+        this.registerCount = registerCount;
+        this.blockXs = registers[0];
+        this.blockYs = registers[1];
+        this.blockZs = registers[2];
+    }
+
+    /**
+     * Compiles the noise module graph below a noise module.
+     *
+     * @param module The noise module at the root of the graph.
+     * @return The compiled program.
+     * @throws jLibNoise.noise.ExceptionNoModule A noise module in the graph
+     *                                           is missing a source module.
+     */
+    public static ModuleProgram compile(Module module) {
+        Compiler compiler = new Compiler();
+        int resultValue = compiler.visit(module, 0);
+        return compiler.link(module, resultValue);
+    }
+
+    /**
+     * Returns the number of instructions in the program.
+     *
+     * @return The number of instructions.
+     */
+    public int getInstructionCount() {
+        return modules.length;
+    }
+
+    /**
+     * Returns the number of registers used by the program.
+     * <p/>
+     * The registers holding the input values of a block are not counted.
+     *
+     * @return The number of registers.
+     */
+    public int getRegisterCount() {
+        return registerCount;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        return root.getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        return root.getValueRange(x0, y0, z0, x1, y1, z1);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 0;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        blockXs[0] = x;
+        blockYs[0] = y;
+        blockZs[0] = z;
+        run(1);
+        return result[0];
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        int end = offset + count;
+        for (int base = offset; base < end; base += NoiseMapBuilder.BLOCK_SIZE) {
+            int n = Math.min(NoiseMapBuilder.BLOCK_SIZE, end - base);
+            System.arraycopy(xs, base, blockXs, 0, n);
+            System.arraycopy(ys, base, blockYs, 0, n);
+            System.arraycopy(zs, base, blockZs, 0, n);
+            run(n);
+            System.arraycopy(result, 0, out, base, n);
+        }
+    }
+
+    /**
+     * Runs every instruction for the current block.
+     */
+    private void run(int count) {
+        for (int i = 0; i < modules.length; i++) {
+            double[][] in = operands[i];
+            switch (opcodes[i]) {
+                case EVALUATE:
+                    modules[i].getValues(in[0], in[1], in[2], targets[i][0], 0, count);
+                    break;
+                case COMBINE:
+                    modules[i].combineSourceValues(in, targets[i][0], count);
+                    break;
+                default:
+                    double[][] out = targets[i];
+                    modules[i].transformInputValues(in[0], in[1], in[2], out[0], out[1], out[2], count);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Flattens a noise module graph into instructions and assigns their
+     * registers.
+     * <p/>
+     * The compiler numbers the values held by the registers: values 0, 1
+     * and 2 are the coordinates of the input values of a block, and each
+     * instruction defines one new value, or three consecutive values if it
+     * transforms input values.
+     */
+    private static final class Compiler {
+
+        // Operation of each instruction, in evaluation order; the values
+        // read by an instruction are always defined by earlier instructions.
+        private final List<Integer> opcodes = new ArrayList<Integer>();
+        // Noise module of each instruction.
+        private final List<Module> modules = new ArrayList<Module>();
+        // Values read by each instruction.
+        private final List<int[]> operands = new ArrayList<int[]>();
+        // First value defined by each instruction.
+        private final List<Integer> targets = new ArrayList<Integer>();
+        // Number of values defined so far.
+        private int valueCount = 3;
+        // Value holding the output values of each noise module already
+        // visited, for each value holding the x coordinates of the input
+        // values at which the noise module was visited.
+        private final Map<Integer, Map<Module, Integer>> visited = new HashMap<Integer, Map<Module, Integer>>();
+
+        /**
+         * Compiles a noise module evaluated at the input values whose
+         * coordinates are the values @a coords, @a coords + 1 and
+         * @a coords + 2, and returns the value holding its output values.
+         */
+        int visit(Module module, int coords) {
+            Map<Module, Integer> memo = visited.get(coords);
+            if (memo == null) {
+                memo = new IdentityHashMap<Module, Integer>();
+                visited.put(coords, memo);
+            }
+            Integer value = memo.get(module);
+            if (value != null) {
+                return value;
+            }
+
+            int result;
+            int[] inputValues = {coords, coords + 1, coords + 2};
+            if (module.transformsInputValues()) {
+                int transformed = emit(TRANSFORM, module, inputValues, 3);
+                result = visit(module.getSourceModule(0), transformed);
+            } else if (module.combinesSourceValues()) {
+                int[] sourceValues = new int[module.getSourceModuleCount()];
+                for (int i = 0; i < sourceValues.length; i++) {
+                    sourceValues[i] = visit(module.getSourceModule(i), coords);
+                }
+                result = emit(COMBINE, module, sourceValues, 1);
+            } else {
+                result = emit(EVALUATE, module, inputValues, 1);
+            }
+
+            memo.put(module, result);
+            return result;
+        }
+
+        /**
+         * Appends an instruction and returns the first value it defines.
+         */
+        private int emit(int opcode, Module module, int[] operandValues, int targetCount) {
+            opcodes.add(opcode);
+            modules.add(module);
+            operands.add(operandValues);
+            targets.add(valueCount);
+            valueCount += targetCount;
+            return valueCount - targetCount;
+        }
+
+        ModuleProgram link(Module root, int resultValue) {
+            int count = modules.size();
+
+            // Find the last instruction that reads each value; the input values
+            // and the result stay in their registers.
+            int[] lastUse = new int[valueCount];
+            for (int i = 0; i < count; i++) {
+                for (int value : operands.get(i)) {
+                    lastUse[value] = i;
+                }
+            }
+            lastUse[0] = lastUse[1] = lastUse[2] = count;
+            lastUse[resultValue] = count;
+
+            // Assign the registers, reusing a register once its last reader ran.
+            double[][] registers = new double[valueCount][];
+            for (int value = 0; value < 3; value++) {
+                registers[value] = new double[NoiseMapBuilder.BLOCK_SIZE];
+            }
+            int registerCount = 0;
+            List<double[]> free = new ArrayList<double[]>();
+            int[] opcodeArray = new int[count];
+            double[][][] operandRegisters = new double[count][][];
+            double[][][] targetRegisters = new double[count][][];
+            for (int i = 0; i < count; i++) {
+                opcodeArray[i] = opcodes.get(i);
+                int firstTarget = targets.get(i);
+                targetRegisters[i] = new double[opcodeArray[i] == TRANSFORM ? 3 : 1][];
+                for (int t = 0; t < targetRegisters[i].length; t++) {
+                    if (free.isEmpty()) {
+                        free.add(new double[NoiseMapBuilder.BLOCK_SIZE]);
+                        registerCount++;
+                    }
+                    targetRegisters[i][t] = free.remove(free.size() - 1);
+                    registers[firstTarget + t] = targetRegisters[i][t];
+                }
+
+                int[] operandValues = operands.get(i);
+                operandRegisters[i] = new double[operandValues.length][];
+                for (int s = 0; s < operandValues.length; s++) {
+                    operandRegisters[i][s] = registers[operandValues[s]];
+                }
+                for (int value : operandValues) {
+                    if (lastUse[value] == i && !free.contains(registers[value])) {
+                        free.add(registers[value]);
+                    }
+                }
+            }
+
+            return new ModuleProgram(root, opcodeArray, modules.toArray(new Module[count]), operandRegisters,
+                    targetRegisters, registers, resultValue, registerCount);
+        }
+    }
+}
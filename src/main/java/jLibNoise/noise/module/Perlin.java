@@ -23,9 +23,18 @@
  */
 package jLibNoise.noise.module;
 
+import jLibNoise.noise.BlockScratch;
 import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.FixedNoiseGen;
+import jLibNoise.noise.GradientTable;
+import jLibNoise.noise.LatticeMode;
+import jLibNoise.noise.MathConst;
 import jLibNoise.noise.NoiseGen;
+import jLibNoise.noise.NoiseKernel;
 import jLibNoise.noise.NoiseQuality;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
 
 /**
  *
@@ -44,6 +53,8 @@ public class Perlin extends Module {
     public static final NoiseQuality DEFAULT_PERLIN_QUALITY = NoiseQuality.QUALITY_STD;
     // Default noise seed
     public static final int DEFAULT_PERLIN_SEED = 0;
+    // Default lattice mode
+    public static final LatticeMode DEFAULT_PERLIN_LATTICE_MODE = LatticeMode.LIBNOISE;
 
     // Maximum number of octaves for the noise::module::Perlin noise module.
     public static final int PERLIN_MAX_OCTAVE = 30;
@@ -53,12 +64,21 @@ public class Perlin extends Module {
     protected double lacunarity;
     // Quality of the Perlin noise.
     protected NoiseQuality noiseQuality;
+    // Coherent-noise kernel for the current noise quality.
+    protected NoiseKernel kernel;
     // Total number of octaves that generate the Perlin noise.
     protected int octaveCount;
     // Persistence of the Perlin noise.
     protected double persistence;
     // Seed value used by the Perlin-noise function.
     protected int seed;
+    // How gradient vectors are assigned to lattice points.
+    protected LatticeMode latticeMode;
+    // Gradient table of each octave in LatticeMode.PERMUTATION_TABLE, or
+    // null in LatticeMode.LIBNOISE; rebuilt by the setters it depends on.
+    private GradientTable[] octaveTables;
+    // Scratch arrays of each thread used by the block methods.
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
 
     public Perlin() {
         super(0);
@@ -66,9 +86,12 @@ public class Perlin extends Module {
         frequency = DEFAULT_PERLIN_FREQUENCY;
         lacunarity = DEFAULT_PERLIN_LACUNARITY;
         noiseQuality = DEFAULT_PERLIN_QUALITY;
+        kernel = NoiseKernel.forQuality(noiseQuality);
         octaveCount = DEFAULT_PERLIN_OCTAVE_COUNT;
         persistence = DEFAULT_PERLIN_PERSISTENCE;
         seed = DEFAULT_PERLIN_SEED;
+        latticeMode = DEFAULT_PERLIN_LATTICE_MODE;
+        buildOctaveTables();
     }
 
     /**
@@ -103,6 +126,16 @@ public class Perlin extends Module {
         return noiseQuality;
     }
 
+    /**
+     * Returns the way gradient vectors are assigned to lattice points.
+     *
+     * @return The lattice mode.
+     * @see LatticeMode
+     */
+    public LatticeMode getLatticeMode() {
+        return latticeMode;
+    }
+
     /**
      * Returns the number of octaves that generate the Perlin noise.
      * <p/>
@@ -135,6 +168,89 @@ public class Perlin extends Module {
         return seed;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Each octave is bounded by NoiseGen.GRADIENT_COHERENT_NOISE_BOUND, scaled by the
+     * persistence value raised to the octave number.
+     */
+    @Override
+    public Range getOutputRange() {
+        double amplitude = 0.0;
+        double curPersistence = 1.0;
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            amplitude += Math.abs(curPersistence);
+            curPersistence *= persistence;
+        }
+        return Range.symmetric(amplitude * NoiseGen.GRADIENT_COHERENT_NOISE_BOUND);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Each octave is bounded over the box scaled by its frequency (see
+     * NoiseGen.GradientCoherentNoiseRange3D()), scaled by its amplitude.
+     * Low-frequency octaves get tight bounds over small boxes, while
+     * octaves whose frequency is too high for the box fall back to their
+     * global bound.
+     */
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        return getValueRange(kernel, getOctaveTables(), seed, frequency, lacunarity, persistence, octaveCount,
+                x0, y0, z0, x1, y1, z1);
+    }
+
+    /**
+     * Returns bounds on the Perlin noise values generated inside a box.
+     * <p/>
+     * The box is scaled octave by octave in the same way as GetValue()
+     * scales the input value, so every scaled input value lies inside the
+     * scaled box.
+     */
+    static Range getValueRange(NoiseKernel kernel, GradientTable[] tables, int seed, double frequency,
+                               double lacunarity, double persistence, int octaveCount,
+                               double x0, double y0, double z0, double x1, double y1, double z1) {
+        Range range = new Range(0.0, 0.0);
+        double curPersistence = 1.0;
+
+        x0 *= frequency;
+        y0 *= frequency;
+        z0 *= frequency;
+        x1 *= frequency;
+        y1 *= frequency;
+        z1 *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            double xl = Math.min(x0, x1), yl = Math.min(y0, y1), zl = Math.min(z0, z1);
+            double xu = Math.max(x0, x1), yu = Math.max(y0, y1), zu = Math.max(z0, z1);
+            Range signal;
+            if (tables != null) {
+                signal = kernel.gradientCoherentNoiseRange3D(xl, yl, zl, xu, yu, zu, tables[curOctave]);
+            } else {
+                int localSeed = (seed + curOctave) & 0xffffffff;
+                signal = kernel.gradientCoherentNoiseRange3D(xl, yl, zl, xu, yu, zu, localSeed);
+            }
+            range = range.add(signal.scaleBias(curPersistence, 0.0));
+
+            // Prepare the next octave.
+            x0 *= lacunarity;
+            y0 *= lacunarity;
+            z0 *= lacunarity;
+            x1 *= lacunarity;
+            y1 *= lacunarity;
+            z1 *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return range;
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(frequency, lacunarity, noiseQuality, octaveCount, persistence, seed, latticeMode);
+    }
+
     @Override
     public int getSourceModuleCount() {
         return 0;
@@ -147,6 +263,7 @@ public class Perlin extends Module {
         double curPersistence = 1.0;
         double nx, ny, nz;
         int localSeed;
+        GradientTable[] tables = getOctaveTables();
 
         x *= frequency;
         y *= frequency;
@@ -160,8 +277,12 @@ public class Perlin extends Module {
             nz = NoiseGen.makeInt32Range(z);
 
             // Get the coherent-noise value from the input value and add it to the final result.
-            localSeed = (this.seed + curOctave) & 0xffffffff;
-            signal = NoiseGen.gradientCoherentNoise3D(nx, ny, nz, localSeed, noiseQuality);
+            if (tables != null) {
+                signal = kernel.gradientCoherentNoise3D(nx, ny, nz, tables[curOctave]);
+            } else {
+                localSeed = (this.seed + curOctave) & 0xffffffff;
+                signal = kernel.gradientCoherentNoise3D(nx, ny, nz, localSeed);
+            }
             value += signal * curPersistence;
 
             // Prepare the next octave.
@@ -174,6 +295,553 @@ public class Perlin extends Module {
         return value;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * In the libnoise lattice mode, every octave is evaluated for the whole
+     * block with the batched gradient-coherent-noise kernel.  The output
+     * values are identical to those of GetValue().
+     */
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            super.getValues(xs, ys, zs, out, offset, count);
+            return;
+        }
+
+        BlockScratch scratch = this.scratch.get();
+        double[] nx = scratch.getDoubles(0, count);
+        double[] ny = scratch.getDoubles(1, count);
+        double[] nz = scratch.getDoubles(2, count);
+        double[] signal = scratch.getDoubles(3, count);
+        double curPersistence = 1.0;
+
+        for (int i = 0; i < count; i++) {
+            nx[i] = xs[offset + i] * frequency;
+            ny[i] = ys[offset + i] * frequency;
+            nz[i] = zs[offset + i] * frequency;
+            out[offset + i] = 0.0;
+        }
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            kernel.gradientCoherentNoise3D(nx, ny, nz, signal, 0, count, localSeed);
+            for (int i = 0; i < count; i++) {
+                out[offset + i] += signal[i] * curPersistence;
+
+                // Prepare the next octave.
+                nx[i] *= lacunarity;
+                ny[i] *= lacunarity;
+                nz[i] *= lacunarity;
+            }
+            curPersistence *= persistence;
+        }
+    }
+
+    /**
+     * Generates the output values of this noise module under several seeds,
+     * given the coordinates of a single input value.
+     * <p/>
+     * The value written to @a out[i] is the value GetValue() returns after
+     * SetSeed( @a seeds[i] ).  This is useful for layering several
+     * independent fields (height, moisture, temperature...) over the same
+     * coordinates: in the libnoise lattice mode the lattice and
+     * interpolation work of every octave is shared by all the seeds.
+     * <p/>
+     * The seeds are read from, and the output values written to, the
+     * elements @a offset to @a offset + @a count - 1 of each array.
+     *
+     * @param x      The @a x coordinate of the input value.
+     * @param y      The @a y coordinate of the input value.
+     * @param z      The @a z coordinate of the input value.
+     * @param seeds  The seeds of the noise modules.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first seed.
+     * @param count  The number of seeds.
+     */
+    public void getValues(double x, double y, double z, int[] seeds, double[] out, int offset, int count) {
+        BlockScratch scratch = this.scratch.get();
+        double[] signal = scratch.getDoubles(3, count);
+        int[] localSeeds = scratch.getInts(0, count);
+        double curPersistence = 1.0;
+        double nx, ny, nz;
+
+        for (int i = 0; i < count; i++) {
+            out[offset + i] = 0.0;
+        }
+
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            nx = NoiseGen.makeInt32Range(x);
+            ny = NoiseGen.makeInt32Range(y);
+            nz = NoiseGen.makeInt32Range(z);
+
+            for (int i = 0; i < count; i++) {
+                localSeeds[i] = (seeds[offset + i] + curOctave) & 0xffffffff;
+            }
+            if (latticeMode == LatticeMode.LIBNOISE) {
+                kernel.gradientCoherentNoise3D(nx, ny, nz, localSeeds, signal, 0, count);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    signal[i] = kernel.gradientCoherentNoise3D(nx, ny, nz, GradientTable.forSeed(localSeeds[i]));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                out[offset + i] += signal[i] * curPersistence;
+            }
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+            curPersistence *= persistence;
+        }
+    }
+
+    /**
+     * Generates an output value, and its analytic partial derivatives,
+     * given the coordinates of the specified input value.
+     * <p/>
+     * The returned value is identical to GetValue().  The partial
+     * derivatives d/dx, d/dy and d/dz of the Perlin noise, accumulated
+     * over every octave, are written to the first three elements of
+     * @a derivative.  They can be used to calculate surface normals
+     * without sampling neighbouring values.
+     *
+     * @param x          The @a x coordinate of the input value.
+     * @param y          The @a y coordinate of the input value.
+     * @param z          The @a z coordinate of the input value.
+     * @param derivative The array that receives the partial derivatives.
+     * @return The output value.
+     */
+    public double getValue(double x, double y, double z, double[] derivative) {
+        double value = 0.0;
+        double dx = 0.0, dy = 0.0, dz = 0.0;
+        double curPersistence = 1.0;
+        double curFrequency = frequency;
+        GradientTable[] tables = getOctaveTables();
+
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+
+        // Each octave writes its derivatives to the caller's array, and the
+        // sums over the octaves are kept in locals until the last octave.
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            double signal;
+            if (tables != null) {
+                signal = kernel.gradientCoherentNoise3D(x, y, z, tables[curOctave], derivative);
+            } else {
+                int localSeed = (this.seed + curOctave) & 0xffffffff;
+                signal = kernel.gradientCoherentNoise3D(x, y, z, localSeed, derivative);
+            }
+            value += signal * curPersistence;
+
+            // The octave is sampled at the input value scaled by the current
+            // frequency, so its derivatives scale by that frequency as well.
+            double scale = curPersistence * curFrequency;
+            dx += derivative[0] * scale;
+            dy += derivative[1] * scale;
+            dz += derivative[2] * scale;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+            curPersistence *= persistence;
+            curFrequency *= lacunarity;
+        }
+
+        derivative[0] = dx;
+        derivative[1] = dy;
+        derivative[2] = dz;
+        return value;
+    }
+
+    /**
+     * Generates an output value given the coordinates of a
+     * four-dimensional input value.
+     * <p/>
+     * Four-dimensional Perlin noise is mainly useful for animation, see
+     * getLoopingValue().  It always uses the libnoise-style lattice hash,
+     * whatever the lattice mode.
+     *
+     * @param x The @a x coordinate of the input value.
+     * @param y The @a y coordinate of the input value.
+     * @param z The @a z coordinate of the input value.
+     * @param w The @a w coordinate of the input value.
+     * @return The output value.
+     */
+    public double getValue(double x, double y, double z, double w) {
+        double value = 0.0;
+        double curPersistence = 1.0;
+
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+        w *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += kernel.gradientCoherentNoise4D(x, y, z, w, localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+            w *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    /**
+     * Generates the output values of a block of four-dimensional input
+     * values.
+     * <p/>
+     * Every octave is evaluated for the whole block with the batched
+     * gradient-coherent-noise function, NoiseGen.GradientCoherentNoise4D().
+     * The output value written to @a out[ @a offset + i ] is identical to
+     * the value GetValue() returns for the input value at that index.
+     *
+     * @param xs     The @a x coordinates of the input values.
+     * @param ys     The @a y coordinates of the input values.
+     * @param zs     The @a z coordinates of the input values.
+     * @param ws     The @a w coordinates of the input values.
+     * @param out    The array that receives the output values.
+     * @param offset The index of the first input value.
+     * @param count  The number of input values.
+     */
+    public void getValues4D(double[] xs, double[] ys, double[] zs, double[] ws, double[] out, int offset, int count) {
+        BlockScratch scratch = this.scratch.get();
+        double[] nx = scratch.getDoubles(0, count);
+        double[] ny = scratch.getDoubles(1, count);
+        double[] nz = scratch.getDoubles(2, count);
+        double[] signal = scratch.getDoubles(3, count);
+        double[] nw = scratch.getDoubles(4, count);
+        double curPersistence = 1.0;
+
+        for (int i = 0; i < count; i++) {
+            nx[i] = xs[offset + i] * frequency;
+            ny[i] = ys[offset + i] * frequency;
+            nz[i] = zs[offset + i] * frequency;
+            nw[i] = ws[offset + i] * frequency;
+            out[offset + i] = 0.0;
+        }
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            NoiseGen.gradientCoherentNoise4D(nx, ny, nz, nw, signal, 0, count, localSeed, noiseQuality);
+            for (int i = 0; i < count; i++) {
+                out[offset + i] += signal[i] * curPersistence;
+
+                // Prepare the next octave.
+                nx[i] *= lacunarity;
+                ny[i] *= lacunarity;
+                nz[i] *= lacunarity;
+                nw[i] *= lacunarity;
+            }
+            curPersistence *= persistence;
+        }
+    }
+
+    /**
+     * Generates an output value for a point on the ( @a x, @a z ) plane
+     * at a point in time of a seamlessly looping animation.
+     * <p/>
+     * The time is mapped onto a circle of the specified radius in the
+     * @a y / @a w plane of four-dimensional Perlin noise, so the values at
+     * @a time 0.0 and 1.0 are identical and the animation loops without a
+     * seam.  A larger radius makes the noise change faster over one loop.
+     *
+     * @param x      The @a x coordinate of the input value.
+     * @param z      The @a z coordinate of the input value.
+     * @param time   The position in the loop, where 1.0 is one full loop.
+     * @param radius The radius of the circle the time is mapped onto.
+     * @return The output value.
+     */
+    public double getLoopingValue(double x, double z, double time, double radius) {
+        double angle = 2.0 * MathConst.PI * time;
+        return getValue(x, radius * Math.cos(angle), z, radius * Math.sin(angle));
+    }
+
+    /**
+     * Generates a fixed-point output value given the fixed-point
+     * coordinates of the specified input value.
+     * <p/>
+     * The Perlin noise is generated entirely in 16.16 fixed-point integer
+     * arithmetic (see FixedNoiseGen), so the result is bit-identical on
+     * every JVM and CPU.  It approximates GetValue() to within rounding.
+     * The frequency, lacunarity and persistence are rounded to 16.16 fixed
+     * point, and the input value scaled by the frequency of the last octave
+     * must stay below 2^30 units.  It always uses the libnoise-style
+     * lattice hash, whatever the lattice mode.
+     *
+     * @param x The @a x coordinate of the input value, in 16.16 fixed point.
+     * @param y The @a y coordinate of the input value, in 16.16 fixed point.
+     * @param z The @a z coordinate of the input value, in 16.16 fixed point.
+     * @return The output value, in 16.16 fixed point.
+     */
+    public int getValueFixed(long x, long y, long z) {
+        long frequency = FixedNoiseGen.toFixed(this.frequency);
+        long lacunarity = FixedNoiseGen.toFixed(this.lacunarity);
+        long persistence = FixedNoiseGen.toFixed(this.persistence);
+        long value = 0;
+        long curPersistence = FixedNoiseGen.FIXED_ONE;
+
+        x = (x * frequency) >> FixedNoiseGen.FIXED_SHIFT;
+        y = (y * frequency) >> FixedNoiseGen.FIXED_SHIFT;
+        z = (z * frequency) >> FixedNoiseGen.FIXED_SHIFT;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            long signal = FixedNoiseGen.gradientCoherentNoise3D(x, y, z, localSeed, noiseQuality);
+            value += (signal * curPersistence) >> FixedNoiseGen.FIXED_SHIFT;
+
+            // Prepare the next octave.
+            x = (x * lacunarity) >> FixedNoiseGen.FIXED_SHIFT;
+            y = (y * lacunarity) >> FixedNoiseGen.FIXED_SHIFT;
+            z = (z * lacunarity) >> FixedNoiseGen.FIXED_SHIFT;
+            curPersistence = (curPersistence * persistence) >> FixedNoiseGen.FIXED_SHIFT;
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * For every octave, the origin scaled by the octave frequency is split
+     * into an integer lattice cell and a fraction that is added to the
+     * local coordinates, so the lattice cells are exact at any distance
+     * from ( 0, 0, 0 ).  When the frequency and the lacunarity are whole
+     * numbers (the lacunarity defaults to 2.0), the split is exact too.
+     * The lattice hash only depends on the cell modulo 2^32, so overflow
+     * of the cell is harmless.
+     * <p/>
+     * In the permutation-table lattice mode the default implementation is
+     * used.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            return super.getRebasedValue(originX, originY, originZ, x, y, z);
+        }
+
+        double value = 0.0;
+        double curPersistence = 1.0;
+        double curFrequency = frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += kernel.gradientCoherentNoise3D(
+                    (int) originCell(originX, curFrequency), (int) originCell(originY, curFrequency),
+                    (int) originCell(originZ, curFrequency),
+                    originFraction(originX, curFrequency) + x * curFrequency,
+                    originFraction(originY, curFrequency) + y * curFrequency,
+                    originFraction(originZ, curFrequency) + z * curFrequency,
+                    localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            curFrequency *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Only the local coordinates are single-precision, so the float kernels
+     * can be used however far the origin is from ( 0, 0, 0 ).
+     */
+    @Override
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            return super.getRebasedValueF(originX, originY, originZ, x, y, z);
+        }
+
+        float value = 0.0f;
+        float curPersistence = 1.0f;
+        float persistence = (float) this.persistence;
+        double curFrequency = frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            float frequency = (float) curFrequency;
+            value += kernel.gradientCoherentNoise3DF(
+                    (int) originCell(originX, curFrequency), (int) originCell(originY, curFrequency),
+                    (int) originCell(originZ, curFrequency),
+                    (float) originFraction(originX, curFrequency) + x * frequency,
+                    (float) originFraction(originY, curFrequency) + y * frequency,
+                    (float) originFraction(originZ, curFrequency) + z * frequency,
+                    localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            curFrequency *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            return getValue(x, 0.0, z);
+        }
+
+        double value = 0.0;
+        double curPersistence = 1.0;
+
+        x *= frequency;
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += kernel.gradientCoherentNoise2D(x, z, localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            z *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            super.getValues2D(xs, z, out, offset, count);
+            return;
+        }
+
+        BlockScratch scratch = this.scratch.get();
+        double[] octaveXs = scratch.getDoubles(0, count);
+        double[] signal = scratch.getDoubles(3, count);
+        double curPersistence = 1.0;
+
+        for (int i = 0; i < count; i++) {
+            octaveXs[i] = xs[offset + i] * frequency;
+            out[offset + i] = 0.0;
+        }
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            kernel.gradientCoherentNoise2D(octaveXs, z, signal, 0, count, localSeed);
+            for (int i = 0; i < count; i++) {
+                out[offset + i] += signal[i] * curPersistence;
+
+                // Prepare the next octave.
+                octaveXs[i] *= lacunarity;
+            }
+            z *= lacunarity;
+            curPersistence *= persistence;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Perlin noise can tile when the lattice mode is LatticeMode.LIBNOISE
+     * and each period, multiplied by the frequency of every octave, is a
+     * whole number of lattice units.  With the default lacunarity of 2.0
+     * this only requires the periods times the frequency to be whole
+     * numbers.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            return false;
+        }
+        double xp = xPeriod * frequency;
+        double zp = zPeriod * frequency;
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            if (!isLatticePeriod(xp) || !isLatticePeriod(zp)) {
+                return false;
+            }
+            xp *= lacunarity;
+            zp *= lacunarity;
+        }
+        return true;
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        if (!canTile(xPeriod, zPeriod)) {
+            throw new ExceptionInvalidParam("Periods are not whole numbers of lattice units");
+        }
+
+        double value = 0.0;
+        double curPersistence = 1.0;
+        double xp = xPeriod * frequency;
+        double zp = zPeriod * frequency;
+
+        x *= frequency;
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += kernel.gradientCoherentNoise2D(x, z, localSeed, (int) Math.round(xp), (int) Math.round(zp))
+                    * curPersistence;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            z *= lacunarity;
+            xp *= lacunarity;
+            zp *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    /**
+     * Determines if a period, in lattice units, is a positive whole number
+     * that fits in an int.
+     */
+    private static boolean isLatticePeriod(double period) {
+        double rounded = Math.rint(period);
+        return rounded >= 1.0 && rounded <= Integer.MAX_VALUE && Math.abs(period - rounded) <= 1e-9 * rounded;
+    }
+
+    @Override
+    public float getValueF(float x, float y, float z) {
+        if (latticeMode != LatticeMode.LIBNOISE) {
+            return (float) getValue(x, y, z);
+        }
+
+        float value = 0.0f;
+        float curPersistence = 1.0f;
+        float frequency = (float) this.frequency;
+        float lacunarity = (float) this.lacunarity;
+        float persistence = (float) this.persistence;
+
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += kernel.gradientCoherentNoise3DF(x, y, z, localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
     /**
      * Sets the frequency of the first octave.
      *
@@ -206,6 +874,22 @@ public class Perlin extends Module {
      */
     public void setNoiseQuality(NoiseQuality noiseQuality) {
         this.noiseQuality = noiseQuality;
+        this.kernel = NoiseKernel.forQuality(noiseQuality);
+    }
+
+    /**
+     * Sets the way gradient vectors are assigned to lattice points.
+     * <p/>
+     * LatticeMode.LIBNOISE (the default) generates the same noise as
+     * libnoise.  LatticeMode.PERMUTATION_TABLE uses a gradient table per
+     * octave seed, which is cheaper per lattice point but generates
+     * different noise.
+     *
+     * @param latticeMode The lattice mode.
+     */
+    public void setLatticeMode(LatticeMode latticeMode) {
+        this.latticeMode = latticeMode;
+        buildOctaveTables();
     }
 
     /**
@@ -226,6 +910,7 @@ public class Perlin extends Module {
             throw new ExceptionInvalidParam();
         }
         this.octaveCount = octaveCount;
+        buildOctaveTables();
     }
 
     /**
@@ -248,5 +933,36 @@ public class Perlin extends Module {
      */
     public void setSeed(int seed) {
         this.seed = seed;
+        buildOctaveTables();
+    }
+
+    /**
+     * Returns the gradient table of each octave, or null if the lattice is
+     * hashed the libnoise way.
+     *
+     * @return The gradient tables, indexed by octave.
+     */
+    protected GradientTable[] getOctaveTables() {
+        return octaveTables;
+    }
+
+    /**
+     * Builds the gradient table of each octave for the current seed,
+     * octave count and lattice mode.
+     * <p/>
+     * The tables are built by the setters rather than on first use, so
+     * GetValue() only reads the field and never publishes a new array
+     * while other threads evaluate this noise module.
+     */
+    private void buildOctaveTables() {
+        if (latticeMode == LatticeMode.LIBNOISE) {
+            octaveTables = null;
+            return;
+        }
+        GradientTable[] tables = new GradientTable[octaveCount];
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            tables[curOctave] = GradientTable.forSeed((seed + curOctave) & 0xffffffff);
+        }
+        octaveTables = tables;
     }
 }
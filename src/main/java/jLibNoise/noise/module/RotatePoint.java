@@ -0,0 +1,297 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.MathConst;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that rotates the input value around the origin before
+ * returning the output value from a source module.
+ * <p/>
+ * The GetValue() method rotates the coordinates of the input value
+ * around the origin before returning the output value from the source
+ * module.  To set the rotation angles, call the SetAngles() method.  To
+ * set the rotation angle around the individual @a x, @a y, or @a z
+ * axes, call the SetXAngle(), SetYAngle() or SetZAngle() methods,
+ * respectively.
+ * <p/>
+ * The coordinate system of the input value is assumed to be
+ * "left-handed" (@a x increases to the right, @a y increases upward,
+ * and @a z increases inward.)
+ * <p/>
+ * This noise module requires one source module.
+ *
+ * @source 'module/rotatepoint.h/cpp'
+ */
+public class RotatePoint extends Module {
+
+    // Default @a x rotation angle applied to the input value, in degrees.
+    public static final double DEFAULT_ROTATE_X = 0.0;
+    // Default @a y rotation angle applied to the input value, in degrees.
+    public static final double DEFAULT_ROTATE_Y = 0.0;
+    // Default @a z rotation angle applied to the input value, in degrees.
+    public static final double DEFAULT_ROTATE_Z = 0.0;
+
+    // An entry within the 3x3 rotation matrix used for rotating the input value.
+    protected double x1Matrix, x2Matrix, x3Matrix;
+    protected double y1Matrix, y2Matrix, y3Matrix;
+    protected double z1Matrix, z2Matrix, z3Matrix;
+    // The rotation matrix, laid out as in TransformPoint.SetMatrix().
+    private final double[] matrix = new double[12];
+    // @a x rotation angle applied to the input value, in degrees.
+    protected double xAngle;
+    // @a y rotation angle applied to the input value, in degrees.
+    protected double yAngle;
+    // @a z rotation angle applied to the input value, in degrees.
+    protected double zAngle;
+
+    public RotatePoint() {
+        super(1);
+
+        setAngles(DEFAULT_ROTATE_X, DEFAULT_ROTATE_Y, DEFAULT_ROTATE_Z);
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        double[] box = TransformPoint.transformBox(matrix, x0, y0, z0, x1, y1, z1);
+        return sourceModule[0].getValueRange(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(xAngle, yAngle, zAngle);
+    }
+
+    @Override
+    protected boolean transformsInputValues() {
+        return true;
+    }
+
+    @Override
+    protected void transformInputValues(double[] xs, double[] ys, double[] zs,
+                                        double[] nxs, double[] nys, double[] nzs, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            nxs[i] = (x1Matrix * x) + (y1Matrix * y) + (z1Matrix * z);
+            nys[i] = (x2Matrix * x) + (y2Matrix * y) + (z2Matrix * z);
+            nzs[i] = (x3Matrix * x) + (y3Matrix * y) + (z3Matrix * z);
+        }
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        double nx = (x1Matrix * x) + (y1Matrix * y) + (z1Matrix * z);
+        double ny = (x2Matrix * x) + (y2Matrix * y) + (z2Matrix * z);
+        double nz = (x3Matrix * x) + (y3Matrix * y) + (z3Matrix * z);
+        return sourceModule[0].getValue(nx, ny, nz);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A rotation around the @a y axis keeps the plane @a y = 0 in place,
+     * so the source module is evaluated on that plane too.
+     */
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        if (!isPlanar()) {
+            return getValue(x, 0.0, z);
+        }
+        return sourceModule[0].getValue2D((x1Matrix * x) + (z1Matrix * z), (x3Matrix * x) + (z3Matrix * z));
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        if (!isPlanar()) {
+            super.getValues2D(xs, z, out, offset, count);
+            return;
+        }
+        // The rotated input values do not share a z coordinate.
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = getValue2D(xs[i], z);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The rotated origin is split into an integer origin and a fraction
+     * that is added to the rotated local coordinates (see
+     * Module.OriginCell()), so the source module receives a rebased input
+     * value too.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return TransformPoint.getRebasedValue(sourceModule[0], matrix, originX, originY, originZ, x, y, z);
+    }
+
+    /**
+     * Returns the rotation matrix, laid out as in
+     * TransformPoint.SetMatrix().
+     *
+     * @return A copy of the rotation matrix.
+     */
+    double[] getMatrix() {
+        return matrix.clone();
+    }
+
+    /**
+     * Determines if the plane @a y = 0 is rotated onto itself.
+     */
+    private boolean isPlanar() {
+        return x2Matrix == 0.0 && z2Matrix == 0.0;
+    }
+
+    /**
+     * Returns the rotation angle around the @a x axis to apply to the
+     * input value.
+     *
+     * @return The rotation angle around the @a x axis, in degrees.
+     */
+    public double getXAngle() {
+        return xAngle;
+    }
+
+    /**
+     * Returns the rotation angle around the @a y axis to apply to the
+     * input value.
+     *
+     * @return The rotation angle around the @a y axis, in degrees.
+     */
+    public double getYAngle() {
+        return yAngle;
+    }
+
+    /**
+     * Returns the rotation angle around the @a z axis to apply to the
+     * input value.
+     *
+     * @return The rotation angle around the @a z axis, in degrees.
+     */
+    public double getZAngle() {
+        return zAngle;
+    }
+
+    /**
+     * Sets the rotation angles around all three axes to apply to the
+     * input value.
+     * <p/>
+     * The GetValue() method rotates the coordinates of the input value
+     * around the origin before returning the output value from the
+     * source module.
+     *
+     * @param xAngle The rotation angle around the @a x axis, in degrees.
+     * @param yAngle The rotation angle around the @a y axis, in degrees.
+     * @param zAngle The rotation angle around the @a z axis, in degrees.
+     */
+    public void setAngles(double xAngle, double yAngle, double zAngle) {
+        double xCos, yCos, zCos, xSin, ySin, zSin;
+        xCos = Math.cos(xAngle * MathConst.DEG_TO_RAD);
+        yCos = Math.cos(yAngle * MathConst.DEG_TO_RAD);
+        zCos = Math.cos(zAngle * MathConst.DEG_TO_RAD);
+        xSin = Math.sin(xAngle * MathConst.DEG_TO_RAD);
+        ySin = Math.sin(yAngle * MathConst.DEG_TO_RAD);
+        zSin = Math.sin(zAngle * MathConst.DEG_TO_RAD);
+
+        x1Matrix = ySin * xSin * zSin + yCos * zCos;
+        y1Matrix = xCos * zSin;
+        z1Matrix = ySin * zCos - yCos * xSin * zSin;
+        x2Matrix = ySin * xSin * zCos - yCos * zSin;
+        y2Matrix = xCos * zCos;
+        z2Matrix = -yCos * xSin * zCos - ySin * zSin;
+        x3Matrix = -ySin * xCos;
+        y3Matrix = xSin;
+        z3Matrix = yCos * xCos;
+        matrix[0] = x1Matrix;
+        matrix[1] = y1Matrix;
+        matrix[2] = z1Matrix;
+        matrix[4] = x2Matrix;
+        matrix[5] = y2Matrix;
+        matrix[6] = z2Matrix;
+        matrix[8] = x3Matrix;
+        matrix[9] = y3Matrix;
+        matrix[10] = z3Matrix;
+
+        this.xAngle = xAngle;
+        this.yAngle = yAngle;
+        this.zAngle = zAngle;
+    }
+
+    /**
+     * Sets the rotation angle around the @a x axis to apply to the input
+     * value.
+     *
+     * @param xAngle The rotation angle around the @a x axis, in degrees.
+     */
+    public void setXAngle(double xAngle) {
+        setAngles(xAngle, yAngle, zAngle);
+    }
+
+    /**
+     * Sets the rotation angle around the @a y axis to apply to the input
+     * value.
+     *
+     * @param yAngle The rotation angle around the @a y axis, in degrees.
+     */
+    public void setYAngle(double yAngle) {
+        setAngles(xAngle, yAngle, zAngle);
+    }
+
+    /**
+     * Sets the rotation angle around the @a z axis to apply to the input
+     * value.
+     *
+     * @param zAngle The rotation angle around the @a z axis, in degrees.
+     */
+    public void setZAngle(double zAngle) {
+        setAngles(xAngle, yAngle, zAngle);
+    }
+}
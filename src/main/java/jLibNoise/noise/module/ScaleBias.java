@@ -0,0 +1,217 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that applies a scaling factor and a bias to the output
+ * value from a source module.
+ * <p/>
+ * The GetValue() method retrieves the output value from the source
+ * module, multiplies it with a scaling factor, adds a bias to it, then
+ * outputs the value.
+ * <p/>
+ * This noise module requires one source module.
+ *
+ * @source 'module/scalebias.h/cpp'
+ */
+public class ScaleBias extends Module {
+
+    // Default bias for the ScaleBias noise module.
+    public static final double DEFAULT_BIAS = 0.0;
+    // Default scale for the ScaleBias noise module.
+    public static final double DEFAULT_SCALE = 1.0;
+
+    // Bias to apply to the scaled output value from the source module.
+    protected double bias;
+    // Scaling factor to apply to the output value from the source module.
+    protected double scale;
+
+    public ScaleBias() {
+        super(1);
+
+        bias = DEFAULT_BIAS;
+        scale = DEFAULT_SCALE;
+    }
+
+    /**
+     * Returns the bias to apply to the scaled output value from the
+     * source module.
+     * <p/>
+     * The GetValue() method retrieves the output value from the source
+     * module, multiplies it with the scaling factor, adds the bias to it,
+     * then outputs the value.
+     *
+     * @return The bias to apply.
+     */
+    public double getBias() {
+        return bias;
+    }
+
+    /**
+     * Returns the scaling factor to apply to the output value from the
+     * source module.
+     * <p/>
+     * The GetValue() method retrieves the output value from the source
+     * module, multiplies it with the scaling factor, adds the bias to it,
+     * then outputs the value.
+     *
+     * @return The scaling factor to apply.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange().scaleBias(scale, bias);
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1).scaleBias(scale, bias);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(scale, bias);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValue(x, y, z) * scale + bias;
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        sourceModule[0].getValues(xs, ys, zs, out, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = out[i] * scale + bias;
+        }
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValue2D(x, z) * scale + bias;
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        sourceModule[0].getValues2D(xs, z, out, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = out[i] * scale + bias;
+        }
+    }
+
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z) * scale + bias;
+    }
+
+    @Override
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        assert (sourceModule[0] != null);
+
+        return (float) (sourceModule[0].getRebasedValueF(originX, originY, originZ, x, y, z) * scale + bias);
+    }
+
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].canTile(xPeriod, zPeriod);
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod) * scale + bias;
+    }
+
+    @Override
+    protected boolean combinesSourceValues() {
+        return true;
+    }
+
+    @Override
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        double[] values = sourceValues[0];
+        for (int i = 0; i < count; i++) {
+            out[i] = values[i] * scale + bias;
+        }
+    }
+
+    /**
+     * Sets the bias to apply to the scaled output value from the source
+     * module.
+     * <p/>
+     * The GetValue() method retrieves the output value from the source
+     * module, multiplies it with the scaling factor, adds the bias to it,
+     * then outputs the value.
+     *
+     * @param bias The bias to apply.
+     */
+    public void setBias(double bias) {
+        this.bias = bias;
+    }
+
+    /**
+     * Sets the scaling factor to apply to the output value from the
+     * source module.
+     * <p/>
+     * The GetValue() method retrieves the output value from the source
+     * module, multiplies it with the scaling factor, adds the bias to it,
+     * then outputs the value.
+     *
+     * @param scale The scaling factor to apply.
+     */
+    public void setScale(double scale) {
+        this.scale = scale;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that scales the coordinates of the input value before
+ * returning the output value from a source module.
+ * <p/>
+ * The GetValue() method multiplies the ( @a x, @a y, @a z ) coordinates
+ * of the input value with a scaling factor before returning the output
+ * value from the source module.  To set the scaling factor, call the
+ * SetScale() method.  To set the scaling factor to apply to the
+ * individual @a x, @a y, or @a z coordinates, call the SetXScale(),
+ * SetYScale() or SetZScale() methods, respectively.
+ * <p/>
+ * This noise module requires one source module.
+ *
+ * @source 'module/scalepoint.h/cpp'
+ */
+public class ScalePoint extends Module {
+
+    // Default scaling factor applied to the @a x coordinate.
+    public static final double DEFAULT_SCALE_POINT_X = 1.0;
+    // Default scaling factor applied to the @a y coordinate.
+    public static final double DEFAULT_SCALE_POINT_Y = 1.0;
+    // Default scaling factor applied to the @a z coordinate.
+    public static final double DEFAULT_SCALE_POINT_Z = 1.0;
+
+    // Scaling factor applied to the @a x coordinate of the input value.
+    protected double xScale;
+    // Scaling factor applied to the @a y coordinate of the input value.
+    protected double yScale;
+    // Scaling factor applied to the @a z coordinate of the input value.
+    protected double zScale;
+    // Scratch arrays of each thread used by GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public ScalePoint() {
+        super(1);
+
+        xScale = DEFAULT_SCALE_POINT_X;
+        yScale = DEFAULT_SCALE_POINT_Y;
+        zScale = DEFAULT_SCALE_POINT_Z;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        double xa = x0 * xScale, xb = x1 * xScale;
+        double ya = y0 * yScale, yb = y1 * yScale;
+        double za = z0 * zScale, zb = z1 * zScale;
+        return sourceModule[0].getValueRange(Math.min(xa, xb), Math.min(ya, yb), Math.min(za, zb),
+                Math.max(xa, xb), Math.max(ya, yb), Math.max(za, zb));
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(xScale, yScale, zScale);
+    }
+
+    @Override
+    protected boolean transformsInputValues() {
+        return true;
+    }
+
+    @Override
+    protected void transformInputValues(double[] xs, double[] ys, double[] zs,
+                                        double[] nxs, double[] nys, double[] nzs, int count) {
+        for (int i = 0; i < count; i++) {
+            nxs[i] = xs[i] * xScale;
+            nys[i] = ys[i] * yScale;
+            nzs[i] = zs[i] * zScale;
+        }
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValue(x * xScale, y * yScale, z * zScale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A finite scaling factor along the @a y axis keeps the plane
+     * @a y = 0 in place, so the source module is evaluated on that plane
+     * too.
+     */
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        if (!isPlanar()) {
+            return getValue(x, 0.0, z);
+        }
+        return sourceModule[0].getValue2D(x * xScale, z * zScale);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        if (!isPlanar()) {
+            super.getValues2D(xs, z, out, offset, count);
+            return;
+        }
+        double[] nxs = scratch.get().getDoubles(0, offset + count);
+        for (int i = offset; i < offset + count; i++) {
+            nxs[i] = xs[i] * xScale;
+        }
+        sourceModule[0].getValues2D(nxs, z * zScale, out, offset, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The scaled origin is split into an integer origin and a fraction
+     * that is added to the scaled local coordinates (see
+     * Module.OriginCell()), so the source module receives a rebased input
+     * value too.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getRebasedValue(
+                originCell(originX, xScale), originCell(originY, yScale), originCell(originZ, zScale),
+                originFraction(originX, xScale) + x * xScale,
+                originFraction(originY, yScale) + y * yScale,
+                originFraction(originZ, zScale) + z * zScale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The output values repeat with a period if those of the source module
+     * repeat with the period multiplied by the scaling factor.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return isPlanar() && sourceModule[0].canTile(xPeriod * Math.abs(xScale), zPeriod * Math.abs(zScale));
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        if (!isPlanar()) {
+            return super.getTiledValue2D(x, z, xPeriod, zPeriod);
+        }
+        return sourceModule[0].getTiledValue2D(x * xScale, z * zScale,
+                xPeriod * Math.abs(xScale), zPeriod * Math.abs(zScale));
+    }
+
+    /**
+     * Determines if the plane @a y = 0 is scaled onto itself.
+     */
+    private boolean isPlanar() {
+        return 0.0 * yScale == 0.0;
+    }
+
+    /**
+     * Returns the scaling factor to apply to the @a x coordinate of
+     * the input value.
+     *
+     * @return The scaling factor to apply to the @a x coordinate.
+     */
+    public double getXScale() {
+        return xScale;
+    }
+
+    /**
+     * Returns the scaling factor to apply to the @a y coordinate of
+     * the input value.
+     *
+     * @return The scaling factor to apply to the @a y coordinate.
+     */
+    public double getYScale() {
+        return yScale;
+    }
+
+    /**
+     * Returns the scaling factor to apply to the @a z coordinate of
+     * the input value.
+     *
+     * @return The scaling factor to apply to the @a z coordinate.
+     */
+    public double getZScale() {
+        return zScale;
+    }
+
+    /**
+     * Sets the scaling factor to apply to the input value.
+     * <p/>
+     * The GetValue() method multiplies the ( @a x, @a y, @a z ) coordinates
+     * of the input value with a scaling factor before returning the
+     * output value from the source module.
+     *
+     * @param scale The scaling factor to apply.
+     */
+    public void setScale(double scale) {
+        xScale = scale;
+        yScale = scale;
+        zScale = scale;
+    }
+
+    /**
+     * Sets the scaling factors to apply to the ( @a x, @a y, @a z )
+     * coordinates of the input value.
+     *
+     * @param xScale The scaling factor to apply to the @a x coordinate.
+     * @param yScale The scaling factor to apply to the @a y coordinate.
+     * @param zScale The scaling factor to apply to the @a z coordinate.
+     */
+    public void setScale(double xScale, double yScale, double zScale) {
+        this.xScale = xScale;
+        this.yScale = yScale;
+        this.zScale = zScale;
+    }
+
+    /**
+     * Sets the scaling factor to apply to the @a x coordinate of the
+     * input value.
+     *
+     * @param xScale The scaling factor to apply to the @a x coordinate.
+     */
+    public void setXScale(double xScale) {
+        this.xScale = xScale;
+    }
+
+    /**
+     * Sets the scaling factor to apply to the @a y coordinate of the
+     * input value.
+     *
+     * @param yScale The scaling factor to apply to the @a y coordinate.
+     */
+    public void setYScale(double yScale) {
+        this.yScale = yScale;
+    }
+
+    /**
+     * Sets the scaling factor to apply to the @a z coordinate of the
+     * input value.
+     *
+     * @param zScale The scaling factor to apply to the @a z coordinate.
+     */
+    public void setZScale(double zScale) {
+        this.zScale = zScale;
+    }
+}
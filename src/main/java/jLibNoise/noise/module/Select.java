@@ -0,0 +1,624 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.Interp;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that outputs the value selected from one of two source
+ * modules chosen by the output value from a control module.
+ * <p/>
+ * Unlike most other noise modules, the index value assigned to a source
+ * module determines its role in the selection operation:
+ * - Source module 0 outputs a value.
+ * - Source module 1 outputs a value.
+ * - Source module 2 is known as the <i>control module</i>.  The control
+ * module determines the value to select.  If the output value from the
+ * control module is within a range of values known as the <i>selection
+ * range</i>, this noise module outputs the value from the source module
+ * with an index value of 1.  Otherwise, this noise module outputs the
+ * value from the source module with an index value of 0.
+ * <p/>
+ * To specify the bounds of the selection range, call the SetBounds()
+ * method.
+ * <p/>
+ * An application can pass the control module to the SetControlModule()
+ * method instead of the SetSourceModule() method.  This may make the
+ * application code easier to read.
+ * <p/>
+ * By default, there is an abrupt transition between the output values
+ * from the two source modules at the selection-range boundary.  To
+ * smooth the transition, pass a non-zero value to the SetEdgeFalloff()
+ * method.  Higher values result in a smoother transition.
+ * <p/>
+ * Only the source modules that contribute to an output value are
+ * evaluated: outside the transitions, the unselected source module is
+ * skipped.  GetValues() generates the control values of the whole batch
+ * first, then evaluates each source module once, for only the input
+ * values that need it.
+ * <p/>
+ * This noise module requires three source modules.
+ *
+ * @source 'module/select.h/cpp'
+ */
+public class Select extends Module {
+
+    // Default edge-falloff value for the Select noise module.
+    public static final double DEFAULT_SELECT_EDGE_FALLOFF = 0.0;
+    // Default lower bound of the selection range for the Select noise module.
+    public static final double DEFAULT_SELECT_LOWER_BOUND = -1.0;
+    // Default upper bound of the selection range for the Select noise module.
+    public static final double DEFAULT_SELECT_UPPER_BOUND = 1.0;
+
+    // The output value is the value from source module 0.
+    static final int SELECT_SOURCE_0 = 0;
+    // The output value is the value from source module 1.
+    static final int SELECT_SOURCE_1 = 1;
+    // The output value is blended across the lower bound.
+    static final int SELECT_LOWER_EDGE = 2;
+    // The output value is blended across the upper bound.
+    static final int SELECT_UPPER_EDGE = 3;
+    // Both source modules may contribute to the output values.
+    static final int SELECT_BOTH = -1;
+
+    // Edge-falloff value.
+    protected double edgeFalloff;
+    // Lower bound of the selection range.
+    protected double lowerBound;
+    // Upper bound of the selection range.
+    protected double upperBound;
+    // Scratch arrays of each thread used by GetValues() and GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public Select() {
+        super(3);
+
+        edgeFalloff = DEFAULT_SELECT_EDGE_FALLOFF;
+        lowerBound = DEFAULT_SELECT_LOWER_BOUND;
+        upperBound = DEFAULT_SELECT_UPPER_BOUND;
+    }
+
+    /**
+     * Returns the control module.
+     * <p/>
+     * The control module determines the output value to select.  If the
+     * output value from the control module is within a range of values
+     * known as the <i>selection range</i>, the GetValue() method outputs
+     * the value from the source module with an index value of 1.
+     * Otherwise, this method outputs the value from the source module with
+     * an index value of 0.
+     *
+     * @return A reference to the control module.
+     * @throws jLibNoise.noise.ExceptionNoModule See the preconditions for
+     *                                           more information.
+     * @pre A control module has been added to this noise module via a call
+     * to SetSourceModule() or SetControlModule().
+     */
+    public Module getControlModule() {
+        return getSourceModule(2);
+    }
+
+    /**
+     * Returns the falloff value at the edge transition.
+     * <p/>
+     * The falloff value is the width of the edge transition at either edge
+     * of the selection range.
+     * <p/>
+     * By default, there is an abrupt transition between the output values
+     * from the two source modules at the selection-range boundary.
+     *
+     * @return The falloff value at the edge transition.
+     */
+    public double getEdgeFalloff() {
+        return edgeFalloff;
+    }
+
+    /**
+     * Returns the lower bound of the selection range.
+     * <p/>
+     * If the output value from the control module is within the selection
+     * range, the GetValue() method outputs the value from the source
+     * module with an index value of 1.  Otherwise, this method outputs the
+     * value from the source module with an index value of 0.
+     *
+     * @return The lower bound of the selection range.
+     */
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Returns the upper bound of the selection range.
+     * <p/>
+     * If the output value from the control module is within the selection
+     * range, the GetValue() method outputs the value from the source
+     * module with an index value of 1.  Otherwise, this method outputs the
+     * value from the source module with an index value of 0.
+     *
+     * @return The upper bound of the selection range.
+     */
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * If the range of the control module lies entirely inside or outside
+     * the selection range, only the selected source module is consulted.
+     */
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        switch (selectedSource(sourceModule[2].getOutputRange(), lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getOutputRange();
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getOutputRange();
+            default:
+                return selectRange(sourceModule[0].getOutputRange(), sourceModule[1].getOutputRange(), edgeFalloff);
+        }
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        Range controlRange = sourceModule[2].getValueRange(x0, y0, z0, x1, y1, z1);
+        switch (selectedSource(controlRange, lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1);
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getValueRange(x0, y0, z0, x1, y1, z1);
+            default:
+                return selectRange(sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1),
+                        sourceModule[1].getValueRange(x0, y0, z0, x1, y1, z1), edgeFalloff);
+        }
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(lowerBound, upperBound, edgeFalloff);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 3;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double controlValue = sourceModule[2].getValue(x, y, z);
+        switch (selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getValue(x, y, z);
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getValue(x, y, z);
+            case SELECT_LOWER_EDGE:
+                return Interp.linearInterp(sourceModule[0].getValue(x, y, z), sourceModule[1].getValue(x, y, z),
+                        edgeAlpha(controlValue, lowerBound, edgeFalloff));
+            default:
+                return Interp.linearInterp(sourceModule[1].getValue(x, y, z), sourceModule[0].getValue(x, y, z),
+                        edgeAlpha(controlValue, upperBound, edgeFalloff));
+        }
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        getValues(xs, ys, zs, 0.0, out, offset, count);
+    }
+
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double controlValue = sourceModule[2].getValue2D(x, z);
+        switch (selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getValue2D(x, z);
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getValue2D(x, z);
+            case SELECT_LOWER_EDGE:
+                return Interp.linearInterp(sourceModule[0].getValue2D(x, z), sourceModule[1].getValue2D(x, z),
+                        edgeAlpha(controlValue, lowerBound, edgeFalloff));
+            default:
+                return Interp.linearInterp(sourceModule[1].getValue2D(x, z), sourceModule[0].getValue2D(x, z),
+                        edgeAlpha(controlValue, upperBound, edgeFalloff));
+        }
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        getValues(xs, null, null, z, out, offset, count);
+    }
+
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double controlValue = sourceModule[2].getRebasedValue(originX, originY, originZ, x, y, z);
+        switch (selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z);
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getRebasedValue(originX, originY, originZ, x, y, z);
+            case SELECT_LOWER_EDGE:
+                return Interp.linearInterp(sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z),
+                        sourceModule[1].getRebasedValue(originX, originY, originZ, x, y, z),
+                        edgeAlpha(controlValue, lowerBound, edgeFalloff));
+            default:
+                return Interp.linearInterp(sourceModule[1].getRebasedValue(originX, originY, originZ, x, y, z),
+                        sourceModule[0].getRebasedValue(originX, originY, originZ, x, y, z),
+                        edgeAlpha(controlValue, upperBound, edgeFalloff));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The output values repeat if the output values of the control module
+     * and of both source modules repeat.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        return sourceModule[0].canTile(xPeriod, zPeriod) && sourceModule[1].canTile(xPeriod, zPeriod)
+                && sourceModule[2].canTile(xPeriod, zPeriod);
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        double controlValue = sourceModule[2].getTiledValue2D(x, z, xPeriod, zPeriod);
+        switch (selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+            case SELECT_SOURCE_0:
+                return sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod);
+            case SELECT_SOURCE_1:
+                return sourceModule[1].getTiledValue2D(x, z, xPeriod, zPeriod);
+            case SELECT_LOWER_EDGE:
+                return Interp.linearInterp(sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod),
+                        sourceModule[1].getTiledValue2D(x, z, xPeriod, zPeriod),
+                        edgeAlpha(controlValue, lowerBound, edgeFalloff));
+            default:
+                return Interp.linearInterp(sourceModule[1].getTiledValue2D(x, z, xPeriod, zPeriod),
+                        sourceModule[0].getTiledValue2D(x, z, xPeriod, zPeriod),
+                        edgeAlpha(controlValue, upperBound, edgeFalloff));
+        }
+    }
+
+    /**
+     * Generates output values for a block of input values, or for a row
+     * of input values on the plane @a y = 0 if @a ys is null.
+     *
+     * @param z The @a z coordinate shared by the row, if @a ys is null.
+     */
+    private void getValues(double[] xs, double[] ys, double[] zs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+        assert (sourceModule[1] != null);
+        assert (sourceModule[2] != null);
+
+        // Generate the control values, then find the input values that need
+        // each source module.
+        int end = offset + count;
+        BlockScratch scratch = this.scratch.get();
+        double[] controlValues = scratch.getDoubles(0, end);
+        getSourceValues(sourceModule[2], xs, ys, zs, z, controlValues, offset, count);
+        int[] modes = scratch.getInts(0, count);
+        int[] lanes0 = scratch.getInts(1, count);
+        int[] lanes1 = scratch.getInts(2, count);
+        int count0 = 0, count1 = 0;
+        for (int i = offset; i < end; i++) {
+            int mode = selectMode(controlValues[i], lowerBound, upperBound, edgeFalloff);
+            modes[i - offset] = mode;
+            if (mode != SELECT_SOURCE_1) {
+                lanes0[count0++] = i;
+            }
+            if (mode != SELECT_SOURCE_0) {
+                lanes1[count1++] = i;
+            }
+        }
+
+        // A batch that lies entirely on one side needs no gathering.
+        if (count1 == 0) {
+            getSourceValues(sourceModule[0], xs, ys, zs, z, out, offset, count);
+            return;
+        } else if (count0 == 0) {
+            getSourceValues(sourceModule[1], xs, ys, zs, z, out, offset, count);
+            return;
+        }
+
+        double[] values0 = scratch.getDoubles(1, count0);
+        double[] values1 = scratch.getDoubles(2, count1);
+        getLaneValues(sourceModule[0], xs, ys, zs, z, lanes0, count0, values0, scratch);
+        getLaneValues(sourceModule[1], xs, ys, zs, z, lanes1, count1, values1, scratch);
+        int k0 = 0, k1 = 0;
+        for (int i = offset; i < end; i++) {
+            switch (modes[i - offset]) {
+                case SELECT_SOURCE_0:
+                    out[i] = values0[k0++];
+                    break;
+                case SELECT_SOURCE_1:
+                    out[i] = values1[k1++];
+                    break;
+                case SELECT_LOWER_EDGE:
+                    out[i] = Interp.linearInterp(values0[k0++], values1[k1++],
+                            edgeAlpha(controlValues[i], lowerBound, edgeFalloff));
+                    break;
+                default:
+                    out[i] = Interp.linearInterp(values1[k1++], values0[k0++],
+                            edgeAlpha(controlValues[i], upperBound, edgeFalloff));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Generates the output values of a source module for a block of input
+     * values, or for a row of input values if @a ys is null.
+     */
+    private static void getSourceValues(Module module, double[] xs, double[] ys, double[] zs, double z,
+                                        double[] out, int offset, int count) {
+        if (ys == null) {
+            module.getValues2D(xs, z, out, offset, count);
+        } else {
+            module.getValues(xs, ys, zs, out, offset, count);
+        }
+    }
+
+    /**
+     * Generates the output values of a source module for some of the input
+     * values of a block, or of a row if @a ys is null.
+     * <p/>
+     * The input values at the indices @a lanes[0] to
+     * @a lanes[laneCount - 1] are gathered and passed to the source module
+     * as one block; @a values[k] receives the output value for the input
+     * value at index @a lanes[k].
+     */
+    private static void getLaneValues(Module module, double[] xs, double[] ys, double[] zs, double z, int[] lanes,
+                                      int laneCount, double[] values, BlockScratch scratch) {
+        double[] laneXs = scratch.getDoubles(3, laneCount);
+        for (int k = 0; k < laneCount; k++) {
+            laneXs[k] = xs[lanes[k]];
+        }
+        if (ys == null) {
+            module.getValues2D(laneXs, z, values, 0, laneCount);
+            return;
+        }
+        double[] laneYs = scratch.getDoubles(4, laneCount);
+        double[] laneZs = scratch.getDoubles(5, laneCount);
+        for (int k = 0; k < laneCount; k++) {
+            laneYs[k] = ys[lanes[k]];
+            laneZs[k] = zs[lanes[k]];
+        }
+        module.getValues(laneXs, laneYs, laneZs, values, 0, laneCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * ModuleProgram evaluates both source modules and the control module
+     * for the whole block, and the output values are then selected by the
+     * control values.  The source modules of a compiled graph may be
+     * shared with other noise modules, so their output values are usually
+     * needed anyway.
+     */
+    @Override
+    protected boolean combinesSourceValues() {
+        return true;
+    }
+
+    @Override
+    protected void combineSourceValues(double[][] sourceValues, double[] out, int count) {
+        double[] values0 = sourceValues[0];
+        double[] values1 = sourceValues[1];
+        double[] controlValues = sourceValues[2];
+        for (int i = 0; i < count; i++) {
+            double controlValue = controlValues[i];
+            switch (selectMode(controlValue, lowerBound, upperBound, edgeFalloff)) {
+                case SELECT_SOURCE_0:
+                    out[i] = values0[i];
+                    break;
+                case SELECT_SOURCE_1:
+                    out[i] = values1[i];
+                    break;
+                case SELECT_LOWER_EDGE:
+                    out[i] = Interp.linearInterp(values0[i], values1[i],
+                            edgeAlpha(controlValue, lowerBound, edgeFalloff));
+                    break;
+                default:
+                    out[i] = Interp.linearInterp(values1[i], values0[i],
+                            edgeAlpha(controlValue, upperBound, edgeFalloff));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sets the lower and upper bounds of the selection range.
+     * <p/>
+     * If the output value from the control module is within the selection
+     * range, the GetValue() method outputs the value from the source
+     * module with an index value of 1.  Otherwise, this method outputs the
+     * value from the source module with an index value of 0.
+     *
+     * @param lowerBound The lower bound.
+     * @param upperBound The upper bound.
+     * @throws ExceptionInvalidParam See the preconditions.
+     * @pre The lower bound must be less than the upper bound.
+     */
+    public void setBounds(double lowerBound, double upperBound) {
+        if (!(lowerBound < upperBound)) {
+            throw new ExceptionInvalidParam();
+        }
+
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+
+        // Make sure that the edge falloff curves do not overlap.
+        setEdgeFalloff(edgeFalloff);
+    }
+
+    /**
+     * Sets the control module.
+     * <p/>
+     * The control module determines the output value to select.  If the
+     * output value from the control module is within a range of values
+     * known as the <i>selection range</i>, the GetValue() method outputs
+     * the value from the source module with an index value of 1.
+     * Otherwise, this method outputs the value from the source module with
+     * an index value of 0.
+     * <p/>
+     * This method assigns the control module an index value of 2.
+     * Passing the control module to this method produces the same results
+     * as passing the control module to the SetSourceModule() method while
+     * assigning that noise module an index value of 2.
+     *
+     * @param controlModule The control module.
+     */
+    public void setControlModule(Module controlModule) {
+        setSourceModule(2, controlModule);
+    }
+
+    /**
+     * Sets the falloff value at the edge transition.
+     * <p/>
+     * The falloff value is the width of the edge transition at either edge
+     * of the selection range.
+     * <p/>
+     * By default, there is an abrupt transition between the values from
+     * the two source modules at the boundaries of the selection range.
+     *
+     * @param edgeFalloff The falloff value at the edge transition.
+     */
+    public void setEdgeFalloff(double edgeFalloff) {
+        // Make sure that the edge falloff curves do not overlap.
+        double boundSize = upperBound - lowerBound;
+        this.edgeFalloff = (edgeFalloff > boundSize / 2) ? boundSize / 2 : edgeFalloff;
+    }
+
+    /**
+     * Returns how the output value is chosen for a control value: one of
+     * SELECT_SOURCE_0, SELECT_SOURCE_1, SELECT_LOWER_EDGE or
+     * SELECT_UPPER_EDGE.
+     */
+    static int selectMode(double controlValue, double lowerBound, double upperBound, double edgeFalloff) {
+        if (edgeFalloff > 0.0) {
+            if (controlValue < (lowerBound - edgeFalloff)) {
+                // The output value from the control module is below the selector
+                // threshold; return the output value from the first source module.
+                return SELECT_SOURCE_0;
+            } else if (controlValue < (lowerBound + edgeFalloff)) {
+                // The output value from the control module is near the lower end of the
+                // selector threshold and within the smooth curve.
+                return SELECT_LOWER_EDGE;
+            } else if (controlValue < (upperBound - edgeFalloff)) {
+                // The output value from the control module is within the selector
+                // threshold; return the output value from the second source module.
+                return SELECT_SOURCE_1;
+            } else if (controlValue < (upperBound + edgeFalloff)) {
+                // The output value from the control module is near the upper end of the
+                // selector threshold and within the smooth curve.
+                return SELECT_UPPER_EDGE;
+            } else {
+                // Output value from the control module is above the selector threshold;
+                // return the output value from the first source module.
+                return SELECT_SOURCE_0;
+            }
+        } else {
+            if (controlValue < lowerBound || controlValue > upperBound) {
+                return SELECT_SOURCE_0;
+            } else {
+                return SELECT_SOURCE_1;
+            }
+        }
+    }
+
+    /**
+     * Returns the weight of the second blended value for a control value
+     * within the edge transition around a bound.
+     */
+    static double edgeAlpha(double controlValue, double bound, double edgeFalloff) {
+        double lowerCurve = (bound - edgeFalloff);
+        double upperCurve = (bound + edgeFalloff);
+        return Interp.sCurve3((controlValue - lowerCurve) / (upperCurve - lowerCurve));
+    }
+
+    /**
+     * Returns the source module that generates every output value for the
+     * control values inside a range: SELECT_SOURCE_0, SELECT_SOURCE_1, or
+     * SELECT_BOTH if both source modules may contribute.
+     */
+    static int selectedSource(Range controlRange, double lowerBound, double upperBound, double edgeFalloff) {
+        double min = controlRange.getMin();
+        double max = controlRange.getMax();
+        if (edgeFalloff > 0.0) {
+            if (max < (lowerBound - edgeFalloff) || min >= (upperBound + edgeFalloff)) {
+                return SELECT_SOURCE_0;
+            } else if (min >= (lowerBound + edgeFalloff) && max < (upperBound - edgeFalloff)) {
+                return SELECT_SOURCE_1;
+            }
+        } else {
+            if (max < lowerBound || min > upperBound) {
+                return SELECT_SOURCE_0;
+            } else if (min >= lowerBound && max <= upperBound) {
+                return SELECT_SOURCE_1;
+            }
+        }
+        return SELECT_BOTH;
+    }
+
+    /**
+     * Returns the range of the output values when both source modules may
+     * contribute.
+     */
+    static Range selectRange(Range range0, Range range1, double edgeFalloff) {
+        return edgeFalloff > 0.0 ? range0.interpolate(range1, 0.0, 1.0) : range0.union(range1);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.NoiseGen;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that outputs fractal simplex noise.
+ * <p/>
+ * This noise module has the same parameters as the Perlin noise module
+ * (frequency, lacunarity, octave count, persistence and seed) and sums
+ * octaves in the same way, but each octave is generated with simplex
+ * noise (see NoiseGen.simplexNoise3D()) instead of gradient-coherent
+ * noise.  Each octave only visits the four corners of a simplex instead
+ * of the eight corners of a cube, so it is cheaper to calculate.
+ * <p/>
+ * Simplex noise has no noise quality setting; it is always smooth.  The
+ * output does not match Perlin noise generated with the same parameters.
+ */
+public class Simplex extends Module {
+
+    // Default frequency
+    public static final double DEFAULT_SIMPLEX_FREQUENCY = 1.0;
+    // Default lacunarity
+    public static final double DEFAULT_SIMPLEX_LACUNARITY = 2.0;
+    // Default number of octaves
+    public static final int DEFAULT_SIMPLEX_OCTAVE_COUNT = 6;
+    // Default persistence value
+    public static final double DEFAULT_SIMPLEX_PERSISTENCE = 0.5;
+    // Default noise seed
+    public static final int DEFAULT_SIMPLEX_SEED = 0;
+
+    // Maximum number of octaves for the Simplex noise module.
+    public static final int SIMPLEX_MAX_OCTAVE = 30;
+    // Frequency of the first octave.
+    protected double frequency;
+    // Frequency multiplier between successive octaves.
+    protected double lacunarity;
+    // Total number of octaves that generate the simplex noise.
+    protected int octaveCount;
+    // Persistence of the simplex noise.
+    protected double persistence;
+    // Seed value used by the simplex-noise function.
+    protected int seed;
+
+    public Simplex() {
+        super(0);
+
+        frequency = DEFAULT_SIMPLEX_FREQUENCY;
+        lacunarity = DEFAULT_SIMPLEX_LACUNARITY;
+        octaveCount = DEFAULT_SIMPLEX_OCTAVE_COUNT;
+        persistence = DEFAULT_SIMPLEX_PERSISTENCE;
+        seed = DEFAULT_SIMPLEX_SEED;
+    }
+
+    /**
+     * Returns the frequency of the first octave.
+     *
+     * @return The frequency of the first octave.
+     */
+    public double getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Returns the lacunarity of the simplex noise.
+     * <p/>
+     * The lacunarity is the frequency multiplier between successive
+     * octaves.
+     *
+     * @return The lacunarity of the simplex noise.
+     */
+    public double getLacunarity() {
+        return lacunarity;
+    }
+
+    /**
+     * Returns the number of octaves that generate the simplex noise.
+     * <p/>
+     * The number of octaves controls the amount of detail in the simplex
+     * noise.
+     *
+     * @return The number of octaves that generate the simplex noise.
+     */
+    public int getOctaveCount() {
+        return octaveCount;
+    }
+
+    /**
+     * Returns the persistence value of the simplex noise.
+     * <p/>
+     * The persistence value controls the roughness of the simplex noise.
+     *
+     * @return The persistence value of the simplex noise.
+     */
+    public double getPersistence() {
+        return persistence;
+    }
+
+    /**
+     * Returns the seed value used by the simplex-noise function.
+     *
+     * @return The seed value.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Each octave is bounded by NoiseGen.SIMPLEX_NOISE_BOUND, scaled by the
+     * persistence value raised to the octave number.
+     */
+    @Override
+    public Range getOutputRange() {
+        double amplitude = 0.0;
+        double curPersistence = 1.0;
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            amplitude += Math.abs(curPersistence);
+            curPersistence *= persistence;
+        }
+        return Range.symmetric(amplitude * NoiseGen.SIMPLEX_NOISE_BOUND);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(frequency, lacunarity, octaveCount, persistence, seed);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 0;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        double value = 0.0;
+        double curPersistence = 1.0;
+
+        x *= frequency;
+        y *= frequency;
+        z *= frequency;
+
+        for (int curOctave = 0; curOctave < octaveCount; curOctave++) {
+            // Get the simplex-noise value from the input value and add it to the final result.
+            int localSeed = (this.seed + curOctave) & 0xffffffff;
+            value += NoiseGen.simplexNoise3D(x, y, z, localSeed) * curPersistence;
+
+            // Prepare the next octave.
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+            curPersistence *= persistence;
+        }
+
+        return value;
+    }
+
+    /**
+     * Sets the frequency of the first octave.
+     *
+     * @param frequency The frequency of the first octave.
+     */
+    public void setFrequency(double frequency) {
+        this.frequency = frequency;
+    }
+
+    /**
+     * Sets the lacunarity of the simplex noise.
+     * <p/>
+     * The lacunarity is the frequency multiplier between successive octaves.
+     * <p/>
+     * For best results, set the lacunarity to a number between 1.5 and
+     * 3.5
+     *
+     * @param lacunarity The lacunarity of the simplex noise.
+     */
+    public void setLacunarity(double lacunarity) {
+        this.lacunarity = lacunarity;
+    }
+
+    /**
+     * Sets the number of octaves that generate the simplex noise.
+     * <p/>
+     * The number of octaves controls the amount of detail in the simplex
+     * noise.
+     * <p/>
+     * The larger the number of octaves, the more time required to
+     * calculate the simplex-noise value.
+     *
+     * @param octaveCount The number of octaves that generate the simplex noise.
+     * @throws ExceptionInvalidParam An invalid parameter was
+     *                               specified; see the preconditions for more information.
+     * @pre The number of octaves ranges from 1 to SIMPLEX_MAX_OCTAVE.
+     */
+    public void setOctaveCount(int octaveCount) {
+        if (octaveCount < 1 || octaveCount > SIMPLEX_MAX_OCTAVE) {
+            throw new ExceptionInvalidParam();
+        }
+        this.octaveCount = octaveCount;
+    }
+
+    /**
+     * Sets the persistence value of the simplex noise.
+     * <p/>
+     * The persistence value controls the roughness of the simplex noise.
+     * <p/>
+     * For best results, set the persistence to a number between 0.0 and 1.0.
+     *
+     * @param persistence The persistence value of the simplex noise.
+     */
+    public void setPersistence(double persistence) {
+        this.persistence = persistence;
+    }
+
+    /**
+     * Sets the seed value used by the simplex-noise function.
+     *
+     * @param seed The seed value.
+     */
+    public void setSeed(int seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,708 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Noise module that keeps the output values generated by a source module
+ * in a bounded cache shared by every thread.
+ * <p/>
+ * Unlike the Cache noise module, which only remembers the last output
+ * value, this noise module remembers many output values, so that
+ * overlapping noise maps (neighbouring tiles with aprons, several zoom
+ * levels...) only evaluate the source module once for each input value.
+ * The output values are identical to those of the source module; an
+ * output value is only reused for the exact same input value.
+ * <p/>
+ * The input values are grouped into cubic tiles with a side of
+ * GetTileSize() units, which are evicted together.  Each tile is divided
+ * into a lattice of GetResolution() cells along each side, and has room
+ * for one input value per cell.  A tile stores its input and output
+ * values in flat arrays, one for each layer of cells of constant @a y,
+ * indexed by the position of the cell within the layer; a layer is only
+ * allocated once one of its cells is used, so two-dimensional noise maps
+ * only pay for one layer per tile.  A new input value replaces the input
+ * value cached in the same cell, so the lattice spacing,
+ * GetTileSize() / GetResolution(), should not exceed that of the finest
+ * noise map.
+ * <p/>
+ * The capacity bounds the number of cells of the allocated layers, not
+ * only the number of cached output values, so sparse input values cannot
+ * make the cache outgrow it.  The tiles are spread over STRIPE_COUNT
+ * stripes, each guarded by its own lock and holding an equal share of
+ * the capacity.  When a stripe is full, the tiles it used least recently
+ * are evicted.  Finding a cached value does not allocate any object, and
+ * the source module is evaluated outside the locks.
+ * <p/>
+ * An application that accepts approximate output values can enable
+ * snapping (see SetSnapping()): every input value is then moved to the
+ * nearest lattice point before it is looked up or evaluated, so noise
+ * maps with different spacings share the output values of the lattice
+ * points.
+ * <p/>
+ * GetHitCount() and GetMissCount() report how effective the cache is.
+ * <p/>
+ * This noise module cannot detect changes made to the parameters of the
+ * source module; call Clear() after changing them.
+ * <p/>
+ * This noise module requires one source module.
+ */
+public class SpatialCache extends Module {
+
+    // Default number of cells the cache has room for.
+    public static final int DEFAULT_SPATIAL_CACHE_CAPACITY = 1 << 18;
+    // Default number of cells along each side of a tile.
+    public static final int DEFAULT_SPATIAL_CACHE_RESOLUTION = 64;
+    // Default side of a tile, in units.
+    public static final double DEFAULT_SPATIAL_CACHE_TILE_SIZE = 1.0;
+    // Number of independently locked stripes.
+    public static final int STRIPE_COUNT = 16;
+    // Lattice coordinates beyond this bound are not cached, so that they
+    // convert exactly to a long.
+    private static final double MAX_LATTICE_COORDINATE = 4503599627370496.0;
+
+    // Number of cells the cache has room for.
+    private int capacity;
+    // Number of cells along each side of a tile, a power of two.
+    private int resolution;
+    // Base-2 logarithm of the resolution.
+    private int resolutionShift;
+    // Side of a tile, in units.
+    private double tileSize;
+    // Side of a cell, in units.
+    private double spacing;
+    // Number of cells per unit.
+    private double latticeScale;
+    // Determines if the input values are moved to the nearest lattice point.
+    private boolean snapping;
+    // The stripes of the cache.
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    // Number of output values found in the cache.
+    private final AtomicLong hitCount = new AtomicLong();
+    // Number of output values generated by the source module.
+    private final AtomicLong missCount = new AtomicLong();
+    // Scratch arrays of each thread used by GetValues().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public SpatialCache() {
+        super(1);
+
+        capacity = DEFAULT_SPATIAL_CACHE_CAPACITY;
+        snapping = false;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+        setLattice(DEFAULT_SPATIAL_CACHE_TILE_SIZE, DEFAULT_SPATIAL_CACHE_RESOLUTION);
+    }
+
+    /**
+     * Removes every cached output value.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cells the cache has room for.
+     *
+     * @return The capacity of the cache, in cells.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of cells of the allocated layers.
+     * <p/>
+     * This number never exceeds GetCapacity().
+     *
+     * @return The number of allocated cells.
+     */
+    public int getCellCount() {
+        int cellCount = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                cellCount += stripe.cellCount;
+            }
+        }
+        return cellCount;
+    }
+
+    /**
+     * Returns the number of output values found in the cache since the last
+     * call to ResetStatistics().
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of output values generated by the source module
+     * since the last call to ResetStatistics().
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of cells along each side of a tile.
+     *
+     * @return The resolution of a tile.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns the number of cached output values.
+     *
+     * @return The number of cached output values.
+     */
+    public int getSize() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * With snapping, the box is widened by one lattice spacing.
+     */
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        if (!snapping) {
+            return sourceModule[0].getValueRange(x0, y0, z0, x1, y1, z1);
+        }
+        return sourceModule[0].getValueRange(x0 - spacing, y0 - spacing, z0 - spacing,
+                x1 + spacing, y1 + spacing, z1 + spacing);
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    /**
+     * Returns the side of the cubic tiles that group the input values.
+     *
+     * @return The side of a tile, in units.
+     */
+    public double getTileSize() {
+        return tileSize;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        if (snapping) {
+            x = snap(x);
+            y = snap(y);
+            z = snap(z);
+        }
+        double qx = Math.floor(x * latticeScale);
+        double qy = Math.floor(y * latticeScale);
+        double qz = Math.floor(z * latticeScale);
+        if (!isCacheable(qx, qy, qz)) {
+            missCount.incrementAndGet();
+            return sourceModule[0].getValue(x, y, z);
+        }
+
+        long lx = (long) qx, ly = (long) qy, lz = (long) qz;
+        long tileX = lx >> resolutionShift, tileY = ly >> resolutionShift, tileZ = lz >> resolutionShift;
+        int layer = layer(ly);
+        int cell = cell(lx, lz);
+        int hash = hash(tileX, tileY, tileZ);
+        Stripe stripe = stripes[hash & (STRIPE_COUNT - 1)];
+        synchronized (stripe) {
+            Tile tile = stripe.get(tileX, tileY, tileZ, hash);
+            if (tile != null && tile.holds(layer, cell, x, y, z)) {
+                hitCount.incrementAndGet();
+                return tile.layers[layer][cell + 3];
+            }
+        }
+
+        missCount.incrementAndGet();
+        double value = sourceModule[0].getValue(x, y, z);
+        synchronized (stripe) {
+            stripe.put(tileX, tileY, tileZ, hash, layer, cell, x, y, z, value, resolution,
+                    capacity / STRIPE_COUNT);
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The output values missing from the cache are generated by the source
+     * module as a single block.
+     */
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        BlockScratch scratch = this.scratch.get();
+        int[] missing = scratch.getInts(0, count);
+        double[] missingXs = scratch.getDoubles(0, count);
+        double[] missingYs = scratch.getDoubles(1, count);
+        double[] missingZs = scratch.getDoubles(2, count);
+        double[] missingValues = scratch.getDoubles(3, count);
+        int missingCount = 0;
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            if (snapping) {
+                x = snap(x);
+                y = snap(y);
+                z = snap(z);
+            }
+            double qx = Math.floor(x * latticeScale);
+            double qy = Math.floor(y * latticeScale);
+            double qz = Math.floor(z * latticeScale);
+            if (isCacheable(qx, qy, qz)) {
+                long lx = (long) qx, ly = (long) qy, lz = (long) qz;
+                long tileX = lx >> resolutionShift, tileY = ly >> resolutionShift, tileZ = lz >> resolutionShift;
+                int layer = layer(ly);
+                int cell = cell(lx, lz);
+                int hash = hash(tileX, tileY, tileZ);
+                Stripe stripe = stripes[hash & (STRIPE_COUNT - 1)];
+                synchronized (stripe) {
+                    Tile tile = stripe.get(tileX, tileY, tileZ, hash);
+                    if (tile != null && tile.holds(layer, cell, x, y, z)) {
+                        out[i] = tile.layers[layer][cell + 3];
+                        continue;
+                    }
+                }
+            }
+            missingXs[missingCount] = x;
+            missingYs[missingCount] = y;
+            missingZs[missingCount] = z;
+            missing[missingCount++] = i;
+        }
+        hitCount.addAndGet(count - missingCount);
+        if (missingCount == 0) {
+            return;
+        }
+        missCount.addAndGet(missingCount);
+
+        sourceModule[0].getValues(missingXs, missingYs, missingZs, missingValues, 0, missingCount);
+        for (int m = 0; m < missingCount; m++) {
+            out[missing[m]] = missingValues[m];
+            double x = missingXs[m], y = missingYs[m], z = missingZs[m];
+            double qx = Math.floor(x * latticeScale);
+            double qy = Math.floor(y * latticeScale);
+            double qz = Math.floor(z * latticeScale);
+            if (isCacheable(qx, qy, qz)) {
+                long lx = (long) qx, ly = (long) qy, lz = (long) qz;
+                long tileX = lx >> resolutionShift, tileY = ly >> resolutionShift, tileZ = lz >> resolutionShift;
+                int hash = hash(tileX, tileY, tileZ);
+                Stripe stripe = stripes[hash & (STRIPE_COUNT - 1)];
+                synchronized (stripe) {
+                    stripe.put(tileX, tileY, tileZ, hash, layer(ly), cell(lx, lz), x, y, z, missingValues[m],
+                            resolution, capacity / STRIPE_COUNT);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if the input values are moved to the nearest lattice
+     * point.
+     *
+     * @return true if snapping is enabled.
+     */
+    public boolean isSnapping() {
+        return snapping;
+    }
+
+    /**
+     * Resets the hit and miss counts to zero.
+     */
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * Sets the number of cells the cache has room for.
+     * <p/>
+     * Every allocated layer of a tile takes GetResolution()^2 cells,
+     * whether or not they hold an output value.  Changing the capacity
+     * clears the cache.
+     *
+     * @param capacity The capacity of the cache, in cells.
+     * @throws ExceptionInvalidParam An invalid parameter was specified; see
+     *                               the preconditions for more information.
+     * @pre Each stripe has room for at least one layer, that is the
+     * capacity is at least STRIPE_COUNT * GetResolution()^2.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity / STRIPE_COUNT < resolution * resolution) {
+            throw new ExceptionInvalidParam("Capacity must be at least " + STRIPE_COUNT * resolution * resolution);
+        }
+        this.capacity = capacity;
+        clear();
+    }
+
+    /**
+     * Sets the number of cells along each side of a tile.
+     * <p/>
+     * Changing the resolution changes the lattice spacing and clears the
+     * cache.
+     *
+     * @param resolution The resolution of a tile.
+     * @throws ExceptionInvalidParam An invalid parameter was specified; see
+     *                               the preconditions for more information.
+     * @pre The resolution is a power of two between 1 and 1024.
+     * @pre Each stripe has room for at least one layer, that is the
+     * capacity is at least STRIPE_COUNT * @a resolution^2.
+     */
+    public void setResolution(int resolution) {
+        if (resolution < 1 || resolution > 1024 || (resolution & (resolution - 1)) != 0) {
+            throw new ExceptionInvalidParam("Resolution must be a power of two between 1 and 1024");
+        } else if (capacity / STRIPE_COUNT < resolution * resolution) {
+            throw new ExceptionInvalidParam("Resolution leaves no room for a layer in each stripe");
+        }
+        setLattice(tileSize, resolution);
+    }
+
+    /**
+     * Enables or disables snapping.
+     * <p/>
+     * With snapping, every input value is moved to the nearest lattice
+     * point, and the output value is the one the source module generates
+     * at that point.  The output values are then approximations, unless
+     * the input values already lie on the lattice.  Without snapping, the
+     * default, the output values are identical to those of the source
+     * module.  Changing this setting clears the cache.
+     *
+     * @param snapping true to enable snapping.
+     */
+    public void setSnapping(boolean snapping) {
+        this.snapping = snapping;
+        clear();
+    }
+
+    @Override
+    public void setSourceModule(int index, Module sourceModule) {
+        super.setSourceModule(index, sourceModule);
+        clear();
+    }
+
+    /**
+     * Sets the side of the cubic tiles that group the input values.
+     * <p/>
+     * Input values in the same tile are evicted together, so the tiles
+     * should roughly match the areas the application evaluates together.
+     * Changing the tile size changes the lattice spacing and clears the
+     * cache.
+     *
+     * @param tileSize The side of a tile, in units.
+     * @throws ExceptionInvalidParam An invalid parameter was specified; see
+     *                               the preconditions for more information.
+     * @pre The tile size is positive and finite.
+     */
+    public void setTileSize(double tileSize) {
+        if (!(tileSize > 0.0 && tileSize < Double.POSITIVE_INFINITY)) {
+            throw new ExceptionInvalidParam("Tile size must be positive and finite");
+        }
+        setLattice(tileSize, resolution);
+    }
+
+    private void setLattice(double tileSize, int resolution) {
+        this.tileSize = tileSize;
+        this.resolution = resolution;
+        resolutionShift = Integer.numberOfTrailingZeros(resolution);
+        spacing = tileSize / resolution;
+        latticeScale = resolution / tileSize;
+        clear();
+    }
+
+    /**
+     * Moves a coordinate to the nearest lattice point.
+     */
+    private double snap(double coord) {
+        return Math.floor(coord * latticeScale + 0.5) * spacing;
+    }
+
+    /**
+     * Determines if the lattice coordinates of an input value can be
+     * cached; infinite, NaN and huge coordinates are not.
+     */
+    private static boolean isCacheable(double qx, double qy, double qz) {
+        return Math.abs(qx) < MAX_LATTICE_COORDINATE && Math.abs(qy) < MAX_LATTICE_COORDINATE
+                && Math.abs(qz) < MAX_LATTICE_COORDINATE;
+    }
+
+    /**
+     * Returns the layer of a tile that holds a cell.
+     */
+    private int layer(long ly) {
+        return (int) (ly & (resolution - 1));
+    }
+
+    /**
+     * Returns the index of the first element of a cell within its layer.
+     */
+    private int cell(long lx, long lz) {
+        return ((int) (lz & (resolution - 1)) * resolution + (int) (lx & (resolution - 1))) * Tile.CELL_LENGTH;
+    }
+
+    private static int hash(long tileX, long tileY, long tileZ) {
+        long hash = tileX * 1619 + tileY * 31337 + tileZ * 6971;
+        int result = (int) (hash ^ (hash >>> 32));
+        return result ^ (result >>> 16);
+    }
+
+    /**
+     * A share of the cache guarded by its own lock.
+     * <p/>
+     * The tiles are chained in a hash table, and in a list from the least
+     * to the most recently used.
+     */
+    private static final class Stripe {
+
+        // Chains of tiles, indexed by hash.
+        Tile[] buckets = new Tile[16];
+        // Number of tiles in the stripe.
+        int tileCount;
+        // Sentinel of the list of tiles, from the least to the most
+        // recently used.
+        final Tile lru = new Tile(0, 0, 0, 0, 0);
+        // Number of output values in the tiles.
+        int size;
+        // Number of cells of the allocated layers.
+        int cellCount;
+
+        Stripe() {
+            lru.older = lru;
+            lru.newer = lru;
+        }
+
+        void clear() {
+            buckets = new Tile[16];
+            tileCount = 0;
+            lru.older = lru;
+            lru.newer = lru;
+            size = 0;
+            cellCount = 0;
+        }
+
+        /**
+         * Returns a tile and marks it as the most recently used, or returns
+         * null if the tile is not cached.
+         */
+        Tile get(long tileX, long tileY, long tileZ, int hash) {
+            Tile tile = buckets[(hash >>> 4) & (buckets.length - 1)];
+            while (tile != null && !(tile.x == tileX && tile.y == tileY && tile.z == tileZ)) {
+                tile = tile.chain;
+            }
+            if (tile != null && lru.older != tile) {
+                unlink(tile);
+                link(tile);
+            }
+            return tile;
+        }
+
+        void put(long tileX, long tileY, long tileZ, int hash, int layer, int cell, double x, double y, double z,
+                 double value, int resolution, int capacity) {
+            Tile tile = get(tileX, tileY, tileZ, hash);
+            if (tile == null) {
+                tile = new Tile(tileX, tileY, tileZ, hash, resolution);
+                if (tileCount >= buckets.length) {
+                    rehash();
+                }
+                int bucket = (hash >>> 4) & (buckets.length - 1);
+                tile.chain = buckets[bucket];
+                buckets[bucket] = tile;
+                tileCount++;
+                link(tile);
+            }
+            if (tile.layers[layer] == null) {
+                int layerCells = resolution * resolution;
+                if (tile.cellCount + layerCells > capacity) {
+                    // A single tile may not outgrow the stripe.
+                    size -= tile.size;
+                    cellCount -= tile.cellCount;
+                    tile.clear();
+                }
+                tile.allocate(layer, layerCells);
+                cellCount += layerCells;
+            }
+            if (tile.put(layer, cell, x, y, z, value)) {
+                size++;
+            }
+
+            // Evict the least recently used tiles, but never the current one.
+            while (cellCount > capacity && lru.newer != tile) {
+                remove(lru.newer);
+            }
+        }
+
+        private void remove(Tile tile) {
+            int bucket = (tile.hash >>> 4) & (buckets.length - 1);
+            if (buckets[bucket] == tile) {
+                buckets[bucket] = tile.chain;
+            } else {
+                Tile previous = buckets[bucket];
+                while (previous.chain != tile) {
+                    previous = previous.chain;
+                }
+                previous.chain = tile.chain;
+            }
+            unlink(tile);
+            tileCount--;
+            size -= tile.size;
+            cellCount -= tile.cellCount;
+        }
+
+        private void rehash() {
+            Tile[] grown = new Tile[buckets.length * 2];
+            for (Tile tile : buckets) {
+                while (tile != null) {
+                    Tile chain = tile.chain;
+                    int bucket = (tile.hash >>> 4) & (grown.length - 1);
+                    tile.chain = grown[bucket];
+                    grown[bucket] = tile;
+                    tile = chain;
+                }
+            }
+            buckets = grown;
+        }
+
+        // Appends a tile to the most recently used end of the list.
+        private void link(Tile tile) {
+            tile.older = lru.older;
+            tile.newer = lru;
+            lru.older.newer = tile;
+            lru.older = tile;
+        }
+
+        private void unlink(Tile tile) {
+            tile.older.newer = tile.newer;
+            tile.newer.older = tile.older;
+        }
+    }
+
+    /**
+     * The cached input and output values of a tile.
+     */
+    private static final class Tile {
+
+        // Number of elements of a cell: the x, y and z coordinates of the
+        // input value, and the output value.
+        static final int CELL_LENGTH = 4;
+
+        // The integer coordinates of the tile.
+        final long x;
+        final long y;
+        final long z;
+        final int hash;
+        // The cells of each layer, indexed by the position of the cell
+        // within the layer; null until a cell of the layer is used.  The x
+        // coordinate of an empty cell is NaN, which no input value equals.
+        final double[][] layers;
+        // Number of output values in the tile.
+        int size;
+        // Number of cells of the allocated layers.
+        int cellCount;
+        // Next tile in the same hash chain.
+        Tile chain;
+        // Neighbouring tiles in the list of recently used tiles.
+        Tile older;
+        Tile newer;
+
+        Tile(long x, long y, long z, int hash, int resolution) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.hash = hash;
+            layers = new double[resolution][];
+        }
+
+        boolean holds(int layer, int cell, double x, double y, double z) {
+            double[] cells = layers[layer];
+            return cells != null && cells[cell] == x && cells[cell + 1] == y && cells[cell + 2] == z;
+        }
+
+        void allocate(int layer, int layerCells) {
+            double[] cells = new double[layerCells * CELL_LENGTH];
+            Arrays.fill(cells, Double.NaN);
+            layers[layer] = cells;
+            cellCount += layerCells;
+        }
+
+        /**
+         * Stores an output value in an allocated layer, and returns true if
+         * its cell was empty.
+         */
+        boolean put(int layer, int cell, double x, double y, double z, double value) {
+            double[] cells = layers[layer];
+            boolean empty = Double.isNaN(cells[cell]);
+            cells[cell] = x;
+            cells[cell + 1] = y;
+            cells[cell + 2] = z;
+            cells[cell + 3] = value;
+            if (empty) {
+                size++;
+            }
+            return empty;
+        }
+
+        void clear() {
+            Arrays.fill(layers, null);
+            size = 0;
+            cellCount = 0;
+        }
+    }
+}
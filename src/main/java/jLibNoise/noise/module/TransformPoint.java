@@ -0,0 +1,320 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that applies an affine transformation to the input value
+ * before returning the output value from a source module.
+ * <p/>
+ * The transformation is a 3x4 matrix stored row by row: the
+ * ( @a x, @a y, @a z ) coordinates passed to the source module are
+ * - @a m[0] * @a x + @a m[1] * @a y + @a m[2] * @a z + @a m[3],
+ * - @a m[4] * @a x + @a m[5] * @a y + @a m[6] * @a z + @a m[7],
+ * - @a m[8] * @a x + @a m[9] * @a y + @a m[10] * @a z + @a m[11].
+ * <p/>
+ * A single TransformPoint noise module can replace any chain of
+ * TranslatePoint, ScalePoint and RotatePoint noise modules; see
+ * ModuleOptimizer.
+ * <p/>
+ * This noise module requires one source module.
+ */
+public class TransformPoint extends Module {
+
+    // Transformation matrix, initially the identity.
+    protected final double[] matrix = {
+            1.0, 0.0, 0.0, 0.0,
+            0.0, 1.0, 0.0, 0.0,
+            0.0, 0.0, 1.0, 0.0
+    };
+    // Scratch arrays of each thread used by GetValues() and GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public TransformPoint() {
+        super(1);
+    }
+
+    /**
+     * Returns the transformation matrix to apply to the input value.
+     *
+     * @return A copy of the 3x4 transformation matrix, row by row.
+     */
+    public double[] getMatrix() {
+        return matrix.clone();
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        double[] box = transformBox(matrix, x0, y0, z0, x1, y1, z1);
+        return sourceModule[0].getValueRange(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(matrix[0], matrix[1], matrix[2], matrix[3], matrix[4], matrix[5],
+                matrix[6], matrix[7], matrix[8], matrix[9], matrix[10], matrix[11]);
+    }
+
+    @Override
+    protected boolean transformsInputValues() {
+        return true;
+    }
+
+    @Override
+    protected void transformInputValues(double[] xs, double[] ys, double[] zs,
+                                        double[] nxs, double[] nys, double[] nzs, int count) {
+        double[] m = matrix;
+        for (int i = 0; i < count; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            nxs[i] = m[0] * x + m[1] * y + m[2] * z + m[3];
+            nys[i] = m[4] * x + m[5] * y + m[6] * z + m[7];
+            nzs[i] = m[8] * x + m[9] * y + m[10] * z + m[11];
+        }
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        return sourceModule[0].getValue(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        BlockScratch scratch = this.scratch.get();
+        double[] nxs = scratch.getDoubles(0, offset + count);
+        double[] nys = scratch.getDoubles(1, offset + count);
+        double[] nzs = scratch.getDoubles(2, offset + count);
+        for (int i = offset; i < offset + count; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            nxs[i] = m[0] * x + m[1] * y + m[2] * z + m[3];
+            nys[i] = m[4] * x + m[5] * y + m[6] * z + m[7];
+            nzs[i] = m[8] * x + m[9] * y + m[10] * z + m[11];
+        }
+        sourceModule[0].getValues(nxs, nys, nzs, out, offset, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * When the transformation maps the plane @a y = 0 onto itself, the
+     * source module is evaluated on that plane too.
+     */
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        if (!isPlanar(m)) {
+            return getValue(x, 0.0, z);
+        }
+        return sourceModule[0].getValue2D(m[0] * x + m[2] * z + m[3], m[8] * x + m[10] * z + m[11]);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        if (!isPlanar(m)) {
+            super.getValues2D(xs, z, out, offset, count);
+            return;
+        } else if (m[8] != 0.0) {
+            // The transformed input values do not share a z coordinate.
+            for (int i = offset; i < offset + count; i++) {
+                out[i] = getValue2D(xs[i], z);
+            }
+            return;
+        }
+        double[] nxs = scratch.get().getDoubles(0, offset + count);
+        for (int i = offset; i < offset + count; i++) {
+            nxs[i] = m[0] * xs[i] + m[2] * z + m[3];
+        }
+        sourceModule[0].getValues2D(nxs, m[10] * z + m[11], out, offset, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The transformed origin is split into an integer origin and a
+     * fraction that is added to the transformed local coordinates (see
+     * Module.OriginCell()), so the source module receives a rebased input
+     * value too.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return getRebasedValue(sourceModule[0], matrix, originX, originY, originZ, x, y, z);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Transformations that scale and translate the @a x and @a z axes
+     * independently tile like ScalePoint: the output values repeat with a
+     * period if those of the source module repeat with the period
+     * multiplied by the scaling factor.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        return isAxisAligned(m) && sourceModule[0].canTile(xPeriod * Math.abs(m[0]), zPeriod * Math.abs(m[10]));
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        double[] m = matrix;
+        if (!isAxisAligned(m)) {
+            return super.getTiledValue2D(x, z, xPeriod, zPeriod);
+        }
+        return sourceModule[0].getTiledValue2D(m[0] * x + m[3], m[10] * z + m[11],
+                xPeriod * Math.abs(m[0]), zPeriod * Math.abs(m[10]));
+    }
+
+    /**
+     * Determines if a transformation maps the plane @a y = 0 onto itself
+     * without mixing the @a x and @a z coordinates.
+     */
+    private static boolean isAxisAligned(double[] m) {
+        return isPlanar(m) && m[2] == 0.0 && m[8] == 0.0;
+    }
+
+    /**
+     * Determines if a transformation maps the plane @a y = 0 onto itself.
+     */
+    private static boolean isPlanar(double[] m) {
+        return m[4] == 0.0 && m[6] == 0.0 && m[7] == 0.0;
+    }
+
+    /**
+     * Sets the transformation matrix to apply to the input value.
+     *
+     * @param matrix The 3x4 transformation matrix, row by row.
+     * @throws ExceptionInvalidParam An invalid parameter was specified; see
+     *                               the preconditions for more information.
+     * @pre The matrix has 12 elements.
+     */
+    public void setMatrix(double[] matrix) {
+        if (matrix.length != 12) {
+            throw new ExceptionInvalidParam("Matrix must have 12 elements");
+        }
+        System.arraycopy(matrix, 0, this.matrix, 0, 12);
+    }
+
+    /**
+     * Generates the output value of a source module at a rebased input
+     * value moved by an affine transformation.
+     * <p/>
+     * Each transformed coordinate is split into an integer origin, made of
+     * the integer parts of the origin terms and of the translation, and a
+     * local coordinate, made of their fractions and of the transformed
+     * local coordinates.
+     *
+     * @param m The transformation matrix, laid out as in SetMatrix().
+     */
+    static double getRebasedValue(Module source, double[] m, long originX, long originY, long originZ, double x, double y, double z) {
+        return source.getRebasedValue(
+                rebasedCell(m, 0, originX, originY, originZ),
+                rebasedCell(m, 4, originX, originY, originZ),
+                rebasedCell(m, 8, originX, originY, originZ),
+                rebasedFraction(m, 0, originX, originY, originZ) + m[0] * x + m[1] * y + m[2] * z,
+                rebasedFraction(m, 4, originX, originY, originZ) + m[4] * x + m[5] * y + m[6] * z,
+                rebasedFraction(m, 8, originX, originY, originZ) + m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Returns the integer part of a row of the transformation applied to
+     * an origin.
+     */
+    private static long rebasedCell(double[] m, int row, long originX, long originY, long originZ) {
+        return originCell(originX, m[row]) + originCell(originY, m[row + 1]) + originCell(originZ, m[row + 2])
+                + (long) Math.floor(m[row + 3]);
+    }
+
+    /**
+     * Returns the fraction that completes RebasedCell() to a row of the
+     * transformation applied to an origin.
+     */
+    private static double rebasedFraction(double[] m, int row, long originX, long originY, long originZ) {
+        return originFraction(originX, m[row]) + originFraction(originY, m[row + 1])
+                + originFraction(originZ, m[row + 2]) + (m[row + 3] - Math.floor(m[row + 3]));
+    }
+
+    /**
+     * Returns the smallest box that contains the image of a box under an
+     * affine transformation.
+     * <p/>
+     * Each coordinate of the image is a sum of terms that are each linear
+     * in one input coordinate, so its extremes are the sums of the
+     * extremes of the terms.  The terms are added in the same order as in
+     * GetValue(), so every transformed input value lies inside the box.
+     *
+     * @param m The transformation matrix, laid out as in SetMatrix().
+     * @return The lower and upper @a x, @a y and @a z coordinates of the box.
+     */
+    static double[] transformBox(double[] m, double x0, double y0, double z0, double x1, double y1, double z1) {
+        double[] box = new double[6];
+        for (int row = 0; row < 3; row++) {
+            double xa = m[row * 4] * x0, xb = m[row * 4] * x1;
+            double ya = m[row * 4 + 1] * y0, yb = m[row * 4 + 1] * y1;
+            double za = m[row * 4 + 2] * z0, zb = m[row * 4 + 2] * z1;
+            box[row] = Math.min(xa, xb) + Math.min(ya, yb) + Math.min(za, zb) + m[row * 4 + 3];
+            box[row + 3] = Math.max(xa, xb) + Math.max(ya, yb) + Math.max(za, zb) + m[row * 4 + 3];
+        }
+        return box;
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * jNoiseLib [https://github.com/andrewgp/jLibNoise]
+ * Original code from libnoise [https://github.com/andrewgp/jLibNoise]
+ *
+ * Copyright (C) 2003, 2004 Jason Bevins
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License (COPYING.txt) for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ * The developer's email is jlbezigvins@gmzigail.com (for great email, take
+ * off every 'zig'.)
+ */
+
+package jLibNoise.noise.module;
+
+import jLibNoise.noise.BlockScratch;
+import jLibNoise.noise.Range;
+
+import java.util.Arrays;
+
+/**
+ * Noise module that moves the coordinates of the input value before
+ * returning the output value from a source module.
+ * <p/>
+ * The GetValue() method moves the ( @a x, @a y, @a z ) coordinates of
+ * the input value by a translation amount before returning the output
+ * value from the source module.  To set the translation amount, call
+ * the SetTranslation() method.  To set the translation amount to apply
+ * to the individual @a x, @a y, or @a z coordinates, call the
+ * SetXTranslation(), SetYTranslation() or SetZTranslation() methods,
+ * respectively.
+ * <p/>
+ * This noise module requires one source module.
+ *
+ * @source 'module/translatepoint.h/cpp'
+ */
+public class TranslatePoint extends Module {
+
+    // Default translation factor applied to the @a x coordinate.
+    public static final double DEFAULT_TRANSLATE_POINT_X = 0.0;
+    // Default translation factor applied to the @a y coordinate.
+    public static final double DEFAULT_TRANSLATE_POINT_Y = 0.0;
+    // Default translation factor applied to the @a z coordinate.
+    public static final double DEFAULT_TRANSLATE_POINT_Z = 0.0;
+
+    // Translation amount applied to the @a x coordinate of the input value.
+    protected double xTranslation;
+    // Translation amount applied to the @a y coordinate of the input value.
+    protected double yTranslation;
+    // Translation amount applied to the @a z coordinate of the input value.
+    protected double zTranslation;
+    // Scratch arrays of each thread used by GetValues2D().
+    private final ThreadLocal<BlockScratch> scratch = BlockScratch.threadLocal();
+
+    public TranslatePoint() {
+        super(1);
+
+        xTranslation = DEFAULT_TRANSLATE_POINT_X;
+        yTranslation = DEFAULT_TRANSLATE_POINT_Y;
+        zTranslation = DEFAULT_TRANSLATE_POINT_Z;
+    }
+
+    @Override
+    public Range getOutputRange() {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getOutputRange();
+    }
+
+    @Override
+    public Range getValueRange(double x0, double y0, double z0, double x1, double y1, double z1) {
+        checkBox(x0, y0, z0, x1, y1, z1);
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValueRange(x0 + xTranslation, y0 + yTranslation, z0 + zTranslation,
+                x1 + xTranslation, y1 + yTranslation, z1 + zTranslation);
+    }
+
+    @Override
+    protected Object getStructuralKey() {
+        return Arrays.<Object>asList(xTranslation, yTranslation, zTranslation);
+    }
+
+    @Override
+    protected boolean transformsInputValues() {
+        return true;
+    }
+
+    @Override
+    protected void transformInputValues(double[] xs, double[] ys, double[] zs,
+                                        double[] nxs, double[] nys, double[] nzs, int count) {
+        for (int i = 0; i < count; i++) {
+            nxs[i] = xs[i] + xTranslation;
+            nys[i] = ys[i] + yTranslation;
+            nzs[i] = zs[i] + zTranslation;
+        }
+    }
+
+    @Override
+    public int getSourceModuleCount() {
+        return 1;
+    }
+
+    @Override
+    public double getValue(double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        return sourceModule[0].getValue(x + xTranslation, y + yTranslation, z + zTranslation);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Without a translation along the @a y axis, the plane @a y = 0 is
+     * moved onto itself, so the source module is evaluated on that plane
+     * too.
+     */
+    @Override
+    public double getValue2D(double x, double z) {
+        assert (sourceModule[0] != null);
+
+        if (yTranslation != 0.0) {
+            return getValue(x, 0.0, z);
+        }
+        return sourceModule[0].getValue2D(x + xTranslation, z + zTranslation);
+    }
+
+    @Override
+    public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+        assert (sourceModule[0] != null);
+
+        if (yTranslation != 0.0) {
+            super.getValues2D(xs, z, out, offset, count);
+            return;
+        }
+        double[] nxs = scratch.get().getDoubles(0, offset + count);
+        for (int i = offset; i < offset + count; i++) {
+            nxs[i] = xs[i] + xTranslation;
+        }
+        sourceModule[0].getValues2D(nxs, z + zTranslation, out, offset, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The integer part of the translation is added to the origin, and only
+     * its fraction to the local coordinates.
+     */
+    @Override
+    public double getRebasedValue(long originX, long originY, long originZ, double x, double y, double z) {
+        assert (sourceModule[0] != null);
+
+        double xShift = Math.floor(xTranslation);
+        double yShift = Math.floor(yTranslation);
+        double zShift = Math.floor(zTranslation);
+        return sourceModule[0].getRebasedValue(originX + (long) xShift, originY + (long) yShift,
+                originZ + (long) zShift, x + (xTranslation - xShift), y + (yTranslation - yShift),
+                z + (zTranslation - zShift));
+    }
+
+    @Override
+    public float getRebasedValueF(long originX, long originY, long originZ, float x, float y, float z) {
+        assert (sourceModule[0] != null);
+
+        double xShift = Math.floor(xTranslation);
+        double yShift = Math.floor(yTranslation);
+        double zShift = Math.floor(zTranslation);
+        return sourceModule[0].getRebasedValueF(originX + (long) xShift, originY + (long) yShift,
+                originZ + (long) zShift, x + (float) (xTranslation - xShift), y + (float) (yTranslation - yShift),
+                z + (float) (zTranslation - zShift));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Translated output values repeat with the same periods as those of
+     * the source module, provided there is no translation along the
+     * @a y axis.
+     */
+    @Override
+    public boolean canTile(double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        return yTranslation == 0.0 && sourceModule[0].canTile(xPeriod, zPeriod);
+    }
+
+    @Override
+    public double getTiledValue2D(double x, double z, double xPeriod, double zPeriod) {
+        assert (sourceModule[0] != null);
+
+        if (yTranslation != 0.0) {
+            return super.getTiledValue2D(x, z, xPeriod, zPeriod);
+        }
+        return sourceModule[0].getTiledValue2D(x + xTranslation, z + zTranslation, xPeriod, zPeriod);
+    }
+
+    /**
+     * Returns the translation amount to apply to the @a x coordinate of
+     * the input value.
+     *
+     * @return The translation amount to apply to the @a x coordinate.
+     */
+    public double getXTranslation() {
+        return xTranslation;
+    }
+
+    /**
+     * Returns the translation amount to apply to the @a y coordinate of
+     * the input value.
+     *
+     * @return The translation amount to apply to the @a y coordinate.
+     */
+    public double getYTranslation() {
+        return yTranslation;
+    }
+
+    /**
+     * Returns the translation amount to apply to the @a z coordinate of
+     * the input value.
+     *
+     * @return The translation amount to apply to the @a z coordinate.
+     */
+    public double getZTranslation() {
+        return zTranslation;
+    }
+
+    /**
+     * Sets the translation amount to apply to the input value.
+     * <p/>
+     * The GetValue() method moves the ( @a x, @a y, @a z ) coordinates
+     * of the input value by a translation amount before returning the
+     * output value from the source module.
+     *
+     * @param translation The translation amount to apply.
+     */
+    public void setTranslation(double translation) {
+        xTranslation = translation;
+        yTranslation = translation;
+        zTranslation = translation;
+    }
+
+    /**
+     * Sets the translation amounts to apply to the ( @a x, @a y, @a z )
+     * coordinates of the input value.
+     *
+     * @param xTranslation The translation amount to apply to the @a x coordinate.
+     * @param yTranslation The translation amount to apply to the @a y coordinate.
+     * @param zTranslation The translation amount to apply to the @a z coordinate.
+     */
+    public void setTranslation(double xTranslation, double yTranslation, double zTranslation) {
+        this.xTranslation = xTranslation;
+        this.yTranslation = yTranslation;
+        this.zTranslation = zTranslation;
+    }
+
+    /**
+     * Sets the translation amount to apply to the @a x coordinate of the
+     * input value.
+     *
+     * @param xTranslation The translation amount to apply to the @a x coordinate.
+     */
+    public void setXTranslation(double xTranslation) {
+        this.xTranslation = xTranslation;
+    }
+
+    /**
+     * Sets the translation amount to apply to the @a y coordinate of the
+     * input value.
+     *
+     * @param yTranslation The translation amount to apply to the @a y coordinate.
+     */
+    public void setYTranslation(double yTranslation) {
+        this.yTranslation = yTranslation;
+    }
+
+    /**
+     * Sets the translation amount to apply to the @a z coordinate of the
+     * input value.
+     *
+     * @param zTranslation The translation amount to apply to the @a z coordinate.
+     */
+    public void setZTranslation(double zTranslation) {
+        this.zTranslation = zTranslation;
+    }
+}
@@ -63,6 +63,14 @@ import jLibNoise.noise.module.Module;
  */
 public abstract class NoiseMapBuilder {
 
+    /**
+     * Number of input values that Build() passes to the source module at
+     * a time (see Module.getValues()).
+     * <p/>
+     * ModuleProgram evaluates its instructions for blocks of the same size.
+     */
+    public static final int BLOCK_SIZE = 256;
+
     /**
      * The callback function that Build() calls each time it fills a row
      * of the noise map with coherent-noise values.
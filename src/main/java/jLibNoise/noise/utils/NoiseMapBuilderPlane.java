@@ -34,6 +34,8 @@ public class NoiseMapBuilderPlane extends NoiseMapBuilder {
 
     // A flag specifying whether seamless tiling is enabled.
     private boolean isSeamlessEnabled;
+    // A flag specifying whether input values are given relative to an integer origin.
+    private boolean isOriginRebasingEnabled;
     // Lower x boundary of the planar noise map, in units.
     private double lowerXBound;
     // Lower z boundary of the planar noise map, in units.
@@ -65,25 +67,68 @@ public class NoiseMapBuilderPlane extends NoiseMapBuilder {
         double zExtent = upperZBound - lowerZBound;
         double xDelta = xExtent / (double) destWidth;
         double zDelta = zExtent / (double) destHeight;
-        double xCur;// = lowerXBound;
-        double zCur = lowerZBound;
+
+        // When origin rebasing is enabled, the coordinates are relative to the
+        // integer point below the lower bounds.
+        long originX = 0, originZ = 0;
+        if (isOriginRebasingEnabled) {
+            originX = (long) Math.floor(lowerXBound);
+            originZ = (long) Math.floor(lowerZBound);
+        }
+        double lowerX = lowerXBound - originX;
+        double lowerZ = lowerZBound - originZ;
+        double xCur;// = lowerX;
+        double zCur = lowerZ;
+
+        // Every row samples the same x coordinates, so they are only calculated once.
+        double[] rowXs = new double[destWidth];
+        double[] rowValues = new double[destWidth];
+        xCur = lowerX;
+        for (int x = 0; x < destWidth; x++) {
+            rowXs[x] = xCur;
+            xCur += xDelta;
+        }
+
+        // If the source module can generate noise that repeats with the extent
+        // of the noise map, seamless tiling only needs one value per point.
+        boolean isTiled = isSeamlessEnabled && sourceModule.canTile(xExtent, zExtent);
 
         // Fill every point in the noise map with the output values from the model.
         ArrayPointer.NativeFloatPrim pDest = destNoiseMap.getSlabPtr(0);
         for (int z = 0; z < destHeight; z++) {
-            xCur = lowerXBound;
+            if (!isSeamlessEnabled) {
+                if (isOriginRebasingEnabled) {
+                    for (int x = 0; x < destWidth; x++) {
+                        rowValues[x] = planeModel.getValue(originX, originZ, rowXs[x], zCur);
+                    }
+                } else {
+                    for (int x = 0; x < destWidth; x += BLOCK_SIZE) {
+                        planeModel.getValues(rowXs, zCur, rowValues, x, Math.min(BLOCK_SIZE, destWidth - x));
+                    }
+                }
+            }
+            xCur = lowerX;
             for (int x = 0; x < destWidth; x++) {
                 float finalValue;
                 if (!isSeamlessEnabled) {
-                    finalValue = (float) planeModel.getValue(xCur, zCur);
+                    finalValue = (float) rowValues[x];
+                } else if (isTiled) {
+                    finalValue = (float) sourceModule.getTiledValue2D(originX + xCur, originZ + zCur, xExtent, zExtent);
                 } else {
                     double swValue, seValue, nwValue, neValue;
-                    swValue = planeModel.getValue(xCur, zCur);
-                    seValue = planeModel.getValue(xCur + xExtent, zCur);
-                    nwValue = planeModel.getValue(xCur, zCur + zExtent);
-                    neValue = planeModel.getValue(xCur + xExtent, zCur + zExtent);
-                    double xBlend = 1.0 - ((xCur - lowerXBound) / xExtent);
-                    double zBlend = 1.0 - ((zCur - lowerZBound) / zExtent);
+                    if (isOriginRebasingEnabled) {
+                        swValue = planeModel.getValue(originX, originZ, xCur, zCur);
+                        seValue = planeModel.getValue(originX, originZ, xCur + xExtent, zCur);
+                        nwValue = planeModel.getValue(originX, originZ, xCur, zCur + zExtent);
+                        neValue = planeModel.getValue(originX, originZ, xCur + xExtent, zCur + zExtent);
+                    } else {
+                        swValue = planeModel.getValue(xCur, zCur);
+                        seValue = planeModel.getValue(xCur + xExtent, zCur);
+                        nwValue = planeModel.getValue(xCur, zCur + zExtent);
+                        neValue = planeModel.getValue(xCur + xExtent, zCur + zExtent);
+                    }
+                    double xBlend = 1.0 - ((xCur - lowerX) / xExtent);
+                    double zBlend = 1.0 - ((zCur - lowerZ) / zExtent);
                     double z0 = Interp.linearInterp(swValue, seValue, xBlend);
                     double z1 = Interp.linearInterp(nwValue, neValue, xBlend);
                     finalValue = (float) Interp.linearInterp(z0, z1, zBlend);
@@ -103,6 +148,11 @@ public class NoiseMapBuilderPlane extends NoiseMapBuilder {
      * <p/>
      * Enabling seamless tiling builds a noise map with no seams at the
      * edges.  This allows the noise map to be tileable.
+     * <p/>
+     * If the source module can tile with the extent of the bounds (see
+     * Module.canTile()), the noise map is built from its periodic output
+     * values.  Otherwise each point blends four output values, as
+     * libnoise does, which is four times slower.
      *
      * @param enable A flag that enables or disables seamless tiling.
      */
@@ -114,6 +164,25 @@ public class NoiseMapBuilderPlane extends NoiseMapBuilder {
         enableSeamless(true);
     }
 
+    /**
+     * Enables or disables origin rebasing.
+     * <p/>
+     * When origin rebasing is enabled, the input values are passed to the
+     * source module relative to the integer point at or below the lower
+     * bounds (see Module.getRebasedValue()).  Noise modules that support
+     * it then generate noise maps far from ( 0, 0 ) with the same
+     * precision as near it, so neighbouring tiles join without seams.
+     *
+     * @param enable A flag that enables or disables origin rebasing.
+     */
+    public void enableOriginRebasing(boolean enable) {
+        isOriginRebasingEnabled = enable;
+    }
+
+    public void enableOriginRebasing() {
+        enableOriginRebasing(true);
+    }
+
     /**
      * Returns the lower x boundary of the planar noise map.
      *
@@ -162,6 +231,15 @@ public class NoiseMapBuilderPlane extends NoiseMapBuilder {
         return isSeamlessEnabled;
     }
 
+    /**
+     * Determines if origin rebasing is enabled.
+     *
+     * @return true if origin rebasing is enabled.
+     */
+    public boolean isOriginRebasingEnabled() {
+        return isOriginRebasingEnabled;
+    }
+
     /**
      * Sets the boundaries of the planar noise map.
      *
@@ -93,14 +93,22 @@ public class NoiseMapBuilderSphere extends NoiseMapBuilder {
         double curLon = westLonBound;
         double curLat = southLatBound;
 
+        // Every row samples the same longitudes, so they are only calculated once.
+        double[] rowLons = new double[destWidth];
+        double[] rowValues = new double[destWidth];
+        for (int x = 0; x < destWidth; x++) {
+            rowLons[x] = curLon;
+            curLon += xDelta;
+        }
+
         // Fill every point in the noise map with the output values from the model.
         ArrayPointer.NativeFloatPrim pDest = destNoiseMap.getSlabPtr(0);
         for (int y = 0; y < destHeight; y++) {
-            curLon = westLonBound;
+            for (int x = 0; x < destWidth; x += BLOCK_SIZE) {
+                sphereModel.getValues(curLat, rowLons, rowValues, x, Math.min(BLOCK_SIZE, destWidth - x));
+            }
             for (int x = 0; x < destWidth; x++) {
-                float curValue = (float) sphereModel.getValue(curLat, curLon);
-                pDest.floatAssignThenIncrementPosition(curValue);
-                curLon += xDelta;
+                pDest.floatAssignThenIncrementPosition((float) rowValues[x]);
             }
             curLat += yDelta;
             if (callback != null) {
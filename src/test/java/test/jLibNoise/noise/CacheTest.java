@@ -0,0 +1,132 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Cache;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.Select;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import test.jLibNoise.noise.NoiseTestSupport.CountingModule;
+
+/**
+ *
+ */
+public class CacheTest {
+
+    @Test
+    public void repeatedInputValueIsCached() {
+        CountingModule source = new CountingModule();
+        Cache cache = new Cache();
+        cache.setSourceModule(0, source);
+
+        Assert.assertEquals(6.0, cache.getValue(1.0, 2.0, 3.0), 0.0);
+        Assert.assertEquals(6.0, cache.getValue(1.0, 2.0, 3.0), 0.0);
+        Assert.assertEquals(1, source.calls.get());
+        Assert.assertEquals(7.0, cache.getValue(1.0, 2.0, 4.0), 0.0);
+        Assert.assertEquals(2, source.calls.get());
+
+        // A new source module invalidates the cache.
+        cache.setSourceModule(0, source);
+        Assert.assertEquals(7.0, cache.getValue(1.0, 2.0, 4.0), 0.0);
+        Assert.assertEquals(3, source.calls.get());
+
+        Perlin perlin = new Perlin();
+        cache.setSourceModule(0, perlin);
+        Assert.assertEquals(perlin.getValue(1.0, 2.0, 4.0), cache.getValue(1.0, 2.0, 4.0), 0.0);
+    }
+
+    @Test
+    public void repeatedBlockIsCached() {
+        CountingModule source = new CountingModule();
+        Cache cache = new Cache();
+        cache.setSourceModule(0, source);
+        double[] xs = {1.0, 2.0, 3.0, 4.0};
+        double[] ys = {0.5, 0.5, 0.5, 0.5};
+        double[] zs = {-1.0, -2.0, -3.0, -4.0};
+        double[] out = new double[4];
+
+        cache.getValues(xs, ys, zs, out, 1, 3);
+        cache.getValues(xs, ys, zs, out, 1, 3);
+        Assert.assertEquals(3, source.calls.get());
+        Assert.assertEquals(0.5, out[1], 0.0);
+        Assert.assertEquals(0.5, out[3], 0.0);
+
+        // The same arrays with other contents are another block.
+        zs[2] = 5.0;
+        cache.getValues(xs, ys, zs, out, 1, 3);
+        Assert.assertEquals(6, source.calls.get());
+        Assert.assertEquals(8.5, out[2], 0.0);
+
+        cache.getValues2D(xs, 2.0, out, 0, 4);
+        cache.getValues2D(xs, 2.0, out, 0, 4);
+        Assert.assertEquals(10, source.calls.get());
+        Assert.assertEquals(6.0, out[3], 0.0);
+        cache.getValues2D(xs, 3.0, out, 0, 4);
+        Assert.assertEquals(14, source.calls.get());
+    }
+
+    @Test
+    public void sharedCacheIsEvaluatedOncePerBlock() {
+        CountingModule source = new CountingModule(new Perlin());
+        Cache control = new Cache();
+        control.setSourceModule(0, source);
+        Select select0 = new Select();
+        select0.setSourceModule(0, new Perlin());
+        select0.setSourceModule(1, new Perlin());
+        select0.setControlModule(control);
+        Select select1 = new Select();
+        select1.setSourceModule(0, new Perlin());
+        select1.setSourceModule(1, new Perlin());
+        select1.setControlModule(control);
+        select1.setBounds(-0.5, 0.25);
+        Add add = new Add();
+        add.setSourceModule(0, select0);
+        add.setSourceModule(1, select1);
+
+        double[] xs = new double[256];
+        double[] ys = new double[256];
+        double[] zs = new double[256];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i * 0.05;
+            ys[i] = 1.5;
+            zs[i] = -i * 0.03;
+        }
+        double[] out = new double[256];
+        add.getValues(xs, ys, zs, out, 0, 256);
+        Assert.assertEquals(256, source.calls.get());
+        for (int i = 0; i < xs.length; i++) {
+            Assert.assertEquals(add.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void threadsKeepTheirOwnCachedValue() throws InterruptedException {
+        final CountingModule source = new CountingModule();
+        final Cache cache = new Cache();
+        cache.setSourceModule(0, source);
+        final AtomicInteger failures = new AtomicInteger();
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final double x = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        if (cache.getValue(x, 0.0, 0.0) != x) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, failures.get());
+        Assert.assertEquals(threads.length, source.calls.get());
+    }
+}
@@ -0,0 +1,256 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Blend;
+import jLibNoise.noise.module.Cache;
+import jLibNoise.noise.module.Const;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.RotatePoint;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.ScalePoint;
+import jLibNoise.noise.module.Select;
+import jLibNoise.noise.module.TransformPoint;
+import jLibNoise.noise.module.TranslatePoint;
+import jLibNoise.noise.utils.NoiseMap;
+import jLibNoise.noise.utils.NoiseMapBuilderPlane;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class CompositeGraphTest {
+
+    // Every Perlin noise module created by this test.
+    private final List<CountingPerlin> leaves = new ArrayList<CountingPerlin>();
+
+    @Test
+    public void planarValuesMatchSpatialValues() {
+        Module expected = graph(false);
+        Module actual = graph(false);
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double z = randomCoord(random);
+            Assert.assertEquals(expected.getValue(x, 0.0, z), actual.getValue2D(x, z), 0.0);
+        }
+    }
+
+    @Test
+    public void rowValuesMatchPlanarValues() {
+        Module expected = graph(false);
+        Module actual = graph(false);
+        double[] xs = new double[300];
+        double[] out = new double[300];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = -7.0 + i * 0.0513;
+        }
+        actual.getValues2D(xs, 1.37, out, 5, 290);
+        for (int i = 5; i < 295; i++) {
+            Assert.assertEquals(expected.getValue2D(xs[i], 1.37), out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void planarNoiseMapsSkipSpatialNoise() {
+        NoiseMapBuilderPlane builder = new NoiseMapBuilderPlane();
+        builder.setSourceModule(graph(false));
+        builder.setDestNoiseMap(new NoiseMap());
+        builder.setDestSize(300, 20);
+        builder.setBounds(2.0, 6.0, 1.0, 5.0);
+        builder.build();
+        for (CountingPerlin leaf : leaves) {
+            Assert.assertEquals(0, leaf.spatialCount);
+        }
+    }
+
+    @Test
+    public void tiledValuesRepeat() {
+        Module tiled = graph(true);
+        Assert.assertTrue(tiled.canTile(4.0, 2.0));
+        Assert.assertFalse(tiled.canTile(4.5, 2.0));
+        Assert.assertFalse(graph(false).canTile(4.0, 2.0));
+
+        Random random = new Random(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double z = randomCoord(random);
+            double value = tiled.getTiledValue2D(x, z, 4.0, 2.0);
+            Assert.assertEquals(value, tiled.getTiledValue2D(x + 4.0, z, 4.0, 2.0), 1e-6);
+            Assert.assertEquals(value, tiled.getTiledValue2D(x, z - 2.0, 4.0, 2.0), 1e-6);
+        }
+    }
+
+    @Test
+    public void seamlessNoiseMapsUseTiledValues() {
+        NoiseMapBuilderPlane builder = new NoiseMapBuilderPlane();
+        builder.setSourceModule(graph(true));
+        builder.setDestNoiseMap(new NoiseMap());
+        builder.setDestSize(40, 20);
+        builder.setBounds(2.0, 6.0, 1.0, 3.0);
+        builder.enableSeamless();
+        builder.build();
+        for (CountingPerlin leaf : leaves) {
+            Assert.assertEquals(0, leaf.spatialCount);
+            Assert.assertEquals(0, leaf.planarCount);
+        }
+    }
+
+    @Test
+    public void rebasedValuesMatchAbsoluteValues() {
+        Module module = graph(false);
+        Random random = new Random(3);
+        for (int i = 0; i < SAMPLES; i++) {
+            long ox = random.nextInt(2001) - 1000;
+            long oy = random.nextInt(2001) - 1000;
+            long oz = random.nextInt(2001) - 1000;
+            double x = (random.nextDouble() - 0.5) * 10.0;
+            double y = (random.nextDouble() - 0.5) * 10.0;
+            double z = (random.nextDouble() - 0.5) * 10.0;
+            Assert.assertEquals(module.getValue(ox + x, oy + y, oz + z),
+                    module.getRebasedValue(ox, oy, oz, x, y, z), 1e-6);
+        }
+    }
+
+    @Test
+    public void rebasedValuesStayPreciseFarFromTheOrigin() {
+        Module module = graph(false);
+        Module single = graph(true).getSourceModule(0).getSourceModule(0);
+        long far = 1L << 40;
+        Random random = new Random(4);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+            double z = random.nextDouble();
+            double value = module.getRebasedValue(far, -far, far, x + 1.0, y, z);
+            Assert.assertEquals(value, module.getRebasedValue(far + 1, -far, far, x, y, z), 1e-9);
+
+            value = single.getRebasedValue(far, -far, far, x + 1.0, y, z);
+            Assert.assertEquals(value, single.getRebasedValue(far + 1, -far, far, x, y, z), 1e-9);
+            Assert.assertEquals(value, single.getRebasedValueF(far + 1, -far, far, (float) x, (float) y, (float) z),
+                    1e-4);
+        }
+    }
+
+    @Test
+    public void rebasedNoiseMapsReachTheLeaves() {
+        NoiseMapBuilderPlane builder = new NoiseMapBuilderPlane();
+        builder.setSourceModule(graph(false));
+        builder.setDestNoiseMap(new NoiseMap());
+        builder.setDestSize(40, 20);
+        builder.setBounds(1e12 + 2.0, 1e12 + 6.0, -1e12 + 1.0, -1e12 + 5.0);
+        builder.enableOriginRebasing();
+        builder.build();
+        for (CountingPerlin leaf : leaves) {
+            Assert.assertEquals(0, leaf.spatialCount);
+        }
+    }
+
+    /**
+     * Returns a graph that exercises every noise module that forwards the
+     * planar and tiling methods to its source modules.
+     *
+     * @param tileable Builds a graph that tiles with periods of 4.0 and 2.0
+     *                 instead of one that includes a rotation.
+     */
+    private Module graph(boolean tileable) {
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, perlin(1));
+        translate.setTranslation(3.0, 0.0, -5.0);
+        ScalePoint scalePoint = new ScalePoint();
+        scalePoint.setSourceModule(0, perlin(2));
+        scalePoint.setScale(2.0, 1.5, 3.0);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, translate);
+        scaleBias.setScale(0.5);
+        scaleBias.setBias(0.1);
+        Add add = new Add();
+        add.setSourceModule(0, scaleBias);
+        add.setSourceModule(1, scalePoint);
+        Cache cache = new Cache();
+        cache.setSourceModule(0, add);
+
+        Select select = new Select();
+        select.setSourceModule(0, cache);
+        select.setSourceModule(1, perlin(3));
+        select.setControlModule(perlin(4));
+        select.setBounds(0.0, 1.0);
+        select.setEdgeFalloff(0.2);
+
+        Module rotate;
+        if (tileable) {
+            Const constant = new Const();
+            constant.setConstValue(0.25);
+            rotate = constant;
+        } else {
+            RotatePoint rotatePoint = new RotatePoint();
+            rotatePoint.setSourceModule(0, perlin(5));
+            rotatePoint.setAngles(0.0, 30.0, 0.0);
+            rotate = rotatePoint;
+        }
+        TransformPoint transform = new TransformPoint();
+        transform.setSourceModule(0, perlin(6));
+        transform.setMatrix(new double[]{
+                0.5, 0.3, tileable ? 0.0 : 2.0, 1.0,
+                0.0, 1.0, 0.0, 0.0,
+                0.0, 0.2, 1.5, -2.0});
+        Add transformed = new Add();
+        transformed.setSourceModule(0, rotate);
+        transformed.setSourceModule(1, transform);
+
+        Blend blend = new Blend();
+        blend.setSourceModule(0, select);
+        blend.setSourceModule(1, transformed);
+        blend.setControlModule(perlin(7));
+        return blend;
+    }
+
+    private CountingPerlin perlin(int seed) {
+        CountingPerlin perlin = new CountingPerlin();
+        perlin.setSeed(seed);
+        perlin.setOctaveCount(3);
+        leaves.add(perlin);
+        return perlin;
+    }
+
+    /**
+     * Perlin noise module that counts the output values it generates with
+     * the spatial and the planar methods.
+     */
+    private static final class CountingPerlin extends Perlin {
+
+        private int spatialCount;
+        private int planarCount;
+
+        @Override
+        public double getValue(double x, double y, double z) {
+            spatialCount++;
+            return super.getValue(x, y, z);
+        }
+
+        @Override
+        public void getValues(double[] xs, double[] ys, double[] zs, double[] out, int offset, int count) {
+            spatialCount += count;
+            super.getValues(xs, ys, zs, out, offset, count);
+        }
+
+        @Override
+        public double getValue2D(double x, double z) {
+            planarCount++;
+            return super.getValue2D(x, z);
+        }
+
+        @Override
+        public void getValues2D(double[] xs, double z, double[] out, int offset, int count) {
+            planarCount += count;
+            super.getValues2D(xs, z, out, offset, count);
+        }
+    }
+}
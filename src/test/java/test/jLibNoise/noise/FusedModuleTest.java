@@ -0,0 +1,295 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.LatticeMode;
+import jLibNoise.noise.NoiseQuality;
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Blend;
+import jLibNoise.noise.module.Cache;
+import jLibNoise.noise.module.Const;
+import jLibNoise.noise.module.FusedModule;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.RotatePoint;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.ScalePoint;
+import jLibNoise.noise.module.Select;
+import jLibNoise.noise.module.Simplex;
+import jLibNoise.noise.module.TransformPoint;
+import jLibNoise.noise.module.TranslatePoint;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import test.jLibNoise.noise.NoiseTestSupport.CountingModule;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class FusedModuleTest {
+
+    @Test
+    public void fusedGraphMatchesGraph() {
+        Perlin perlin = new Perlin();
+        perlin.setNoiseQuality(NoiseQuality.QUALITY_BEST);
+        perlin.setFrequency(1.7);
+        Perlin tablePerlin = new Perlin();
+        tablePerlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        Simplex simplex = new Simplex();
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, simplex);
+        scaleBias.setScale(-2.0);
+        Add add = new Add();
+        add.setSourceModule(0, perlin);
+        add.setSourceModule(1, scaleBias);
+        Add root = new Add();
+        root.setSourceModule(0, add);
+        root.setSourceModule(1, tablePerlin);
+
+        FusedModule fused = FusedModule.fuse(root);
+        Random random = new Random(1);
+        double[] expected = new double[SAMPLES];
+        double[][] coords = new double[SAMPLES][3];
+        for (int i = 0; i < SAMPLES; i++) {
+            coords[i][0] = randomCoord(random);
+            coords[i][1] = randomCoord(random);
+            coords[i][2] = randomCoord(random);
+            expected[i] = root.getValue(coords[i][0], coords[i][1], coords[i][2]);
+            Assert.assertEquals(expected[i], fused.getValue(coords[i][0], coords[i][1], coords[i][2]), 0.0);
+        }
+
+        // A fused module is a snapshot of the specialised modules.
+        perlin.setSeed(99);
+        scaleBias.setBias(3.0);
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(expected[i], fused.getValue(coords[i][0], coords[i][1], coords[i][2]), 0.0);
+        }
+    }
+
+    @Test
+    public void frozenGraphIsSharedByThreads() throws InterruptedException {
+        Perlin perlin = new Perlin();
+        perlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        Cache cache = new Cache();
+        cache.setSourceModule(0, perlin);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, cache);
+        scaleBias.setScale(0.5);
+        Add root = new Add();
+        root.setSourceModule(0, scaleBias);
+        root.setSourceModule(1, cache);
+
+        final Module frozen = root.freeze();
+        Assert.assertTrue(((FusedModule) frozen).isSnapshot());
+        Assert.assertSame(frozen, frozen.freeze());
+
+        Random random = new Random(2);
+        final double[][] coords = new double[SAMPLES][3];
+        final double[] expected = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            coords[i][0] = randomCoord(random);
+            coords[i][1] = randomCoord(random);
+            coords[i][2] = randomCoord(random);
+            expected[i] = root.getValue(coords[i][0], coords[i][1], coords[i][2]);
+        }
+        perlin.setSeed(7);
+        scaleBias.setScale(3.0);
+
+        final AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int first = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = first; i < SAMPLES; i++) {
+                        if (frozen.getValue(coords[i][0], coords[i][1], coords[i][2]) != expected[i]) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void sharedModulesStayShared() {
+        CountingModule perlin = new CountingModule(new Perlin());
+        Cache cache = new Cache();
+        cache.setSourceModule(0, perlin);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, cache);
+        scaleBias.setScale(0.5);
+        Add root = new Add();
+        root.setSourceModule(0, cache);
+        root.setSourceModule(1, scaleBias);
+
+        FusedModule fused = FusedModule.fuse(root);
+        Random random = new Random(3);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            Assert.assertEquals(root.getValue(x, y, z), fused.getValue(x, y, z), 0.0);
+        }
+        // The graph and the fused module each evaluate the cached module
+        // once per input value.
+        Assert.assertEquals(2 * SAMPLES, perlin.calls.get());
+    }
+
+    @Test
+    public void fusedBlockValuesMatchGraph() {
+        Perlin perlin = new Perlin();
+        perlin.setFrequency(1.3);
+        Perlin tablePerlin = new Perlin();
+        tablePerlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        tablePerlin.setSeed(4);
+        Simplex simplex = new Simplex();
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, simplex);
+        scaleBias.setBias(0.25);
+        Cache cache = new Cache();
+        cache.setSourceModule(0, perlin);
+        Select select = new Select();
+        select.setSourceModule(0, cache);
+        select.setSourceModule(1, scaleBias);
+        select.setControlModule(tablePerlin);
+        select.setBounds(0.0, 1.0);
+        select.setEdgeFalloff(0.2);
+        Add add = new Add();
+        add.setSourceModule(0, cache);
+        add.setSourceModule(1, tablePerlin);
+        Blend root = new Blend();
+        root.setSourceModule(0, select);
+        root.setSourceModule(1, add);
+        root.setControlModule(perlin);
+
+        FusedModule fused = FusedModule.fuse(root);
+        Random random = new Random(4);
+        int offset = 3;
+        double[] xs = new double[offset + SAMPLES];
+        double[] ys = new double[offset + SAMPLES];
+        double[] zs = new double[offset + SAMPLES];
+        for (int i = offset; i < offset + SAMPLES; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+        }
+        double z = randomCoord(random);
+
+        double[] values = new double[offset + SAMPLES];
+        double[] rowValues = new double[offset + SAMPLES];
+        fused.getValues(xs, ys, zs, values, offset, SAMPLES);
+        fused.getValues2D(xs, z, rowValues, offset, SAMPLES);
+        for (int i = offset; i < offset + SAMPLES; i++) {
+            Assert.assertEquals(root.getValue(xs[i], ys[i], zs[i]), values[i], 0.0);
+            Assert.assertEquals(root.getValue2D(xs[i], z), rowValues[i], 0.0);
+            Assert.assertEquals(root.getValue2D(xs[i], z), fused.getValue2D(xs[i], z), 0.0);
+        }
+    }
+
+    @Test
+    public void transformedGraphIsCopied() {
+        Perlin perlin = new Perlin();
+        TranslatePoint translatePoint = new TranslatePoint();
+        translatePoint.setSourceModule(0, perlin);
+        translatePoint.setTranslation(1.5, 0.0, -2.25);
+        ScalePoint scalePoint = new ScalePoint();
+        scalePoint.setSourceModule(0, translatePoint);
+        scalePoint.setScale(2.0, 0.5, 3.0);
+        RotatePoint rotatePoint = new RotatePoint();
+        rotatePoint.setSourceModule(0, perlin);
+        rotatePoint.setAngles(0.0, 30.0, 0.0);
+        TransformPoint transformPoint = new TransformPoint();
+        transformPoint.setSourceModule(0, rotatePoint);
+        transformPoint.setMatrix(new double[]{0.5, 0.3, 0.0, 1.0, 0.0, 1.0, 0.0, 0.0, 0.0, 0.2, 1.5, -2.0});
+        Const constModule = new Const();
+        constModule.setConstValue(0.25);
+        Add add = new Add();
+        add.setSourceModule(0, transformPoint);
+        add.setSourceModule(1, constModule);
+        Add root = new Add();
+        root.setSourceModule(0, scalePoint);
+        root.setSourceModule(1, add);
+
+        FusedModule fused = FusedModule.fuse(root);
+        Random random = new Random(5);
+        double[] xs = new double[SAMPLES];
+        double[] ys = new double[SAMPLES];
+        double[] zs = new double[SAMPLES];
+        double[] expected = new double[SAMPLES];
+        double[] expectedRow = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+            expected[i] = root.getValue(xs[i], ys[i], zs[i]);
+            expectedRow[i] = root.getValue2D(xs[i], zs[0]);
+        }
+
+        // A fused module is a snapshot of the transformations and constants.
+        translatePoint.setTranslation(7.0);
+        scalePoint.setScale(0.1);
+        rotatePoint.setAngles(45.0, 0.0, 10.0);
+        transformPoint.setMatrix(new double[]{1.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0});
+        constModule.setConstValue(-1.0);
+
+        double[] values = new double[SAMPLES];
+        double[] rowValues = new double[SAMPLES];
+        fused.getValues(xs, ys, zs, values, 0, SAMPLES);
+        fused.getValues2D(xs, zs[0], rowValues, 0, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(expected[i], fused.getValue(xs[i], ys[i], zs[i]), 0.0);
+            Assert.assertEquals(expected[i], values[i], 0.0);
+            Assert.assertEquals(expectedRow[i], fused.getValue2D(xs[i], zs[0]), 0.0);
+            Assert.assertEquals(expectedRow[i], rowValues[i], 0.0);
+        }
+    }
+
+    @Test
+    public void subclassesAreEvaluatedLive() {
+        // A noise module without a specialised node is not copied.
+        Module root = liveGraph();
+        FusedModule fused = FusedModule.fuse(root);
+        Assert.assertFalse(fused.isSnapshot());
+        Assert.assertEquals(root.getValue(0.5, 1.5, 2.5), fused.getValue(0.5, 1.5, 2.5), 0.0);
+
+        Add outer = new Add();
+        outer.setSourceModule(0, fused);
+        outer.setSourceModule(1, new Perlin());
+        Assert.assertFalse(FusedModule.fuse(outer).isSnapshot());
+
+        ((ScaleBias) root.getSourceModule(0)).setSourceModule(0, new Perlin());
+        Assert.assertTrue(FusedModule.snapshot(root).isSnapshot());
+    }
+
+    @Test(expected = ExceptionInvalidParam.class)
+    public void liveModulesCannotBeFrozen() {
+        liveGraph().freeze();
+    }
+
+    @Test(expected = ExceptionInvalidParam.class)
+    public void fusedLiveModulesCannotBeFrozen() {
+        Add outer = new Add();
+        outer.setSourceModule(0, FusedModule.fuse(liveGraph()));
+        outer.setSourceModule(1, new Perlin());
+        outer.freeze();
+    }
+
+    private static Module liveGraph() {
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, new CountingModule(new Perlin()));
+        Add root = new Add();
+        root.setSourceModule(0, scaleBias);
+        root.setSourceModule(1, new Perlin());
+        return root;
+    }
+}
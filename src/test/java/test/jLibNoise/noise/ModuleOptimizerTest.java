@@ -0,0 +1,172 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Cache;
+import jLibNoise.noise.module.Const;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.ModuleOptimizer;
+import jLibNoise.noise.module.ModuleProgram;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.RotatePoint;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.ScalePoint;
+import jLibNoise.noise.module.TransformPoint;
+import jLibNoise.noise.module.TranslatePoint;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class ModuleOptimizerTest {
+
+    @Test
+    public void constantSubgraphsAreFolded() {
+        Const a = constant(1.5);
+        Const b = constant(-0.25);
+        Add add = new Add();
+        add.setSourceModule(0, a);
+        add.setSourceModule(1, b);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, add);
+        scaleBias.setScale(2.0);
+        Cache cache = new Cache();
+        cache.setSourceModule(0, scaleBias);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, cache);
+        translate.setTranslation(3.0);
+
+        Module optimized = ModuleOptimizer.optimize(translate);
+        Assert.assertTrue(optimized instanceof Const);
+        Assert.assertEquals(2.5, optimized.getValue(1.0, 2.0, 3.0), 0.0);
+    }
+
+    @Test
+    public void arithmeticChainsAreMerged() {
+        Perlin perlin = new Perlin();
+        ScaleBias first = new ScaleBias();
+        first.setSourceModule(0, perlin);
+        first.setScale(0.5);
+        first.setBias(1.0);
+        Add add = new Add();
+        add.setSourceModule(0, first);
+        add.setSourceModule(1, constant(0.75));
+        ScaleBias second = new ScaleBias();
+        second.setSourceModule(0, add);
+        second.setScale(-3.0);
+
+        Module optimized = ModuleOptimizer.optimize(second);
+        Assert.assertTrue(optimized instanceof ScaleBias);
+        Assert.assertSame(perlin, optimized.getSourceModule(0));
+        assertSameValues(second, optimized);
+
+        // The original graph is unchanged.
+        Assert.assertSame(add, second.getSourceModule(0));
+
+        ScaleBias identity = new ScaleBias();
+        identity.setSourceModule(0, perlin);
+        Assert.assertSame(perlin, ModuleOptimizer.optimize(identity));
+    }
+
+    @Test
+    public void transformChainsAreMerged() {
+        Perlin perlin = new Perlin();
+        RotatePoint rotate = new RotatePoint();
+        rotate.setSourceModule(0, perlin);
+        rotate.setAngles(30.0, 45.0, -60.0);
+        ScalePoint scale = new ScalePoint();
+        scale.setSourceModule(0, rotate);
+        scale.setScale(0.5, 2.0, 1.5);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, scale);
+        translate.setTranslation(1.0, -2.0, 0.5);
+
+        Module optimized = ModuleOptimizer.optimize(translate);
+        Assert.assertTrue(optimized instanceof TransformPoint);
+        Assert.assertSame(perlin, optimized.getSourceModule(0));
+        assertSameValues(translate, optimized);
+
+        TranslatePoint there = new TranslatePoint();
+        there.setSourceModule(0, perlin);
+        there.setTranslation(2.0);
+        TranslatePoint back = new TranslatePoint();
+        back.setSourceModule(0, there);
+        back.setTranslation(-2.0);
+        Assert.assertSame(perlin, ModuleOptimizer.optimize(back));
+    }
+
+    @Test
+    public void sharedModulesStayShared() {
+        Perlin perlin = new Perlin();
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, perlin);
+        scaleBias.setScale(2.0);
+        ScalePoint scale = new ScalePoint();
+        scale.setSourceModule(0, scaleBias);
+        scale.setScale(2.0);
+        Add add = new Add();
+        add.setSourceModule(0, scale);
+        add.setSourceModule(1, scaleBias);
+
+        Module optimized = ModuleOptimizer.optimize(add);
+        Assert.assertSame(optimized.getSourceModule(0).getSourceModule(0), optimized.getSourceModule(1));
+        assertSameValues(add, optimized);
+    }
+
+    @Test
+    public void equalSubgraphsAreMerged() {
+        Add root = new Add();
+        Add left = new Add();
+        Add right = new Add();
+        root.setSourceModule(0, left);
+        root.setSourceModule(1, right);
+        for (Add add : new Add[]{left, right}) {
+            Perlin perlin = new Perlin();
+            perlin.setSeed(4);
+            perlin.setFrequency(2.0);
+            ScalePoint scale = new ScalePoint();
+            scale.setSourceModule(0, perlin);
+            scale.setScale(0.5);
+            Perlin other = new Perlin();
+            other.setOctaveCount(3);
+            add.setSourceModule(0, scale);
+            add.setSourceModule(1, other);
+        }
+
+        Module optimized = ModuleOptimizer.optimize(root);
+        Assert.assertSame(optimized.getSourceModule(0), optimized.getSourceModule(1));
+        assertSameValues(root, optimized);
+        Assert.assertEquals(9, ModuleProgram.compile(root).getInstructionCount());
+        Assert.assertEquals(5, ModuleProgram.compile(optimized).getInstructionCount());
+
+        // Different parameters are never merged.
+        Perlin a = new Perlin();
+        Perlin b = new Perlin();
+        b.setSeed(1);
+        Add add = new Add();
+        add.setSourceModule(0, a);
+        add.setSourceModule(1, b);
+        optimized = ModuleOptimizer.optimize(add);
+        Assert.assertNotSame(optimized.getSourceModule(0), optimized.getSourceModule(1));
+    }
+
+    private static Const constant(double value) {
+        Const constant = new Const();
+        constant.setConstValue(value);
+        return constant;
+    }
+
+    private static void assertSameValues(Module expected, Module actual) {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            Assert.assertEquals(expected.getValue(x, y, z), actual.getValue(x, y, z), 1e-9);
+        }
+    }
+}
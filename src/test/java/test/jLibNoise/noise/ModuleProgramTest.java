@@ -0,0 +1,157 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.ExceptionNoModule;
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.ModuleProgram;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.RotatePoint;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.Select;
+import jLibNoise.noise.module.Simplex;
+import jLibNoise.noise.module.TranslatePoint;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import test.jLibNoise.noise.NoiseTestSupport.CountingModule;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class ModuleProgramTest {
+
+    @Test
+    public void programMatchesGraph() {
+        Perlin perlin = new Perlin();
+        Simplex simplex = new Simplex();
+        simplex.setSeed(5);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, perlin);
+        scaleBias.setScale(0.5);
+        scaleBias.setBias(0.25);
+        Add add = new Add();
+        add.setSourceModule(0, scaleBias);
+        add.setSourceModule(1, simplex);
+        Add root = new Add();
+        root.setSourceModule(0, add);
+        root.setSourceModule(1, perlin);
+
+        ModuleProgram program = ModuleProgram.compile(root);
+        // The shared Perlin module is only evaluated once.
+        Assert.assertEquals(5, program.getInstructionCount());
+        Assert.assertTrue(program.getRegisterCount() < program.getInstructionCount());
+
+        Random random = new Random(1);
+        double[] xs = new double[SAMPLES];
+        double[] ys = new double[SAMPLES];
+        double[] zs = new double[SAMPLES];
+        double[] out = new double[SAMPLES];
+        double[] expected = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+        }
+
+        program.getValues(xs, ys, zs, out, 3, SAMPLES - 3);
+        root.getValues(xs, ys, zs, expected, 3, SAMPLES - 3);
+        for (int i = 3; i < SAMPLES; i++) {
+            double value = root.getValue(xs[i], ys[i], zs[i]);
+            Assert.assertEquals(value, out[i], 0.0);
+            Assert.assertEquals(value, expected[i], 0.0);
+            Assert.assertEquals(value, program.getValue(xs[i], ys[i], zs[i]), 0.0);
+        }
+
+        // Parameters are read when the program runs.
+        scaleBias.setBias(1.0);
+        Assert.assertEquals(root.getValue(1.5, 2.5, 3.5), program.getValue(1.5, 2.5, 3.5), 0.0);
+    }
+
+    @Test
+    public void selectAndTransformsAreCompiled() {
+        Perlin perlin = new Perlin();
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, perlin);
+        scaleBias.setScale(0.5);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, perlin);
+        translate.setTranslation(0.25, 1.5, -3.0);
+        RotatePoint rotate = new RotatePoint();
+        rotate.setSourceModule(0, translate);
+        rotate.setAngles(10.0, 20.0, 30.0);
+        Select select = new Select();
+        select.setSourceModule(0, scaleBias);
+        select.setSourceModule(1, rotate);
+        select.setControlModule(new Simplex());
+        select.setBounds(-0.25, 0.5);
+        select.setEdgeFalloff(0.125);
+        Add root = new Add();
+        root.setSourceModule(0, select);
+        root.setSourceModule(1, perlin);
+
+        ModuleProgram program = ModuleProgram.compile(root);
+        // Every noise module gets its own instruction, and the Perlin module
+        // is evaluated once at the input values and once at the transformed
+        // input values.
+        Assert.assertEquals(8, program.getInstructionCount());
+        assertProgramMatchesGraph(root, program);
+    }
+
+    @Test
+    public void sharedSubgraphUnderSelectIsEvaluatedOncePerBlock() {
+        CountingModule shared = new CountingModule();
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, shared);
+        scaleBias.setScale(0.5);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, shared);
+        translate.setXTranslation(1.0);
+        Select select = new Select();
+        select.setSourceModule(0, scaleBias);
+        select.setSourceModule(1, translate);
+        select.setControlModule(shared);
+        select.setBounds(-5.0, 5.0);
+        Add root = new Add();
+        root.setSourceModule(0, select);
+        root.setSourceModule(1, translate);
+
+        ModuleProgram program = ModuleProgram.compile(root);
+        assertProgramMatchesGraph(root, program);
+
+        // The shared module runs once at the input values and once at the
+        // translated input values, however many noise modules read it.
+        shared.calls.set(0);
+        double[] coords = new double[SAMPLES];
+        double[] values = new double[SAMPLES];
+        program.getValues(coords, coords, coords, values, 0, SAMPLES);
+        Assert.assertEquals((long) (2 * SAMPLES), (long) shared.calls.get());
+    }
+
+    private static void assertProgramMatchesGraph(Module root, ModuleProgram program) {
+        Random random = new Random(2);
+        double[] xs = new double[SAMPLES];
+        double[] ys = new double[SAMPLES];
+        double[] zs = new double[SAMPLES];
+        double[] out = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+        }
+
+        program.getValues(xs, ys, zs, out, 0, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(root.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test(expected = ExceptionNoModule.class)
+    public void missingSourceModule() {
+        Add add = new Add();
+        add.setSourceModule(0, new Perlin());
+        ModuleProgram.compile(add);
+    }
+}
@@ -0,0 +1,349 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.FixedNoiseGen;
+import jLibNoise.noise.GradientTable;
+import jLibNoise.noise.NoiseGen;
+import jLibNoise.noise.NoiseKernel;
+import jLibNoise.noise.NoiseQuality;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+
+/**
+ *
+ */
+public class NoiseGenTest {
+
+    @Test
+    public void gradientBatchMatchesScalar() {
+        double[] xs = randomCoords(1);
+        double[] ys = randomCoords(2);
+        double[] zs = randomCoords(3);
+        double[] out = new double[SAMPLES];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseGen.gradientCoherentNoise3D(xs, ys, zs, out, 0, SAMPLES, 42, quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(xs[i], ys[i], zs[i], 42, quality), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void qualityKernelsMatchNoiseGen() {
+        double[] xs = randomCoords(15);
+        double[] ys = randomCoords(16);
+        double[] zs = randomCoords(17);
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseKernel kernel = NoiseKernel.forQuality(quality);
+            Assert.assertEquals(quality, kernel.getNoiseQuality());
+            for (int i = 0; i < SAMPLES; i++) {
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(xs[i], ys[i], zs[i], 1, quality),
+                        kernel.gradientCoherentNoise3D(xs[i], ys[i], zs[i], 1), 0.0);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise2D(xs[i], zs[i], 1, quality),
+                        kernel.gradientCoherentNoise2D(xs[i], zs[i], 1), 0.0);
+                Assert.assertEquals(NoiseGen.valueCoherentNoise3D(xs[i], ys[i], zs[i], 1, quality),
+                        kernel.valueCoherentNoise3D(xs[i], ys[i], zs[i], 1), 0.0);
+                float fx = (float) xs[i], fy = (float) ys[i], fz = (float) zs[i];
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3DF(fx, fy, fz, 1, quality),
+                        kernel.gradientCoherentNoise3DF(fx, fy, fz, 1), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void kernelVariantsMatchNoiseGen() {
+        double[] xs = randomCoords(18);
+        double[] ys = randomCoords(19);
+        double[] zs = randomCoords(20);
+        GradientTable table = GradientTable.forSeed(3);
+        double[] expected = new double[3];
+        double[] actual = new double[3];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseKernel kernel = NoiseKernel.forQuality(quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                double x = xs[i], y = ys[i], z = zs[i];
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(x, y, z, 3, quality, expected),
+                        kernel.gradientCoherentNoise3D(x, y, z, 3, actual), 0.0);
+                assertSameDerivative(expected, actual);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(x, y, z, table, quality, expected),
+                        kernel.gradientCoherentNoise3D(x, y, z, table, actual), 0.0);
+                assertSameDerivative(expected, actual);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(7, -9, 1 << 20, x, y, z, 3, quality),
+                        kernel.gradientCoherentNoise3D(7, -9, 1 << 20, x, y, z, 3), 0.0);
+                float fx = (float) x, fy = (float) y, fz = (float) z;
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3DF(7, -9, 1 << 20, fx, fy, fz, 3, quality),
+                        kernel.gradientCoherentNoise3DF(7, -9, 1 << 20, fx, fy, fz, 3), 0.0f);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise2D(x, z, 3, quality, 5, 7),
+                        kernel.gradientCoherentNoise2D(x, z, 3, 5, 7), 0.0);
+            }
+        }
+    }
+
+    private static void assertSameDerivative(double[] expected, double[] actual) {
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(expected[i], actual[i], 0.0);
+        }
+    }
+
+    @Test
+    public void multiSeedMatchesScalar() {
+        double[] xs = randomCoords(33);
+        double[] ys = randomCoords(34);
+        double[] zs = randomCoords(35);
+        int[] seeds = {0, 1, -1, 42, Integer.MAX_VALUE, Integer.MIN_VALUE, 1013};
+        double[] out = new double[seeds.length];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                NoiseGen.gradientCoherentNoise3D(xs[i], ys[i], zs[i], seeds, out, 0, seeds.length, quality);
+                for (int s = 0; s < seeds.length; s++) {
+                    Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(xs[i], ys[i], zs[i], seeds[s], quality), out[s], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebasedKernelMatchesScalar() {
+        double[] xs = randomCoords(36);
+        double[] ys = randomCoords(37);
+        double[] zs = randomCoords(38);
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                double x = xs[i], y = ys[i], z = zs[i];
+                double value = NoiseGen.gradientCoherentNoise3D(x, y, z, 12, quality);
+                Assert.assertEquals(value, NoiseGen.gradientCoherentNoise3D(0, 0, 0, x, y, z, 12, quality), 0.0);
+                Assert.assertEquals(value, NoiseGen.gradientCoherentNoise3D(7, -3, 100, x - 7, y + 3, z - 100, 12, quality), 1e-12);
+                Assert.assertEquals(value, NoiseGen.gradientCoherentNoise3DF(7, -3, 100,
+                        (float) (x - 7), (float) (y + 3), (float) (z - 100), 12, quality), 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void gradientDerivativeMatchesFiniteDifference() {
+        double[] xs = randomCoords(18);
+        double[] ys = randomCoords(19);
+        double[] zs = randomCoords(20);
+        double[] derivative = new double[3];
+        double h = 1e-6;
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                double x = xs[i], y = ys[i], z = zs[i];
+                double value = NoiseGen.gradientCoherentNoise3D(x, y, z, 2, quality, derivative);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(x, y, z, 2, quality), value, 0.0);
+                Assert.assertEquals((NoiseGen.gradientCoherentNoise3D(x + h, y, z, 2, quality)
+                        - NoiseGen.gradientCoherentNoise3D(x - h, y, z, 2, quality)) / (2 * h), derivative[0], 1e-4);
+                Assert.assertEquals((NoiseGen.gradientCoherentNoise3D(x, y + h, z, 2, quality)
+                        - NoiseGen.gradientCoherentNoise3D(x, y - h, z, 2, quality)) / (2 * h), derivative[1], 1e-4);
+                Assert.assertEquals((NoiseGen.gradientCoherentNoise3D(x, y, z + h, 2, quality)
+                        - NoiseGen.gradientCoherentNoise3D(x, y, z - h, 2, quality)) / (2 * h), derivative[2], 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void gradient2DMatches3DSlice() {
+        double[] xs = randomCoords(13);
+        double[] zs = randomCoords(14);
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(xs[i], 0.0, zs[i], 17, quality),
+                        NoiseGen.gradientCoherentNoise2D(xs[i], zs[i], 17, quality), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void periodicGradientNoiseRepeats() {
+        double[] xs = randomCoords(31);
+        double[] zs = randomCoords(32);
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                double value = NoiseGen.gradientCoherentNoise2D(xs[i], zs[i], 9, quality, 16, 8);
+                Assert.assertEquals(value, NoiseGen.gradientCoherentNoise2D(xs[i] + 16, zs[i], 9, quality, 16, 8), 1e-9);
+                Assert.assertEquals(value, NoiseGen.gradientCoherentNoise2D(xs[i], zs[i] - 8, 9, quality, 16, 8), 1e-9);
+            }
+            // Within a single period the noise is unchanged.
+            Assert.assertEquals(NoiseGen.gradientCoherentNoise2D(3.25, 4.5, 9, quality),
+                    NoiseGen.gradientCoherentNoise2D(3.25, 4.5, 9, quality, 16, 8), 0.0);
+        }
+    }
+
+    @Test
+    public void floatKernelTracksDoubleKernel() {
+        double[] xs = randomCoords(10);
+        double[] ys = randomCoords(11);
+        double[] zs = randomCoords(12);
+        float[] fxs = toFloat(xs);
+        float[] fys = toFloat(ys);
+        float[] fzs = toFloat(zs);
+        float[] out = new float[SAMPLES];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseGen.gradientCoherentNoise3DF(fxs, fys, fzs, out, 0, SAMPLES, 5, quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                float value = NoiseGen.gradientCoherentNoise3DF(fxs[i], fys[i], fzs[i], 5, quality);
+                Assert.assertEquals(value, out[i], 0.0f);
+                Assert.assertEquals(NoiseGen.gradientCoherentNoise3D(fxs[i], fys[i], fzs[i], 5, quality), value, 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void gradient4DAmplitudeMatches3D() {
+        // See NoiseGen.GRADIENT_4D_SCALE for how the scale was measured.
+        Random random = new Random(25);
+        double sum3 = 0.0;
+        double sum4 = 0.0;
+        for (int i = 0; i < 100 * SAMPLES; i++) {
+            double x = (random.nextDouble() - 0.5) * 256.0;
+            double y = (random.nextDouble() - 0.5) * 256.0;
+            double z = (random.nextDouble() - 0.5) * 256.0;
+            double w = (random.nextDouble() - 0.5) * 256.0;
+            double value3 = NoiseGen.gradientCoherentNoise3D(x, y, z, i & 0xff, NoiseQuality.QUALITY_STD);
+            double value4 = NoiseGen.gradientCoherentNoise4D(x, y, z, w, i & 0xff, NoiseQuality.QUALITY_STD);
+            sum3 += value3 * value3;
+            sum4 += value4 * value4;
+        }
+        Assert.assertEquals(1.0, Math.sqrt(sum4 / sum3), 0.015);
+    }
+
+    @Test
+    public void gradient4DBatchMatchesScalar() {
+        double[] xs = randomCoords(21);
+        double[] ys = randomCoords(22);
+        double[] zs = randomCoords(23);
+        double[] ws = randomCoords(24);
+        double[] out = new double[SAMPLES];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseGen.gradientCoherentNoise4D(xs, ys, zs, ws, out, 0, SAMPLES, 8, quality);
+            NoiseKernel kernel = NoiseKernel.forQuality(quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                double value = NoiseGen.gradientCoherentNoise4D(xs[i], ys[i], zs[i], ws[i], 8, quality);
+                Assert.assertEquals(value, out[i], 0.0);
+                Assert.assertEquals(value, kernel.gradientCoherentNoise4D(xs[i], ys[i], zs[i], ws[i], 8), 0.0);
+                Assert.assertTrue(Math.abs(value) < 2.0);
+            }
+        }
+    }
+
+    @Test
+    public void fixedPointKernelTracksDoubleKernel() {
+        double[] xs = randomCoords(25);
+        double[] ys = randomCoords(26);
+        double[] zs = randomCoords(27);
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < SAMPLES; i++) {
+                long fx = FixedNoiseGen.toFixed(xs[i]);
+                long fy = FixedNoiseGen.toFixed(ys[i]);
+                long fz = FixedNoiseGen.toFixed(zs[i]);
+                double expected = NoiseGen.gradientCoherentNoise3D(FixedNoiseGen.toDouble(fx),
+                        FixedNoiseGen.toDouble(fy), FixedNoiseGen.toDouble(fz), 6, quality);
+                int value = FixedNoiseGen.gradientCoherentNoise3D(fx, fy, fz, 6, quality);
+                Assert.assertEquals(expected, FixedNoiseGen.toDouble(value), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void fixedPointBatchMatchesScalar() {
+        double[] xs = randomCoords(39);
+        double[] ys = randomCoords(40);
+        double[] zs = randomCoords(41);
+        long[] fxs = new long[SAMPLES];
+        long[] fys = new long[SAMPLES];
+        long[] fzs = new long[SAMPLES];
+        int[] out = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            fxs[i] = FixedNoiseGen.toFixed(xs[i]);
+            fys[i] = FixedNoiseGen.toFixed(ys[i]);
+            fzs[i] = FixedNoiseGen.toFixed(zs[i]);
+        }
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            FixedNoiseGen.gradientCoherentNoise3D(fxs, fys, fzs, out, 0, SAMPLES, 6, quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                Assert.assertEquals((long) FixedNoiseGen.gradientCoherentNoise3D(fxs[i], fys[i], fzs[i], 6, quality),
+                        (long) out[i]);
+            }
+        }
+    }
+
+    @Test
+    public void simplexNoiseIsBoundedAndContinuous() {
+        double[] xs = randomCoords(28);
+        double[] ys = randomCoords(29);
+        double[] zs = randomCoords(30);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = NoiseGen.simplexNoise3D(xs[i], ys[i], zs[i], 4);
+            Assert.assertTrue(Math.abs(value) <= 1.1);
+            Assert.assertEquals(value, NoiseGen.simplexNoise3D(xs[i] + 1e-7, ys[i], zs[i] - 1e-7, 4), 1e-4);
+        }
+    }
+
+    @Test
+    public void valueBatchMatchesScalar() {
+        double[] xs = randomCoords(4);
+        double[] ys = randomCoords(5);
+        double[] zs = randomCoords(6);
+        double[] out = new double[SAMPLES];
+
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            NoiseGen.valueCoherentNoise3D(xs, ys, zs, out, 0, SAMPLES, 7, quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                Assert.assertEquals(NoiseGen.valueCoherentNoise3D(xs[i], ys[i], zs[i], 7, quality), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void intValueBatchMatchesScalar() {
+        Random random = new Random(7);
+        int[] xs = new int[SAMPLES];
+        int[] ys = new int[SAMPLES];
+        int[] zs = new int[SAMPLES];
+        int[] out = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = random.nextInt();
+            ys[i] = random.nextInt();
+            zs[i] = random.nextInt();
+        }
+
+        NoiseGen.intValueNoise3D(xs, ys, zs, out, 10, SAMPLES - 20, 3);
+        for (int i = 10; i < SAMPLES - 10; i++) {
+            Assert.assertEquals(NoiseGen.intValueNoise3D(xs[i], ys[i], zs[i], 3), out[i]);
+        }
+        Assert.assertEquals(0, out[0]);
+        Assert.assertEquals(0, out[SAMPLES - 1]);
+    }
+
+    private static float[] toFloat(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    private static double[] randomCoords(long seed) {
+        Random random = new Random(seed);
+        double[] coords = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            coords[i] = (random.nextDouble() - 0.5) * 200.0;
+        }
+        return coords;
+    }
+}
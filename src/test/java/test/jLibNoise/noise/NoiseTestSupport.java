@@ -0,0 +1,56 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.module.Module;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers shared by the noise module tests.
+ */
+final class NoiseTestSupport {
+
+    // Number of random input values checked by a test.
+    static final int SAMPLES = 1000;
+
+    private NoiseTestSupport() {
+    }
+
+    /**
+     * Returns a random coordinate between -10 and +10.
+     */
+    static double randomCoord(Random random) {
+        return (random.nextDouble() - 0.5) * 20.0;
+    }
+
+    /**
+     * Counts the output values generated by a noise module.
+     * <p/>
+     * Without a source module, the output value is the sum of the
+     * coordinates of the input value.
+     */
+    static final class CountingModule extends Module {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private final Module source;
+
+        CountingModule() {
+            this(null);
+        }
+
+        CountingModule(Module source) {
+            super(0);
+            this.source = source;
+        }
+
+        @Override
+        public int getSourceModuleCount() {
+            return 0;
+        }
+
+        @Override
+        public double getValue(double x, double y, double z) {
+            calls.incrementAndGet();
+            return source == null ? x + y + z : source.getValue(x, y, z);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.LatticeMode;
+import jLibNoise.noise.NoiseQuality;
+import jLibNoise.noise.Range;
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Const;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.ModuleProgram;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.Simplex;
+import jLibNoise.noise.module.TranslatePoint;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+
+/**
+ *
+ */
+public class OutputRangeTest {
+
+    @Test
+    public void generatorValuesLieWithinRange() {
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            Perlin perlin = new Perlin();
+            perlin.setNoiseQuality(quality);
+            perlin.setOctaveCount(1);
+            assertValuesWithinRange(perlin);
+
+            perlin.setOctaveCount(4);
+            perlin.setPersistence(-0.75);
+            perlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+            assertValuesWithinRange(perlin);
+        }
+
+        Simplex simplex = new Simplex();
+        simplex.setOctaveCount(3);
+        assertValuesWithinRange(simplex);
+    }
+
+    @Test
+    public void rangesPropagateThroughGraph() {
+        Perlin perlin = new Perlin();
+        perlin.setOctaveCount(3);
+        Range perlinRange = perlin.getOutputRange();
+        Assert.assertTrue(perlinRange.isBounded());
+        Assert.assertEquals(-perlinRange.getMin(), perlinRange.getMax(), 0.0);
+
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, perlin);
+        scaleBias.setScale(-2.0);
+        scaleBias.setBias(0.5);
+        Const constant = new Const();
+        constant.setConstValue(1.0);
+        Add add = new Add();
+        add.setSourceModule(0, scaleBias);
+        add.setSourceModule(1, constant);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, add);
+        translate.setTranslation(5.0);
+
+        Range expected = new Range(1.5 - 2.0 * perlinRange.getMax(), 1.5 + 2.0 * perlinRange.getMax());
+        Assert.assertEquals(expected, translate.getOutputRange());
+        Assert.assertEquals(expected, ModuleProgram.compile(translate).getOutputRange());
+        Assert.assertEquals(expected, translate.freeze().getOutputRange());
+        assertValuesWithinRange(translate);
+
+        scaleBias.setScale(0.0);
+        Assert.assertEquals(new Range(1.5, 1.5), translate.getOutputRange());
+    }
+
+    @Test
+    public void unknownModulesAreUnbounded() {
+        Module module = new Module(0) {
+            @Override
+            public double getValue(double x, double y, double z) {
+                return x;
+            }
+        };
+        Assert.assertEquals(Range.UNBOUNDED, module.getOutputRange());
+
+        Add add = new Add();
+        add.setSourceModule(0, module);
+        add.setSourceModule(1, new Perlin());
+        Assert.assertFalse(add.getOutputRange().isBounded());
+    }
+
+    private static void assertValuesWithinRange(Module module) {
+        Range range = module.getOutputRange();
+        Random random = new Random(4);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = (random.nextDouble() - 0.5) * 200.0;
+            double y = (random.nextDouble() - 0.5) * 200.0;
+            double z = (random.nextDouble() - 0.5) * 200.0;
+            Assert.assertTrue(range.contains(module.getValue(x, y, z)));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.FixedNoiseGen;
+import jLibNoise.noise.GradientTable;
+import jLibNoise.noise.LatticeMode;
+import jLibNoise.noise.NoiseQuality;
+import jLibNoise.noise.module.Perlin;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class PerlinTest {
+
+    @Test
+    public void value2DMatchesPlaneSlice() {
+        Perlin perlin = new Perlin();
+        perlin.setSeed(3);
+        Random random = new Random(2);
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            perlin.setNoiseQuality(quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                double x = randomCoord(random);
+                double z = randomCoord(random);
+                Assert.assertEquals(perlin.getValue(x, 0.0, z), perlin.getValue2D(x, z), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void blockValuesMatchScalarValues() {
+        Perlin perlin = new Perlin();
+        Random random = new Random(10);
+        double[] xs = new double[300];
+        double[] ys = new double[300];
+        double[] zs = new double[300];
+        double[] out = new double[300];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+        }
+        for (LatticeMode mode : LatticeMode.values()) {
+            perlin.setLatticeMode(mode);
+            for (NoiseQuality quality : NoiseQuality.values()) {
+                perlin.setNoiseQuality(quality);
+                perlin.getValues(xs, ys, zs, out, 7, 280);
+                for (int i = 7; i < 287; i++) {
+                    Assert.assertEquals(perlin.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void blockValues4DMatchScalarValues() {
+        Perlin perlin = new Perlin();
+        perlin.setFrequency(1.3);
+        Random random = new Random(11);
+        double[] xs = new double[300];
+        double[] ys = new double[300];
+        double[] zs = new double[300];
+        double[] ws = new double[300];
+        double[] out = new double[300];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+            ws[i] = randomCoord(random);
+        }
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            perlin.setNoiseQuality(quality);
+            perlin.getValues4D(xs, ys, zs, ws, out, 7, 280);
+            for (int i = 7; i < 287; i++) {
+                Assert.assertEquals(perlin.getValue(xs[i], ys[i], zs[i], ws[i]), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void rowValuesMatchScalarValues() {
+        Perlin perlin = new Perlin();
+        double[] xs = new double[300];
+        double[] out = new double[300];
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            perlin.setNoiseQuality(quality);
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = -3.0 + i * 0.0213;
+            }
+            perlin.getValues2D(xs, 1.37, out, 5, 290);
+            for (int i = 5; i < 295; i++) {
+                Assert.assertEquals(perlin.getValue2D(xs[i], 1.37), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void derivativeMatchesFiniteDifference() {
+        Perlin perlin = new Perlin();
+        perlin.setFrequency(1.5);
+        Random random = new Random(3);
+        double[] derivative = new double[3];
+        double h = 1e-7;
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            double value = perlin.getValue(x, y, z, derivative);
+            Assert.assertEquals(perlin.getValue(x, y, z), value, 0.0);
+            Assert.assertEquals((perlin.getValue(x + h, y, z) - perlin.getValue(x - h, y, z)) / (2 * h), derivative[0], 1e-3);
+            Assert.assertEquals((perlin.getValue(x, y + h, z) - perlin.getValue(x, y - h, z)) / (2 * h), derivative[1], 1e-3);
+            Assert.assertEquals((perlin.getValue(x, y, z + h) - perlin.getValue(x, y, z - h)) / (2 * h), derivative[2], 1e-3);
+        }
+    }
+
+    @Test
+    public void multiSeedValuesMatchSeededModules() {
+        Perlin perlin = new Perlin();
+        int[] seeds = {3, 17, -5, 100};
+        double[] out = new double[seeds.length + 2];
+        Random random = new Random(7);
+        for (LatticeMode mode : LatticeMode.values()) {
+            perlin.setLatticeMode(mode);
+            for (int i = 0; i < 100; i++) {
+                double x = randomCoord(random);
+                double y = randomCoord(random);
+                double z = randomCoord(random);
+                perlin.getValues(x, y, z, new int[]{0, 3, 17, -5, 100, 0}, out, 1, seeds.length);
+                for (int s = 0; s < seeds.length; s++) {
+                    perlin.setSeed(seeds[s]);
+                    Assert.assertEquals(perlin.getValue(x, y, z), out[s + 1], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebasedValuesMatchAbsoluteValues() {
+        Perlin perlin = new Perlin();
+        perlin.setFrequency(1.25);
+        Random random = new Random(8);
+        for (int i = 0; i < SAMPLES; i++) {
+            long ox = random.nextInt(2000) - 1000;
+            long oy = random.nextInt(2000) - 1000;
+            long oz = random.nextInt(2000) - 1000;
+            double x = random.nextDouble() * 4.0;
+            double y = random.nextDouble() * 4.0;
+            double z = random.nextDouble() * 4.0;
+            Assert.assertEquals(perlin.getValue(ox + x, oy + y, oz + z),
+                    perlin.getRebasedValue(ox, oy, oz, x, y, z), 1e-6);
+        }
+    }
+
+    @Test
+    public void rebasedValuesAreSeamlessFarFromOrigin() {
+        Perlin perlin = new Perlin();
+        Random random = new Random(9);
+        long far = 1000000000000L;
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+            double z = random.nextDouble();
+            double value = perlin.getRebasedValue(far, -far, far, x + 1.0, y, z);
+            Assert.assertEquals(value, perlin.getRebasedValue(far + 1, -far, far, x, y, z), 1e-9);
+            Assert.assertEquals(value, perlin.getRebasedValueF(far + 1, -far, far, (float) x, (float) y, (float) z), 1e-4);
+        }
+    }
+
+    @Test
+    public void tiledValuesRepeat() {
+        Perlin perlin = new Perlin();
+        Assert.assertTrue(perlin.canTile(4.0, 2.0));
+        Assert.assertFalse(perlin.canTile(4.5, 2.0));
+        perlin.setFrequency(0.25);
+        Assert.assertFalse(perlin.canTile(4.0, 2.0));
+        perlin.setFrequency(1.0);
+
+        Random random = new Random(6);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = random.nextDouble() * 4.0;
+            double z = random.nextDouble() * 2.0;
+            double value = perlin.getTiledValue2D(x, z, 4.0, 2.0);
+            Assert.assertEquals(value, perlin.getTiledValue2D(x + 4.0, z, 4.0, 2.0), 1e-6);
+            Assert.assertEquals(value, perlin.getTiledValue2D(x, z + 2.0, 4.0, 2.0), 1e-6);
+        }
+
+        perlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        Assert.assertFalse(perlin.canTile(4.0, 2.0));
+    }
+
+    @Test
+    public void permutationTableLattice() {
+        Perlin perlin = new Perlin();
+        Perlin tablePerlin = new Perlin();
+        tablePerlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        Assert.assertSame(GradientTable.forSeed(9), GradientTable.forSeed(9));
+
+        Random random = new Random(4);
+        double[] derivative = new double[3];
+        double h = 1e-7;
+        boolean differs = false;
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            double value = tablePerlin.getValue(x, y, z);
+            Assert.assertTrue(Math.abs(value) < 2.0);
+            Assert.assertEquals(value, tablePerlin.getValue(x + 256.0, y, z - 256.0), 1e-9);
+            Assert.assertEquals(value, tablePerlin.getValue(x, y, z, derivative), 0.0);
+            Assert.assertEquals((tablePerlin.getValue(x + h, y, z) - tablePerlin.getValue(x - h, y, z)) / (2 * h),
+                    derivative[0], 1e-3);
+            Assert.assertEquals(tablePerlin.getValue(x, 0.0, z), tablePerlin.getValue2D(x, z), 0.0);
+            differs |= value != perlin.getValue(x, y, z);
+        }
+        Assert.assertTrue(differs);
+    }
+
+    @Test
+    public void loopingValueLoops() {
+        Perlin perlin = new Perlin();
+        Random random = new Random(5);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double z = randomCoord(random);
+            Assert.assertEquals(perlin.getLoopingValue(x, z, 0.0, 1.5), perlin.getLoopingValue(x, z, 1.0, 1.5), 1e-9);
+            Assert.assertEquals(perlin.getValue(x, 1.5, z, 0.0), perlin.getLoopingValue(x, z, 0.0, 1.5), 0.0);
+        }
+    }
+
+    @Test
+    public void fixedPointValueTracksDoubleValue() {
+        Perlin perlin = new Perlin();
+        Random random = new Random(6);
+        for (int i = 0; i < SAMPLES; i++) {
+            long x = FixedNoiseGen.toFixed(randomCoord(random));
+            long y = FixedNoiseGen.toFixed(randomCoord(random));
+            long z = FixedNoiseGen.toFixed(randomCoord(random));
+            double expected = perlin.getValue(FixedNoiseGen.toDouble(x), FixedNoiseGen.toDouble(y),
+                    FixedNoiseGen.toDouble(z));
+            Assert.assertEquals(expected, FixedNoiseGen.toDouble(perlin.getValueFixed(x, y, z)), 1e-2);
+        }
+    }
+
+    @Test
+    public void floatValueTracksDoubleValue() {
+        Perlin perlin = new Perlin();
+        Random random = new Random(1);
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            perlin.setNoiseQuality(quality);
+            for (int i = 0; i < SAMPLES; i++) {
+                float x = (float) (randomCoord(random));
+                float y = (float) (randomCoord(random));
+                float z = (float) (randomCoord(random));
+                Assert.assertEquals(perlin.getValue(x, y, z), perlin.getValueF(x, y, z), 1e-4);
+            }
+        }
+    }
+}
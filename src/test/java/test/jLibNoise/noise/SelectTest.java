@@ -0,0 +1,248 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.Interp;
+import jLibNoise.noise.Range;
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Blend;
+import jLibNoise.noise.module.Const;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.ModuleOptimizer;
+import jLibNoise.noise.module.ModuleProgram;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.Select;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import test.jLibNoise.noise.NoiseTestSupport.CountingModule;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class SelectTest {
+
+    @Test
+    public void selectMatchesLibnoise() {
+        Perlin source0 = perlin(1);
+        Perlin source1 = perlin(2);
+        Perlin control = perlin(3);
+        Select select = select(source0, source1, control, 0.5);
+        select.setBounds(-0.25, 0.75);
+
+        Random random = new Random(8);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            double c = control.getValue(x, y, z);
+            double v0 = source0.getValue(x, y, z);
+            double v1 = source1.getValue(x, y, z);
+            double expected;
+            if (c < -0.75) {
+                expected = v0;
+            } else if (c < 0.25) {
+                expected = Interp.linearInterp(v0, v1, Interp.sCurve3((c + 0.75) / 1.0));
+            } else if (c < 1.25) {
+                expected = Interp.linearInterp(v1, v0, Interp.sCurve3((c - 0.25) / 1.0));
+            } else {
+                expected = v0;
+            }
+            Assert.assertEquals(expected, select.getValue(x, y, z), 0.0);
+        }
+
+        // The edge falloff is limited to half the selection range.
+        Assert.assertEquals(0.5, select.getEdgeFalloff(), 0.0);
+
+        // Without an edge falloff, the selection range includes its bounds.
+        Assert.assertEquals(source1.getValue(1.0, 2.0, 3.0),
+                select(source0, source1, constant(1.0), 0.0).getValue(1.0, 2.0, 3.0), 0.0);
+        Assert.assertEquals(source0.getValue(1.0, 2.0, 3.0),
+                select(source0, source1, constant(1.5), 0.0).getValue(1.0, 2.0, 3.0), 0.0);
+    }
+
+    @Test
+    public void blendMatchesLibnoise() {
+        Perlin source0 = perlin(1);
+        Perlin source1 = perlin(2);
+        Perlin control = perlin(3);
+        Blend blend = blend(source0, source1, control);
+
+        Random random = new Random(9);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random);
+            double y = randomCoord(random);
+            double z = randomCoord(random);
+            double expected = Interp.linearInterp(source0.getValue(x, y, z), source1.getValue(x, y, z),
+                    (control.getValue(x, y, z) + 1.0) / 2.0);
+            Assert.assertEquals(expected, blend.getValue(x, y, z), 0.0);
+        }
+    }
+
+    @Test
+    public void blockValuesMatchScalarValues() {
+        Module[] modules = {
+                select(perlin(1), perlin(2), perlin(3), 0.0),
+                select(perlin(1), perlin(2), perlin(3), 0.3),
+                select(perlin(1), perlin(2), constant(5.0), 0.3),
+                blend(perlin(1), perlin(2), perlin(3)),
+                blend(perlin(1), perlin(2), constant(1.0))
+        };
+        for (Module module : modules) {
+            assertBlockValuesMatch(module, module);
+            assertBlockValuesMatch(module, module.freeze());
+            assertBlockValuesMatch(module, ModuleProgram.compile(module));
+            assertBlockValuesMatch(module, ModuleOptimizer.optimize(module));
+        }
+    }
+
+    @Test
+    public void unusedSourcesAreNotEvaluated() {
+        CountingModule source0 = new CountingModule(perlin(1));
+        CountingModule source1 = new CountingModule(perlin(2));
+        Select select = select(source0, source1, constant(5.0), 0.25);
+        select.getValue(1.0, 2.0, 3.0);
+        double[] xs = coordinates(0, 256);
+        double[] out = new double[256];
+        select.getValues(xs, xs, xs, out, 0, 256);
+        Assert.assertEquals(257, source0.calls.get());
+        Assert.assertEquals(0, source1.calls.get());
+
+        // With a mixed control, each source module is only evaluated where
+        // it contributes to the output value.
+        source0.calls.set(0);
+        CountingModule control = new CountingModule(perlin(3));
+        select.setControlModule(control);
+        select.setBounds(0.0, 10.0);
+        select.getValues(xs, xs, xs, out, 0, 256);
+        Assert.assertEquals(256, control.calls.get());
+        Assert.assertTrue(source0.calls.get() > 0 && source0.calls.get() < 256);
+        Assert.assertTrue(source1.calls.get() > 0 && source1.calls.get() < 256);
+    }
+
+    @Test
+    public void decidedControlsAreOptimizedAway() {
+        Perlin source0 = perlin(1);
+        Perlin source1 = perlin(2);
+        ScaleBias control = new ScaleBias();
+        control.setSourceModule(0, perlin(3));
+        control.setScale(0.01);
+        control.setBias(0.5);
+
+        // The control range lies inside the selection range.
+        Select select = select(source0, source1, control, 0.0);
+        select.setBounds(0.0, 1.0);
+        Assert.assertSame(source1, ModuleOptimizer.optimize(select));
+        Assert.assertEquals(source1.getOutputRange(), select.getOutputRange());
+
+        // The control range lies below the selection range.
+        select.setBounds(2.0, 3.0);
+        Assert.assertSame(source0, ModuleOptimizer.optimize(select));
+
+        // The control range overlaps the selection range.
+        select.setBounds(0.5, 3.0);
+        Assert.assertTrue(ModuleOptimizer.optimize(select) instanceof Select);
+
+        Assert.assertSame(source1, ModuleOptimizer.optimize(blend(source0, source1, constant(1.0))));
+    }
+
+    @Test
+    public void valuesLieWithinRanges() {
+        Module[] modules = {
+                select(perlin(1), perlin(2), perlin(3), 0.0),
+                select(perlin(1), perlin(2), perlin(3), 0.4),
+                blend(perlin(1), perlin(2), perlin(3))
+        };
+        Random random = new Random(11);
+        for (Module module : modules) {
+            Range range = module.getOutputRange();
+            Assert.assertTrue(range.isBounded());
+            for (int i = 0; i < 20; i++) {
+                double x0 = randomCoord(random);
+                double y0 = randomCoord(random);
+                double z0 = randomCoord(random);
+                Range boxRange = module.getValueRange(x0, y0, z0, x0 + 0.5, y0 + 0.5, z0 + 0.5);
+                for (int j = 0; j < 50; j++) {
+                    double value = module.getValue(x0 + random.nextDouble() * 0.5, y0 + random.nextDouble() * 0.5,
+                            z0 + random.nextDouble() * 0.5);
+                    Assert.assertTrue(range.contains(value));
+                    Assert.assertTrue(boxRange.contains(value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nestedBlocksKeepTheirOwnScratchArrays() {
+        Select inner = select(perlin(1), perlin(2), perlin(3), 0.3);
+        Add add = new Add();
+        add.setSourceModule(0, inner);
+        add.setSourceModule(1, perlin(4));
+        Module outer = select(inner, add, blend(add, perlin(5), inner), 0.2);
+
+        // Shorter blocks reuse the scratch arrays of longer ones.
+        assertBlockValuesMatch(outer, outer, 3, 300);
+        assertBlockValuesMatch(outer, outer, 40, 17);
+        assertBlockValuesMatch(outer, outer, 0, 256);
+    }
+
+    private static void assertBlockValuesMatch(Module expected, Module actual) {
+        assertBlockValuesMatch(expected, actual, 3, 300);
+    }
+
+    private static void assertBlockValuesMatch(Module expected, Module actual, int offset, int count) {
+        double[] xs = coordinates(offset, count);
+        double[] ys = new double[offset + count];
+        double[] zs = new double[offset + count];
+        for (int i = offset; i < offset + count; i++) {
+            ys[i] = xs[i] * 0.37 - 2.0;
+            zs[i] = 5.0 - xs[i] * 0.61;
+        }
+        double[] out = new double[offset + count];
+        actual.getValues(xs, ys, zs, out, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            Assert.assertEquals(expected.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+        }
+    }
+
+    private static double[] coordinates(int offset, int count) {
+        double[] xs = new double[offset + count];
+        for (int i = offset; i < offset + count; i++) {
+            xs[i] = (i - offset) * 0.0731 - 7.0;
+        }
+        return xs;
+    }
+
+    private static Perlin perlin(int seed) {
+        Perlin perlin = new Perlin();
+        perlin.setSeed(seed);
+        perlin.setOctaveCount(3);
+        return perlin;
+    }
+
+    private static Const constant(double value) {
+        Const constant = new Const();
+        constant.setConstValue(value);
+        return constant;
+    }
+
+    private static Select select(Module source0, Module source1, Module control, double edgeFalloff) {
+        Select select = new Select();
+        select.setSourceModule(0, source0);
+        select.setSourceModule(1, source1);
+        select.setControlModule(control);
+        select.setBounds(0.0, 1.0);
+        select.setEdgeFalloff(edgeFalloff);
+        return select;
+    }
+
+    private static Blend blend(Module source0, Module source1, Module control) {
+        Blend blend = new Blend();
+        blend.setSourceModule(0, source0);
+        blend.setSourceModule(1, source1);
+        blend.setControlModule(control);
+        return blend;
+    }
+}
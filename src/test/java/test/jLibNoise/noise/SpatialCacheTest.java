@@ -0,0 +1,243 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.SpatialCache;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static test.jLibNoise.noise.NoiseTestSupport.SAMPLES;
+import static test.jLibNoise.noise.NoiseTestSupport.randomCoord;
+
+/**
+ *
+ */
+public class SpatialCacheTest {
+
+    // Number of lattice cells per unit with the default tile size and
+    // resolution.
+    private static final double LATTICE_SCALE = 64.0;
+
+    @Test
+    public void cachedValuesMatchSource() {
+        Perlin perlin = new Perlin();
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, perlin);
+        // The input values are spread over many tiles; small tiles keep
+        // them all within the capacity.
+        smallTiles(cache);
+        double[] xs = randomCoords(1);
+        double[] ys = randomCoords(2);
+        double[] zs = randomCoords(3);
+        double[] out = new double[SAMPLES];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(perlin.getValue(xs[i], ys[i], zs[i]), cache.getValue(xs[i], ys[i], zs[i]), 0.0);
+        }
+        Assert.assertEquals(0L, cache.getHitCount());
+        Assert.assertEquals((long) SAMPLES, cache.getMissCount());
+        Assert.assertEquals(SAMPLES, cache.getSize());
+
+        cache.getValues(xs, ys, zs, out, 0, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(perlin.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+        }
+        Assert.assertEquals((long) SAMPLES, cache.getHitCount());
+        Assert.assertEquals((long) SAMPLES, cache.getMissCount());
+
+        cache.resetStatistics();
+        cache.clear();
+        cache.getValues(xs, ys, zs, out, 0, SAMPLES);
+        Assert.assertEquals(0L, cache.getHitCount());
+        Assert.assertEquals((long) SAMPLES, cache.getMissCount());
+        for (int i = 0; i < SAMPLES; i++) {
+            Assert.assertEquals(perlin.getValue(xs[i], ys[i], zs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void cacheIsTransparent() {
+        Perlin perlin = new Perlin();
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, perlin);
+        Random random = new Random(8);
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = randomCoord(random) * 0.1;
+            double y = randomCoord(random) * 0.1;
+            double z = randomCoord(random) * 0.1;
+            Assert.assertEquals(perlin.getValue(x, y, z), cache.getValue(x, y, z), 0.0);
+            // A nearby input value in the same cell does not reuse the
+            // cached output value.
+            double nearX = x + 0.25 / LATTICE_SCALE;
+            Assert.assertEquals(perlin.getValue(nearX, y, z), cache.getValue(nearX, y, z), 0.0);
+            Assert.assertEquals(perlin.getValue(x, y, z), cache.getValue(x, y, z), 0.0);
+        }
+        Assert.assertEquals(perlin.getValue(0.3, 0.2, 0.7), cache.getValue(0.3, 0.2, 0.7), 0.0);
+        Assert.assertEquals(perlin.getValue(0.3, 0.2, 0.7), cache.getValue(0.3, 0.2, 0.7), 0.0);
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, new Perlin());
+        cache.setTileSize(0.5);
+        cache.setResolution(4);
+        cache.setCapacity(256);
+        Random random = new Random(4);
+        for (int i = 0; i < 10 * SAMPLES; i++) {
+            cache.getValue(random.nextDouble() * 10.0, random.nextDouble() * 10.0, 0.0);
+            Assert.assertTrue(cache.getCellCount() <= 256);
+            Assert.assertTrue(cache.getSize() <= cache.getCellCount());
+        }
+        // All the input values in a single tile.
+        for (int i = 0; i < SAMPLES; i++) {
+            cache.getValue(random.nextDouble() * 0.1, 0.0, 0.0);
+            Assert.assertTrue(cache.getCellCount() <= 256);
+        }
+    }
+
+    @Test
+    public void sparseInputValuesAreBounded() {
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, new Perlin());
+        // One input value per tile and per layer, as a coarse zoom level
+        // would use; every input value allocates a whole layer.
+        for (int i = 0; i < SAMPLES; i++) {
+            cache.getValue(i * 3.0, i * 0.5, -i * 2.0);
+            Assert.assertTrue(cache.getCellCount() <= cache.getCapacity());
+        }
+        int layerCells = cache.getResolution() * cache.getResolution();
+        Assert.assertTrue(cache.getSize() <= cache.getCapacity() / layerCells);
+    }
+
+    @Test(expected = ExceptionInvalidParam.class)
+    public void capacityHoldsALayerPerStripe() {
+        SpatialCache cache = new SpatialCache();
+        cache.setResolution(16);
+        cache.setCapacity(SpatialCache.STRIPE_COUNT * 255);
+    }
+
+    @Test
+    public void snappedInputValuesShareLatticePoints() {
+        Perlin perlin = new Perlin();
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, perlin);
+        cache.setSnapping(true);
+        smallTiles(cache);
+        Random random = new Random(7);
+        double[] xs = new double[SAMPLES];
+        double[] ys = new double[SAMPLES];
+        double[] zs = new double[SAMPLES];
+        double[] out = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = randomCoord(random);
+            ys[i] = randomCoord(random);
+            zs[i] = randomCoord(random);
+        }
+
+        cache.getValues(xs, ys, zs, out, 0, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            double expected = perlin.getValue(snap(xs[i]), snap(ys[i]), snap(zs[i]));
+            Assert.assertEquals(expected, out[i], 0.0);
+            Assert.assertEquals(expected, cache.getValue(xs[i], ys[i], zs[i]), 0.0);
+            // Any input value that snaps to the same lattice point hits.
+            Assert.assertEquals(expected, cache.getValue(snap(xs[i]) + 0.25 / LATTICE_SCALE, ys[i], zs[i]), 0.0);
+        }
+        Assert.assertEquals((long) SAMPLES, cache.getMissCount());
+        Assert.assertEquals((long) 2 * SAMPLES, cache.getHitCount());
+
+        // Coordinates that cannot be cached bypass the cache.
+        Assert.assertTrue(Double.isNaN(cache.getValue(Double.NaN, 0.0, 0.0)));
+        Assert.assertEquals(SAMPLES, cache.getSize());
+    }
+
+    @Test
+    public void zoomLevelsShareCachedValues() {
+        Perlin perlin = new Perlin();
+        SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, perlin);
+        double[] fineXs = new double[256];
+        double[] coarseXs = new double[64];
+        double[] out = new double[256];
+        for (int i = 0; i < fineXs.length; i++) {
+            fineXs[i] = -2.0 + i / LATTICE_SCALE;
+        }
+        for (int i = 0; i < coarseXs.length; i++) {
+            coarseXs[i] = -2.0 + i / 16.0;
+        }
+
+        cache.getValues2D(fineXs, 0.75, out, 0, fineXs.length);
+        cache.getValues2D(coarseXs, 0.75, out, 0, coarseXs.length);
+        for (int i = 0; i < coarseXs.length; i++) {
+            Assert.assertEquals(perlin.getValue(coarseXs[i], 0.0, 0.75), out[i], 0.0);
+        }
+        Assert.assertEquals(256L, cache.getMissCount());
+        Assert.assertEquals(64L, cache.getHitCount());
+    }
+
+    @Test(expected = ExceptionInvalidParam.class)
+    public void resolutionMustBeAPowerOfTwo() {
+        new SpatialCache().setResolution(48);
+    }
+
+    @Test
+    public void threadsShareTheCache() throws InterruptedException {
+        final Perlin perlin = new Perlin();
+        final SpatialCache cache = new SpatialCache();
+        cache.setSourceModule(0, perlin);
+        smallTiles(cache);
+        final double[] xs = randomCoords(5);
+        final double[] zs = randomCoords(6);
+        final double[] expected = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            expected[i] = perlin.getValue(xs[i], 0.0, zs[i]);
+        }
+        final AtomicInteger failures = new AtomicInteger();
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < SAMPLES; i++) {
+                        if (cache.getValue(xs[i], 0.0, zs[i]) != expected[i]) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, failures.get());
+        Assert.assertEquals((long) threads.length * SAMPLES, cache.getHitCount() + cache.getMissCount());
+        Assert.assertEquals(SAMPLES, cache.getSize());
+    }
+
+    private static double[] randomCoords(long seed) {
+        Random random = new Random(seed);
+        double[] coords = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            coords[i] = (random.nextDouble() - 0.5) * 200.0;
+        }
+        return coords;
+    }
+
+    /**
+     * Keeps the lattice spacing of the default tile size and resolution,
+     * but with tiles of only 4 x 4 cells per layer.
+     */
+    private static void smallTiles(SpatialCache cache) {
+        cache.setResolution(4);
+        cache.setTileSize(4.0 / LATTICE_SCALE);
+    }
+
+    private static double snap(double coord) {
+        return Math.floor(coord * LATTICE_SCALE + 0.5) / LATTICE_SCALE;
+    }
+}
@@ -0,0 +1,139 @@
+package test.jLibNoise.noise;
+
+import jLibNoise.noise.ExceptionInvalidParam;
+import jLibNoise.noise.GradientTable;
+import jLibNoise.noise.LatticeMode;
+import jLibNoise.noise.NoiseGen;
+import jLibNoise.noise.NoiseQuality;
+import jLibNoise.noise.Range;
+import jLibNoise.noise.module.Add;
+import jLibNoise.noise.module.Module;
+import jLibNoise.noise.module.ModuleProgram;
+import jLibNoise.noise.module.Perlin;
+import jLibNoise.noise.module.RotatePoint;
+import jLibNoise.noise.module.ScaleBias;
+import jLibNoise.noise.module.ScalePoint;
+import jLibNoise.noise.module.TranslatePoint;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ValueRangeTest {
+
+    private static final int BOXES = 50;
+    private static final int SAMPLES = 200;
+
+    @Test
+    public void kernelValuesLieWithinBoxRange() {
+        Random random = new Random(5);
+        GradientTable table = GradientTable.forSeed(17);
+        for (NoiseQuality quality : NoiseQuality.values()) {
+            for (int i = 0; i < BOXES; i++) {
+                double[] box = randomBox(random, 2.0);
+                Range range = NoiseGen.gradientCoherentNoiseRange3D(box[0], box[1], box[2], box[3], box[4], box[5],
+                        i, quality);
+                Range tableRange = NoiseGen.gradientCoherentNoiseRange3D(box[0], box[1], box[2], box[3], box[4],
+                        box[5], table, quality);
+                for (int j = 0; j < SAMPLES; j++) {
+                    double[] p = randomPoint(random, box);
+                    Assert.assertTrue(range.contains(NoiseGen.gradientCoherentNoise3D(p[0], p[1], p[2], i, quality)));
+                    Assert.assertTrue(tableRange.contains(
+                            NoiseGen.gradientCoherentNoise3D(p[0], p[1], p[2], table, quality)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void moduleValuesLieWithinBoxRange() {
+        Perlin perlin = new Perlin();
+        perlin.setOctaveCount(4);
+        perlin.setPersistence(-0.6);
+        perlin.setLacunarity(-1.9);
+        assertValuesWithinBoxRange(perlin);
+        perlin.setLatticeMode(LatticeMode.PERMUTATION_TABLE);
+        assertValuesWithinBoxRange(perlin);
+
+        RotatePoint rotate = new RotatePoint();
+        rotate.setSourceModule(0, new Perlin());
+        rotate.setAngles(20.0, -35.0, 70.0);
+        ScalePoint scale = new ScalePoint();
+        scale.setSourceModule(0, rotate);
+        scale.setScale(0.5, -2.0, 1.5);
+        TranslatePoint translate = new TranslatePoint();
+        translate.setSourceModule(0, scale);
+        translate.setTranslation(3.0, -1.0, 0.25);
+        ScaleBias scaleBias = new ScaleBias();
+        scaleBias.setSourceModule(0, translate);
+        scaleBias.setScale(-0.5);
+        scaleBias.setBias(0.125);
+        Add add = new Add();
+        add.setSourceModule(0, scaleBias);
+        add.setSourceModule(1, perlin);
+        assertValuesWithinBoxRange(add);
+        assertValuesWithinBoxRange(add.freeze());
+        assertValuesWithinBoxRange(ModuleProgram.compile(add));
+    }
+
+    @Test
+    public void smallBoxesGetTightRanges() {
+        Perlin perlin = new Perlin();
+        perlin.setFrequency(0.01);
+        perlin.setOctaveCount(3);
+        Range global = perlin.getOutputRange();
+        Range local = perlin.getValueRange(10.0, 20.0, 30.0, 12.0, 22.0, 32.0);
+        Assert.assertTrue(local.getWidth() < global.getWidth() / 4.0);
+
+        // A region far above the threshold of a cave generator can be
+        // skipped without sampling it.
+        ScaleBias density = new ScaleBias();
+        density.setSourceModule(0, perlin);
+        density.setBias(local.getMin() > 0.0 ? 0.0 : 0.1 - local.getMin());
+        Assert.assertTrue(density.getValueRange(10.0, 20.0, 30.0, 12.0, 22.0, 32.0).getMin() > 0.0);
+
+        // Boxes too large to split into lattice cells fall back to the global bound.
+        Assert.assertEquals(global, perlin.getValueRange(-1e12, 0.0, 0.0, 1e12, 1.0, 1.0));
+    }
+
+    @Test(expected = ExceptionInvalidParam.class)
+    public void emptyBoxesAreRejected() {
+        new Perlin().getValueRange(1.0, 0.0, 0.0, 0.0, 1.0, 1.0);
+    }
+
+    private static void assertValuesWithinBoxRange(Module module) {
+        Random random = new Random(6);
+        for (int i = 0; i < BOXES; i++) {
+            double[] box = randomBox(random, i % 2 == 0 ? 0.5 : 5.0);
+            Range range = module.getValueRange(box[0], box[1], box[2], box[3], box[4], box[5]);
+            for (int j = 0; j < SAMPLES; j++) {
+                double[] p = randomPoint(random, box);
+                Assert.assertTrue(range.contains(module.getValue(p[0], p[1], p[2])));
+            }
+        }
+    }
+
+    private static double[] randomBox(Random random, double size) {
+        double[] box = new double[6];
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = (random.nextDouble() - 0.5) * 100.0;
+            box[axis + 3] = box[axis] + random.nextDouble() * size;
+        }
+        return box;
+    }
+
+    private static double[] randomPoint(Random random, double[] box) {
+        double[] p = new double[3];
+        for (int axis = 0; axis < 3; axis++) {
+            p[axis] = box[axis] + random.nextDouble() * (box[axis + 3] - box[axis]);
+        }
+        // Include the faces of the box.
+        if (random.nextInt(4) == 0) {
+            int axis = random.nextInt(3);
+            p[axis] = box[axis + random.nextInt(2) * 3];
+        }
+        return p;
+    }
+}